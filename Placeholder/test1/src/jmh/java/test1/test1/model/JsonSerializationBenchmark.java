@@ -0,0 +1,97 @@
+package test1.test1.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * JSON serialization of the entity graphs the controllers return: a single
+ * game, a booking (with user and game), a payment (with booking, user and
+ * game) and a catalog-sized list of games.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private JsonMapper mapper;
+    private Game game;
+    private Booking booking;
+    private Payment payment;
+    private List<Game> catalogPage;
+
+    @Setup
+    public void setup() {
+        mapper = JsonMapper.builder().build();
+
+        game = sampleGame(1);
+
+        User user = new User("renter", "$2a$10$abcdefghijklmnopqrstuv", "Likes racing games", "renter");
+        user.setUserId(7);
+
+        booking = new Booking(user, game, LocalDate.of(2030, 1, 10), LocalDate.of(2030, 1, 14), 24.95);
+        booking.setBookingId(42);
+
+        payment = new Payment(booking, "stripe", 24.95, "USD");
+        payment.setPaymentId(99);
+        payment.setStatus("COMPLETED");
+        payment.setTransactionId("STRIPE_1234567890");
+        payment.setCardLast4("4242");
+        payment.setCardBrand("Visa");
+        payment.setCreatedAt(LocalDateTime.of(2030, 1, 1, 12, 0));
+        payment.setCompletedAt(LocalDateTime.of(2030, 1, 1, 12, 0, 2));
+
+        catalogPage = new ArrayList<>();
+        for (int i = 1; i <= 24; i++) {
+            catalogPage.add(sampleGame(i));
+        }
+    }
+
+    private static Game sampleGame(int id) {
+        Game game = new Game("Game " + id, "A well kept copy with manual and case. ".repeat(4), 4.99,
+                "excellent", "/images/game_images/" + id + "_a.jpg,/images/game_images/" + id + "_b.jpg",
+                "PlayStation,Action,Multiplayer", true, LocalDate.of(2030, 1, 1), LocalDate.of(2030, 12, 31), "owner");
+        game.setGameId(id);
+        game.setDeliveryInstructions("Pick up at the station");
+        game.setCreatedAt(LocalDate.of(2029, 12, 1));
+        return game;
+    }
+
+    @Benchmark
+    public byte[] game() {
+        return mapper.writeValueAsBytes(game);
+    }
+
+    @Benchmark
+    public byte[] booking() {
+        return mapper.writeValueAsBytes(booking);
+    }
+
+    @Benchmark
+    public byte[] payment() {
+        return mapper.writeValueAsBytes(payment);
+    }
+
+    @Benchmark
+    public byte[] catalogPage() {
+        return mapper.writeValueAsBytes(catalogPage);
+    }
+}
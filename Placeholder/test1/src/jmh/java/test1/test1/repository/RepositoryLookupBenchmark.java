@@ -0,0 +1,155 @@
+package test1.test1.repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import test1.test1.Test1Application;
+import test1.test1.dto.CursorPage;
+import test1.test1.dto.GameSearchCriteria;
+import test1.test1.dto.GameSummary;
+import test1.test1.model.Booking;
+import test1.test1.model.Game;
+import test1.test1.model.User;
+import test1.test1.service.GameService;
+
+/**
+ * Repository lookups against a seeded in-memory SQLite database (one pooled
+ * connection, so every query sees the same database).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryLookupBenchmark {
+
+    private static final int USERS = 200;
+    private static final int GAMES = 1000;
+    private static final int BOOKINGS = 5000;
+    private static final String[] PLATFORMS = {"PlayStation", "Xbox", "Nintendo Switch", "PC"};
+
+    private ConfigurableApplicationContext context;
+    private GameRepository gameRepository;
+    private BookingRepository bookingRepository;
+    private UserRepository userRepository;
+    private List<Integer> gameIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(Test1Application.class)
+                .web(WebApplicationType.NONE)
+                // Passed as arguments so they take precedence over application.properties.
+                // SqliteDataSourceConfig gives an in-memory database its one writer connection
+                // only; no reader pool, as each connection would see its own empty database
+                .run("--spring.datasource.url=jdbc:sqlite::memory:",
+                        "--app.sqlite.read-pool-size=0",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        gameRepository = context.getBean(GameRepository.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+        GameService gameService = context.getBean(GameService.class);
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(new User("user" + i, "hash", "bio", i % 4 == 0 ? "owner" : "renter"));
+        }
+        users = userRepository.saveAll(users);
+
+        List<Game> games = new ArrayList<>();
+        LocalDate base = LocalDate.of(2030, 1, 1);
+        for (int i = 0; i < GAMES; i++) {
+            Game game = new Game("Game " + i, "desc", 1 + (i % 20), "good", null,
+                    PLATFORMS[i % PLATFORMS.length] + ",Action", true, base, base.plusYears(1),
+                    users.get((i * 4) % USERS).getUsername());
+            game.setCreatedAt(base.minusDays(i % 365));
+            gameService.save(game);
+            games.add(game);
+        }
+
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            Game game = games.get(i % GAMES);
+            LocalDate start = base.plusDays((i / GAMES) * 7L);
+            bookings.add(new Booking(users.get(i % USERS), game, start, start.plusDays(3), 4 * game.getPricePerDay()));
+        }
+        bookingRepository.saveAll(bookings);
+
+        gameIds = games.stream().map(Game::getGameId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private Integer nextGameId() {
+        next = (next + 7919) % gameIds.size();
+        return gameIds.get(next);
+    }
+
+    @Benchmark
+    public Object findGameById() {
+        return gameRepository.findById(nextGameId()).orElse(null);
+    }
+
+    @Benchmark
+    public List<Booking> findBookingsByGame() {
+        return bookingRepository.findByGameGameId(nextGameId());
+    }
+
+    @Benchmark
+    public List<Booking> findBlockingBookingsByGame() {
+        return bookingRepository.findByGameGameIdAndStatusIn(nextGameId(), Booking.BLOCKING_STATUSES);
+    }
+
+    @Benchmark
+    public boolean existsOverlapping() {
+        return bookingRepository.existsOverlapping(nextGameId(), LocalDate.of(2030, 1, 2), LocalDate.of(2030, 1, 5),
+                Booking.BLOCKING_STATUSES, null);
+    }
+
+    @Benchmark
+    public List<Booking> findBookingsByOwner() {
+        return bookingRepository.findByGameOwnerUsername("user" + ((next++ % (USERS / 4)) * 4));
+    }
+
+    @Benchmark
+    public User findUserByUsername() {
+        return userRepository.findByUsername("user" + (next++ % USERS));
+    }
+
+    @Benchmark
+    public List<Game> findGamesByAllTags() {
+        return gameRepository.findByAllTags(List.of("xbox", "action"), 2);
+    }
+
+    @Benchmark
+    public CursorPage<GameSummary> searchCatalogFirstPage() {
+        GameSearchCriteria criteria = new GameSearchCriteria();
+        criteria.setPlatform("xbox");
+        criteria.setSort(GameSearchCriteria.Sort.PRICE_LOW);
+        return gameRepository.searchCatalog(criteria);
+    }
+}
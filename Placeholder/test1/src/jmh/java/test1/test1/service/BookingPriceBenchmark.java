@@ -0,0 +1,45 @@
+package test1.test1.service;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rental price computation done by {@link BookingService#createBooking}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingPriceBenchmark {
+
+    @Param({"1", "7", "90"})
+    private int days;
+
+    private LocalDate start;
+    private LocalDate end;
+
+    @Setup
+    public void setup() {
+        start = LocalDate.of(2030, 1, 1);
+        end = start.plusDays(days - 1);
+    }
+
+    @Benchmark
+    public double totalPrice() {
+        return BookingService.totalPrice(start, end, 4.99);
+    }
+}
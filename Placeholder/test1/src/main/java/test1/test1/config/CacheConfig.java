@@ -0,0 +1,26 @@
+package test1.test1.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Turns on Spring's cache abstraction. The cache provider (Caffeine) and the
+ * size/expiry of each cache are set in application.properties.
+ *
+ * <p>The cache interceptor is ordered outside the transaction interceptor, so a
+ * hit never opens a transaction and evictions run after the write has
+ * committed; evicting earlier would let a concurrent read put the old row
+ * straight back.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    public static final String USERS_BY_ID = "usersById";
+    public static final String USERS_BY_USERNAME = "usersByUsername";
+    public static final String GAMES_BY_ID = "gamesById";
+    public static final String GAMES_BY_OWNER = "gamesByOwner";
+    public static final String GAME_CATALOG = "gameCatalog";
+    public static final String IDEMPOTENCY_KEYS = "idempotencyKeys";
+}
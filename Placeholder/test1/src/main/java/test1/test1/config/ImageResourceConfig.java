@@ -0,0 +1,47 @@
+package test1.test1.config;
+
+import java.time.Duration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import test1.test1.service.ImageStorageService;
+import test1.test1.util.ImageVariant;
+
+/**
+ * Serves uploaded images and their resized variants from the storage root.
+ * Images bundled under static/images/game_images (seed data and uploads from
+ * before the storage root existed) are still found through the classpath
+ * fallback.
+ *
+ * <p>Content-addressed images live in two-character shard directories; their
+ * names change whenever their bytes do, so they (and their variants) are sent
+ * as immutable for a year. Everything else keeps the default headers.
+ */
+@Configuration
+public class ImageResourceConfig implements WebMvcConfigurer {
+
+    private final ImageStorageService imageStorageService;
+
+    public ImageResourceConfig(ImageStorageService imageStorageService) {
+        this.imageStorageService = imageStorageService;
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // toUri() only adds the trailing slash when the directory already exists
+        String root = imageStorageService.getRoot().toUri().toString();
+        if (!root.endsWith("/")) {
+            root += "/";
+        }
+        registry.addResourceHandler(ImageVariant.URL_PREFIX + "??/*")
+            .addResourceLocations(root)
+            .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable());
+        registry.addResourceHandler(ImageVariant.URL_PREFIX + "**")
+            .addResourceLocations(
+                root,
+                "classpath:/static" + ImageVariant.URL_PREFIX);
+    }
+}
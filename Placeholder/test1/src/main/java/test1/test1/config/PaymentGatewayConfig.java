@@ -0,0 +1,26 @@
+package test1.test1.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import test1.test1.service.PaymentGateway;
+import test1.test1.service.ResilientPaymentGateway;
+import test1.test1.service.SimulatedPaymentGateway;
+
+/**
+ * The {@link PaymentGateway} used by the payment workers: the simulator,
+ * behind a per-gateway timeout, bulkhead and circuit breaker. A real provider
+ * client would replace the simulator here and keep the same protection.
+ */
+@Configuration
+@EnableConfigurationProperties(PaymentGatewayProperties.class)
+public class PaymentGatewayConfig {
+
+    @Bean
+    public PaymentGateway paymentGateway(PaymentGatewayProperties properties, MeterRegistry meterRegistry) {
+        return new ResilientPaymentGateway(new SimulatedPaymentGateway(properties.getSimulator()),
+            properties, meterRegistry);
+    }
+}
@@ -0,0 +1,193 @@
+package test1.test1.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings under {@code app.payments.gateway}: how the local simulator
+ * behaves, and the resilience limits applied to each gateway (one per payment
+ * method, e.g. {@code app.payments.gateway.resilience.stripe.timeout=5s}).
+ * Methods without their own entry use the defaults below.
+ */
+@ConfigurationProperties(prefix = "app.payments.gateway")
+public class PaymentGatewayProperties {
+
+    private Simulator simulator = new Simulator();
+    private Map<String, Resilience> resilience = new HashMap<>();
+
+    public Resilience resilienceFor(String gateway) {
+        return resilience.getOrDefault(gateway, new Resilience());
+    }
+
+    public static class Simulator {
+        /** Latency is log-normal with this median and 99th percentile; zero means instant. */
+        private Duration medianLatency = Duration.ZERO;
+        private Duration p99Latency = Duration.ZERO;
+        /** Share of charges the "bank" declines (a normal outcome, not a gateway failure). */
+        private double declineRate = 0.05;
+        /** Share of calls that fail with a provider error. */
+        private double errorRate = 0.0;
+        /** Share of calls that hang for hangDuration, to exercise timeouts. */
+        private double hangRate = 0.0;
+        private Duration hangDuration = Duration.ofSeconds(30);
+        /** Calls per second before the provider starts rejecting; zero means unlimited. */
+        private int rateLimitPerSecond = 0;
+
+        // Getters and Setters
+        public Duration getMedianLatency() {
+            return medianLatency;
+        }
+
+        public void setMedianLatency(Duration medianLatency) {
+            this.medianLatency = medianLatency;
+        }
+
+        public Duration getP99Latency() {
+            return p99Latency;
+        }
+
+        public void setP99Latency(Duration p99Latency) {
+            this.p99Latency = p99Latency;
+        }
+
+        public double getDeclineRate() {
+            return declineRate;
+        }
+
+        public void setDeclineRate(double declineRate) {
+            this.declineRate = declineRate;
+        }
+
+        public double getErrorRate() {
+            return errorRate;
+        }
+
+        public void setErrorRate(double errorRate) {
+            this.errorRate = errorRate;
+        }
+
+        public double getHangRate() {
+            return hangRate;
+        }
+
+        public void setHangRate(double hangRate) {
+            this.hangRate = hangRate;
+        }
+
+        public Duration getHangDuration() {
+            return hangDuration;
+        }
+
+        public void setHangDuration(Duration hangDuration) {
+            this.hangDuration = hangDuration;
+        }
+
+        public int getRateLimitPerSecond() {
+            return rateLimitPerSecond;
+        }
+
+        public void setRateLimitPerSecond(int rateLimitPerSecond) {
+            this.rateLimitPerSecond = rateLimitPerSecond;
+        }
+    }
+
+    public static class Resilience {
+        /** Longest a single charge may take before it counts as failed. */
+        private Duration timeout = Duration.ofSeconds(10);
+        /** Bulkhead: charges in flight at once, and how long to wait for a free slot. */
+        private int maxConcurrentCalls = 10;
+        private Duration maxWait = Duration.ZERO;
+        /** Circuit breaker: opens when this percentage of the last slidingWindowSize calls failed. */
+        private int failureRateThreshold = 50;
+        private int slidingWindowSize = 20;
+        private int minimumCalls = 10;
+        /** How long an open breaker rejects calls before letting halfOpenCalls trial calls through. */
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenCalls = 3;
+
+        // Getters and Setters
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public int getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+
+        public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public int getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(int failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public int getSlidingWindowSize() {
+            return slidingWindowSize;
+        }
+
+        public void setSlidingWindowSize(int slidingWindowSize) {
+            this.slidingWindowSize = slidingWindowSize;
+        }
+
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+
+        public Duration getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+        }
+
+        public int getHalfOpenCalls() {
+            return halfOpenCalls;
+        }
+
+        public void setHalfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+        }
+    }
+
+    // Getters and Setters
+    public Simulator getSimulator() {
+        return simulator;
+    }
+
+    public void setSimulator(Simulator simulator) {
+        this.simulator = simulator;
+    }
+
+    public Map<String, Resilience> getResilience() {
+        return resilience;
+    }
+
+    public void setResilience(Map<String, Resilience> resilience) {
+        this.resilience = resilience;
+    }
+}
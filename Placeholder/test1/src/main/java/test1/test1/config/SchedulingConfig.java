@@ -0,0 +1,13 @@
+package test1.test1.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on {@code @Scheduled} housekeeping, such as purging expired
+ * idempotency keys. Tasks run one at a time on Spring Boot's scheduler thread.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,65 @@
+package test1.test1.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import test1.test1.profiling.ProfilingDataSource;
+import test1.test1.profiling.SqlProfileEndpoint;
+import test1.test1.profiling.SqlProfiler;
+import test1.test1.profiling.SqlProfilingFilter;
+
+/**
+ * Wires the opt-in SQL profiler: the DataSource is wrapped so statements can be
+ * timed, and requests are profiled when they send {@code X-Sql-Profile: true}
+ * (or always, with app.sql-profiler.profile-all-requests). Off unless
+ * app.sql-profiler.enabled=true (the profiling profile), since the results
+ * expose SQL text; otherwise the DataSource is left untouched.
+ */
+@Configuration
+@ConditionalOnBooleanProperty(name = "app.sql-profiler.enabled")
+public class SqlProfilerConfig {
+
+    @Bean
+    public SqlProfiler sqlProfiler(@Value("${app.sql-profiler.profile-all-requests:false}") boolean profileAll,
+                                   @Value("${app.sql-profiler.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+        return new SqlProfiler(profileAll, nPlusOneThreshold);
+    }
+
+    // Static so the post-processor doesn't force this configuration to initialize early
+    @Bean
+    public static BeanPostProcessor profilingDataSourcePostProcessor(ObjectProvider<SqlProfiler> profiler) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Delegating data sources (e.g. the SQLite read/write proxy) route to pools that get wrapped themselves
+                if (bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)) {
+                    return new ProfilingDataSource(dataSource, profiler::getIfAvailable);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlProfilingFilter> sqlProfilingFilter(SqlProfiler profiler) {
+        FilterRegistrationBean<SqlProfilingFilter> registration =
+                new FilterRegistrationBean<>(new SqlProfilingFilter(profiler));
+        // Right after RequestCorrelationFilter so the request id is already in the MDC
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    @Bean
+    public SqlProfileEndpoint sqlProfileEndpoint(SqlProfiler profiler) {
+        return new SqlProfileEndpoint(profiler);
+    }
+}
@@ -0,0 +1,253 @@
+package test1.test1.config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.JdbcSettings;
+import org.hibernate.cfg.MappingSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+
+/**
+ * SQLite connection setup. All writes go through a single writer connection
+ * (SQLite only ever allows one writer, so queuing in the pool beats retrying on
+ * SQLITE_BUSY), while {@code @Transactional(readOnly = true)} work is routed to
+ * a pool of query-only connections. With WAL journaling those readers are not
+ * blocked by the writer.
+ *
+ * <p>In-memory databases are per connection, so they get the writer only.
+ */
+@Configuration
+@ConditionalOnExpression("'${spring.datasource.url:}'.startsWith('jdbc:sqlite:')")
+public class SqliteDataSourceConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SqliteDataSourceConfig.class);
+
+    private static final String WRITE = "write";
+    private static final String READ = "read";
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${app.sqlite.read-pool-size:8}")
+    private int readPoolSize;
+
+    @Value("${app.sqlite.busy-timeout-ms:5000}")
+    private int busyTimeoutMs;
+
+    @Value("${app.sqlite.synchronous:NORMAL}")
+    private String synchronous;
+
+    @Value("${app.sqlite.cache-size:-16000}")
+    private int cacheSize;
+
+    @Value("${app.sqlite.mmap-size:268435456}")
+    private long mmapSize;
+
+    @Bean
+    public DataSource sqliteWriteDataSource() {
+        HikariConfig config = baseConfig("sqlite-writer");
+        config.setMaximumPoolSize(1);
+        if (!isInMemory()) {
+            config.addDataSourceProperty("journal_mode", "WAL");
+        }
+        // Take the write lock at BEGIN instead of failing to upgrade a read lock mid-transaction
+        config.addDataSourceProperty("transaction_mode", "IMMEDIATE");
+        HikariDataSource writer = new HikariDataSource(config);
+        if (!isInMemory()) {
+            repairUntypedPrimaryKeys(writer);
+        }
+        return writer;
+    }
+
+    // Depends on the writer so the file already exists and is in WAL mode when readers open it
+    @Bean
+    @ConditionalOnExpression("${app.sqlite.read-pool-size:8} > 0 and !'${spring.datasource.url:}'.contains(':memory:')")
+    public DataSource sqliteReadDataSource(@Qualifier("sqliteWriteDataSource") DataSource writer) {
+        HikariConfig config = baseConfig("sqlite-reader");
+        config.setMaximumPoolSize(readPoolSize);
+        config.setConnectionInitSql("PRAGMA query_only = ON");
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * The DataSource JPA sees. Connections are fetched lazily, on the first
+     * statement, by which point the transaction's read-only flag is known and
+     * picks the pool.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("sqliteWriteDataSource") DataSource writer,
+                                 @Qualifier("sqliteReadDataSource") ObjectProvider<DataSource> reader) {
+        DataSource readerPool = reader.getIfAvailable();
+        if (readerPool == null) {
+            return new LazyConnectionDataSourceProxy(writer);
+        }
+        AbstractRoutingDataSource routing = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? READ : WRITE;
+            }
+        };
+        routing.setTargetDataSources(Map.of(WRITE, writer, READ, readerPool));
+        routing.setDefaultTargetDataSource(writer);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * Open-session-in-view would otherwise keep the request's first connection,
+     * possibly a reader, for every later transaction in the same request.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(JdbcSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    /**
+     * Keeps identity columns first in generated tables. With Hibernate's
+     * default ordering another integer column can come first, and the dialect
+     * then leaves the id without a type (it skips "integer" once the statement
+     * already contains it). An untyped primary key is not SQLite's rowid, so
+     * every id would be stored as NULL.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer identityColumnsFirst() {
+        return properties -> properties.put(MappingSettings.COLUMN_ORDERING_STRATEGY, "legacy");
+    }
+
+    /**
+     * Rebuilds tables that an earlier version created with such an untyped
+     * primary key. Rows get their rowid as id, which is the id Hibernate
+     * reported when it inserted them. Runs before the schema update, which
+     * fails on a column without a type.
+     */
+    static void repairUntypedPrimaryKeys(DataSource writer) {
+        JdbcTemplate jdbc = new JdbcTemplate(writer);
+        List<String> tables = jdbc.queryForList(
+                "SELECT name FROM sqlite_master WHERE type = 'table' AND name NOT LIKE 'sqlite_%'", String.class);
+        for (String table : tables) {
+            List<Map<String, Object>> columns = jdbc.queryForList("PRAGMA table_info(\"" + table + "\")");
+            List<Map<String, Object>> keys = columns.stream()
+                    .filter(column -> ((Number) column.get("pk")).intValue() > 0)
+                    .toList();
+            if (keys.size() == 1 && String.valueOf(keys.get(0).get("type")).isBlank()) {
+                try {
+                    rebuildWithIntegerKey(jdbc, table, (String) keys.get(0).get("name"),
+                            columns.stream().map(column -> (String) column.get("name")).toList());
+                } catch (DataAccessException e) {
+                    log.warn("Could not repair the primary key of {}: {}", table,
+                            e.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private static void rebuildWithIntegerKey(JdbcTemplate jdbc, String table, String key, List<String> columns) {
+        String create = jdbc.queryForObject(
+                "SELECT sql FROM sqlite_master WHERE type = 'table' AND name = ?", String.class, table);
+        Matcher untyped = Pattern.compile("([(,]\\s*)" + Pattern.quote(key) + "(\\s*,)").matcher(create);
+        if (!untyped.find()) {
+            log.warn("Could not repair the primary key of {}: unexpected definition", table);
+            return;
+        }
+        String fixed = untyped.replaceFirst("$1" + Matcher.quoteReplacement(key) + " integer$2");
+        // Index definitions follow a renamed table, so keep the originals to recreate them
+        List<String> indexes = jdbc.queryForList(
+                "SELECT sql FROM sqlite_master WHERE type = 'index' AND tbl_name = ? AND sql IS NOT NULL",
+                String.class, table);
+        String list = columns.stream().map(column -> "\"" + column + "\"").collect(Collectors.joining(", "));
+        String select = columns.stream()
+                .map(column -> column.equals(key) ? "coalesce(\"" + column + "\", rowid)" : "\"" + column + "\"")
+                .collect(Collectors.joining(", "));
+        new TransactionTemplate(new DataSourceTransactionManager(jdbc.getDataSource())).executeWithoutResult(tx -> {
+            jdbc.execute("ALTER TABLE " + table + " RENAME TO " + table + "_untyped");
+            jdbc.execute(fixed);
+            jdbc.execute("INSERT INTO " + table + " (" + list + ") SELECT " + select + " FROM " + table + "_untyped");
+            jdbc.execute("DROP TABLE " + table + "_untyped");
+            indexes.forEach(jdbc::execute);
+        });
+        log.info("Rebuilt {} so that {} is an integer primary key", table, key);
+    }
+
+    /**
+     * Hibernate's SQLite dialect adds unique keys with ALTER TABLE, which SQLite
+     * does not support, so ddl-auto silently skips unique {@code @Index}
+     * entries. They are created here once the schema is up.
+     */
+    @Bean
+    public SmartInitializingSingleton sqliteUniqueIndexes(EntityManagerFactory entityManagerFactory,
+                                                          @Qualifier("sqliteWriteDataSource") DataSource writer) {
+        return () -> {
+            JdbcTemplate jdbc = new JdbcTemplate(writer);
+            for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+                Table table = entity.getJavaType().getAnnotation(Table.class);
+                if (table == null) {
+                    continue;
+                }
+                for (Index index : table.indexes()) {
+                    if (!index.unique()) {
+                        continue;
+                    }
+                    try {
+                        jdbc.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + index.name()
+                                + " ON " + table.name() + " (" + index.columnList() + ")");
+                    } catch (DataAccessException e) {
+                        log.warn("Could not create unique index {} on {}: {}", index.name(), table.name(),
+                                e.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+        };
+    }
+
+    private HikariConfig baseConfig(String poolName) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setJdbcUrl(url);
+        config.setDriverClassName("org.sqlite.JDBC");
+        Properties pragmas = new Properties();
+        pragmas.setProperty("busy_timeout", String.valueOf(busyTimeoutMs));
+        pragmas.setProperty("synchronous", synchronous);
+        pragmas.setProperty("cache_size", String.valueOf(cacheSize));
+        pragmas.setProperty("mmap_size", String.valueOf(mmapSize));
+        config.setDataSourceProperties(pragmas);
+        return config;
+    }
+
+    private boolean isInMemory() {
+        return url.contains(":memory:");
+    }
+}
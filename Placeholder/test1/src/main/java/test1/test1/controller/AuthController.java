@@ -3,6 +3,8 @@ package test1.test1.controller;
 import java.util.Map;
 import java.util.Optional;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -18,6 +20,8 @@ import test1.test1.service.UserService;
 @RequestMapping("/auth")
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     private final UserService userService;
 
     public AuthController(UserService userService) {
@@ -33,10 +37,8 @@ public class AuthController {
             // store minimal session info
             session.setAttribute("userId", user.getUserId());
             session.setAttribute("username", user.getUsername());
-            
-            System.out.println("Login successful!");
-            System.out.println("Stored in session - userId: " + user.getUserId() + ", username: " + user.getUsername());
-            
+            log.info("User {} logged in", user.getUserId());
+
             // Return UserResponse DTO instead of User entity
             UserResponse response = new UserResponse(
                 user.getUserId(),
@@ -46,6 +48,7 @@ public class AuthController {
             );
             return ResponseEntity.ok(response);
         } else {
+            log.info("Failed login attempt");
             return ResponseEntity.status(401).body(Map.of("error", "Invalid username or password"));
         }
     }
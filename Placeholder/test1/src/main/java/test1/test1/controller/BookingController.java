@@ -6,6 +6,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -15,6 +17,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import test1.test1.dto.BookingSummary;
 import test1.test1.model.Booking;
 import test1.test1.model.User;
 import test1.test1.service.BookingService;
@@ -24,6 +27,8 @@ import test1.test1.service.UserService;
 @RequestMapping("/bookings")
 public class BookingController {
 
+    private static final Logger log = LoggerFactory.getLogger(BookingController.class);
+
     private final BookingService bookingService;
     private final UserService userService;
 
@@ -115,14 +120,14 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<Booking> getAllBookings() {
-        return bookingService.getAllBookings();
+    public List<BookingSummary> getAllBookings() {
+        return bookingService.getBookingSummaries();
     }
 
     @GetMapping("/game/{gameId}")
-    public ResponseEntity<List<Booking>> getBookingsByGame(@PathVariable Integer gameId) {
+    public ResponseEntity<List<BookingSummary>> getBookingsByGame(@PathVariable Integer gameId) {
         try {
-            List<Booking> bookings = bookingService.getBookingsByGame(gameId);
+            List<BookingSummary> bookings = bookingService.getBookingSummariesByGame(gameId);
             return ResponseEntity.ok(bookings);
         } catch (Exception e) {
             return ResponseEntity.status(500).body(null);
@@ -130,9 +135,9 @@ public class BookingController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Booking>> getBookingsByUser(@PathVariable Integer userId) {
+    public ResponseEntity<List<BookingSummary>> getBookingsByUser(@PathVariable Integer userId) {
         try {
-            List<Booking> bookings = bookingService.getBookingsByUser(userId);
+            List<BookingSummary> bookings = bookingService.getBookingSummariesByUser(userId);
             return ResponseEntity.ok(bookings);
         } catch (Exception e) {
             return ResponseEntity.status(500).body(null);
@@ -155,9 +160,9 @@ public class BookingController {
     }
 
     @GetMapping("/owner/{ownerUsername}")
-    public ResponseEntity<List<Booking>> getBookingsByOwner(@PathVariable String ownerUsername) {
+    public ResponseEntity<List<BookingSummary>> getBookingsByOwner(@PathVariable String ownerUsername) {
         try {
-            List<Booking> bookings = bookingService.getBookingsByOwner(ownerUsername);
+            List<BookingSummary> bookings = bookingService.getBookingSummariesByOwner(ownerUsername);
             return ResponseEntity.ok(bookings);
         } catch (Exception e) {
             return ResponseEntity.status(500).body(null);
@@ -167,28 +172,27 @@ public class BookingController {
     @PutMapping("/{bookingId}/status")
     public ResponseEntity<?> updateBookingStatus(@PathVariable Integer bookingId, @RequestBody Map<String, String> request) {
         try {
-            System.out.println("Received request to update booking " + bookingId);
-            System.out.println("Request body: " + request);
-            
             String status = request.get("status");
-            System.out.println("Status: " + status);
-            
+            log.debug("Updating booking {} to status {}", bookingId, status);
+
             if (status == null || (!status.equals("APPROVED") && !status.equals("DECLINED"))) {
-                System.out.println("Invalid status: " + status);
+                log.info("Rejected status update for booking {}: invalid status {}", bookingId, status);
                 return ResponseEntity.badRequest().body(Map.of("message", "Invalid status"));
             }
 
             Booking booking = bookingService.updateBookingStatus(bookingId, status);
             if (booking == null) {
-                System.out.println("Booking not found: " + bookingId);
+                log.info("Status update for missing booking {}", bookingId);
                 return ResponseEntity.status(404).body(Map.of("message", "Booking not found"));
             }
 
-            System.out.println("Successfully updated booking to status: " + booking.getStatus());
+            log.info("Booking {} is now {}", bookingId, booking.getStatus());
             return ResponseEntity.ok(booking);
+        } catch (IllegalStateException e) {
+            log.info("Status update for booking {} conflicts: {}", bookingId, e.getMessage());
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Error updating booking status:");
-            e.printStackTrace();
+            log.error("Failed to update status of booking {}", bookingId, e);
             return ResponseEntity.status(500).body(Map.of("message", "Failed to update booking status: " + e.getMessage()));
         }
     }
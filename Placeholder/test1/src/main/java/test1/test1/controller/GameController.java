@@ -1,7 +1,14 @@
 package test1.test1.controller;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,22 +17,45 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import test1.test1.dto.AvailabilityResponse;
+import test1.test1.dto.CatalogCursor;
+import test1.test1.dto.CursorPage;
 import test1.test1.dto.GameRequest;
+import test1.test1.dto.GameSearchCriteria;
+import test1.test1.dto.GameSummary;
 import test1.test1.model.Game;
+import test1.test1.service.AvailabilityService;
 import test1.test1.service.GameService;
+import test1.test1.service.GameVersions;
 
 @RestController
 @RequestMapping("/games")
 public class GameController {
 
+    private static final Logger log = LoggerFactory.getLogger(GameController.class);
+
     private final GameService gameService;
     private final test1.test1.service.UserService userService;
+    private final AvailabilityService availabilityService;
+    private final GameVersions gameVersions;
+
+    // Longest window the availability endpoint will compute in one call
+    private static final int MAX_AVAILABILITY_DAYS = 731;
+
+    // 0 makes browsers revalidate every time, which the ETags turn into a cheap 304
+    @Value("${app.http-cache.games-max-age-seconds:0}")
+    private long maxAgeSeconds;
 
-    public GameController(GameService gameService, test1.test1.service.UserService userService) {
+    public GameController(GameService gameService, test1.test1.service.UserService userService,
+                          AvailabilityService availabilityService, GameVersions gameVersions) {
         this.gameService = gameService;
         this.userService = userService;
+        this.availabilityService = availabilityService;
+        this.gameVersions = gameVersions;
     }
 
     @PostMapping
@@ -71,36 +101,143 @@ public class GameController {
                 owner
             );
             
-            System.out.println("Game saved with owner: " + game.getOwnerUsername());
+            log.info("Game {} listed by {}", game.getGameId(), game.getOwnerUsername());
             
             return ResponseEntity.ok(game);
         } catch (IllegalArgumentException | java.time.format.DateTimeParseException e) {
             // Client sent invalid data (bad dates, invalid values, etc.)
-            System.err.println("Invalid game data: " + e.getMessage());
+            log.info("Rejected game listing: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             // Server error - database issues, service failures, etc.
-            System.err.println("Error adding game: " + e.getMessage());
+            log.error("Failed to add game", e);
             return ResponseEntity.status(500).build();
         }
     }
 
+    /**
+     * Whole catalog, tagged with the catalog version. The tag is taken before
+     * the games are read, so a concurrent write can only make it stale, which
+     * costs the client one extra download rather than a missed change.
+     */
     @GetMapping
-    public List<Game> getAllGames() {
-        return gameService.getAllGames();
+    public ResponseEntity<List<Game>> getAllGames(WebRequest webRequest) {
+        String etag = gameVersions.catalogETag();
+        if (webRequest.checkNotModified(etag)) {
+            return notModified();
+        }
+        return cacheable(etag).body(gameService.getAllGames());
+    }
+
+    /**
+     * Filtered, sorted and keyset-paginated catalog. Pass the returned
+     * {@code nextCursor} back as {@code cursor} to fetch the following page.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<GameSummary>> searchGames(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String platform,
+            @RequestParam(required = false) String category,
+            @RequestParam(name = "tag", required = false) List<String> tags,
+            @RequestParam(required = false) String condition,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) String availableFrom,
+            @RequestParam(required = false) String availableTo,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        try {
+            // Availability filters depend on bookings, which the catalog version doesn't track
+            boolean taggable = (availableFrom == null || availableFrom.isEmpty())
+                    && (availableTo == null || availableTo.isEmpty());
+            String etag = taggable ? gameVersions.catalogETag() : null;
+            if (etag != null && webRequest.checkNotModified(etag)) {
+                return notModified();
+            }
+
+            GameSearchCriteria criteria = new GameSearchCriteria();
+            criteria.setQuery(q);
+            criteria.setPlatform(platform);
+            criteria.setCategory(category);
+            criteria.setTags(tags);
+            criteria.setCondition(condition);
+            criteria.setMinPrice(minPrice);
+            criteria.setMaxPrice(maxPrice);
+            criteria.setActive(active);
+            criteria.setAvailableFrom(availableFrom != null && !availableFrom.isEmpty() ? LocalDate.parse(availableFrom) : null);
+            criteria.setAvailableTo(availableTo != null && !availableTo.isEmpty() ? LocalDate.parse(availableTo) : null);
+            criteria.setSort(GameSearchCriteria.Sort.fromParam(sort));
+            criteria.setCursor(cursor != null && !cursor.isEmpty() ? CatalogCursor.decode(cursor, criteria.getSort()) : null);
+            criteria.setLimit(limit);
+
+            CursorPage<GameSummary> page = gameService.searchGames(criteria);
+            return etag != null ? cacheable(etag).body(page) : ResponseEntity.ok(page);
+        } catch (IllegalArgumentException | java.time.format.DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Game> getGameById(@PathVariable Integer id) {
-        return gameService.getGameById(id)
-            .map(ResponseEntity::ok)
-            .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<Game> getGameById(@PathVariable Integer id, WebRequest webRequest) {
+        // The stored version decides, so a write on any instance changes the tag
+        Long version = gameVersions.currentVersion(id);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (webRequest.checkNotModified(GameVersions.gameETag(id, version))) {
+            return notModified();
+        }
+
+        Game game = gameService.getGameById(id).orElse(null);
+        if (game != null && game.getVersion() < version) {
+            game = gameService.reloadGame(id);
+        }
+        if (game == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = gameVersions.gameETag(game);
+        if (webRequest.checkNotModified(etag)) {
+            return notModified();
+        }
+        return cacheable(etag).body(game);
+    }
+
+    /**
+     * Compact free/busy ranges for a game between {@code from} and {@code to}
+     * (inclusive). Defaults to today through one year ahead.
+     */
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<AvailabilityResponse> getAvailability(@PathVariable Integer id,
+                                                                @RequestParam(required = false) String from,
+                                                                @RequestParam(required = false) String to) {
+        try {
+            LocalDate start = from != null && !from.isEmpty() ? LocalDate.parse(from) : LocalDate.now();
+            LocalDate end = to != null && !to.isEmpty() ? LocalDate.parse(to) : start.plusYears(1);
+            if (end.isBefore(start) || end.isAfter(start.plusDays(MAX_AVAILABILITY_DAYS))) {
+                return ResponseEntity.badRequest().build();
+            }
+
+            Game game = gameService.getGame(id);
+            if (game == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(availabilityService.getAvailability(game, start, end));
+        } catch (java.time.format.DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/owner/{ownerUsername}")
-    public ResponseEntity<List<Game>> getGamesByOwner(@PathVariable String ownerUsername) {
+    public ResponseEntity<List<Game>> getGamesByOwner(@PathVariable String ownerUsername, WebRequest webRequest) {
+        String etag = gameVersions.catalogETag();
+        if (webRequest.checkNotModified(etag)) {
+            return notModified();
+        }
         List<Game> games = gameService.getGamesByOwner(ownerUsername);
-        return ResponseEntity.ok(games);
+        return cacheable(etag).body(games);
     }
 
     @PutMapping("/{id}")
@@ -179,12 +316,27 @@ public class GameController {
             return ResponseEntity.status(403).build(); // Forbidden or not found
         } catch (IllegalArgumentException e) {
             // Client sent invalid data
-            System.err.println("Invalid delete request: " + e.getMessage());
+            log.info("Rejected delete of game {}: {}", id, e.getMessage());
             return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             // Server error - database issues, service failures, etc.
-            System.err.println("Error deleting game: " + e.getMessage());
+            log.error("Failed to delete game {}", id, e);
             return ResponseEntity.status(500).build();
         }
     }
+
+    private ResponseEntity.BodyBuilder cacheable(String etag) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl());
+    }
+
+    // checkNotModified has already written the 304 status and the ETag
+    private <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl()).build();
+    }
+
+    private CacheControl cacheControl() {
+        return maxAgeSeconds > 0
+            ? CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).mustRevalidate()
+            : CacheControl.noCache();
+    }
 }
@@ -1,13 +1,11 @@
 package test1.test1.controller;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -16,72 +14,49 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import test1.test1.service.ImageStorageService;
+import test1.test1.service.ImageVariantService;
+import test1.test1.util.ImageVariant;
+
 @RestController
 @RequestMapping("/api")
 public class ImageUploadController {
 
-    // Directory where images will be saved
-    private static final String UPLOAD_DIR = "src/main/resources/static/images/game_images/";
+    private static final Logger log = LoggerFactory.getLogger(ImageUploadController.class);
+
+    private final ImageStorageService imageStorageService;
+    private final ImageVariantService imageVariantService;
+
+    public ImageUploadController(ImageStorageService imageStorageService, ImageVariantService imageVariantService) {
+        this.imageStorageService = imageStorageService;
+        this.imageVariantService = imageVariantService;
+    }
 
     @PostMapping("/upload-image")
     public ResponseEntity<Map<String, String>> uploadImage(@RequestParam("file") MultipartFile file) {
         try {
-            // Validate file
-            if (file.isEmpty()) {
-                return ResponseEntity.badRequest().body(createErrorResponse("File is empty"));
-            }
-
-            // Check file type
-            String contentType = file.getContentType();
-            if (!isValidImageType(contentType)) {
-                return ResponseEntity.badRequest().body(createErrorResponse("Invalid file type. Only images are allowed"));
-            }
-
-            // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get(UPLOAD_DIR);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String filename = generateUniqueFilename(originalFilename);
-            Path filePath = uploadPath.resolve(filename);
+            String filename = imageStorageService.store(file);
+            // Resized copies are made in the background; until then the original is served
+            imageVariantService.submit(filename);
 
-            // Save file
-            Files.write(filePath, file.getBytes());
-
-            // Return path relative to static folder
-            String imagePath = "/images/game_images/" + filename;
-            
+            String imagePath = ImageVariant.URL_PREFIX + filename;
             Map<String, String> response = new HashMap<>();
             response.put("imagePath", imagePath);
+            response.put("thumbnailPath", ImageVariant.THUMB.urlFor(imagePath));
             response.put("filename", filename);
-            
+
             return ResponseEntity.ok(response);
 
+        } catch (IllegalArgumentException e) {
+            // Empty upload or the bytes aren't a supported image
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
         } catch (IOException e) {
+            log.error("Failed to store uploaded image", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(createErrorResponse("Failed to upload image: " + e.getMessage()));
         }
     }
 
-    private boolean isValidImageType(String contentType) {
-        if (contentType == null) {
-            return false;
-        }
-        return contentType.startsWith("image/");
-    }
-
-    private String generateUniqueFilename(String originalFilename) {
-        // Generate a unique filename using UUID and original extension
-        String extension = originalFilename != null && originalFilename.contains(".") 
-            ? originalFilename.substring(originalFilename.lastIndexOf("."))
-            : ".png";
-        
-        return UUID.randomUUID().toString() + extension;
-    }
-
     private Map<String, String> createErrorResponse(String message) {
         Map<String, String> error = new HashMap<>();
         error.put("error", message);
@@ -0,0 +1,52 @@
+package test1.test1.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import test1.test1.model.LedgerBalance;
+import test1.test1.service.LedgerService;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Earnings read from the precomputed ledger balances. Each response is one
+ * row per currency, e.g.
+ * [{ "account": "owner:alice", "currency": "USD", "balance": 125.50, "balanceMinor": 12550, "entryCount": 7, ... }]
+ */
+@RestController
+@RequestMapping("/ledger")
+public class LedgerController {
+
+    private final LedgerService ledgerService;
+
+    public LedgerController(LedgerService ledgerService) {
+        this.ledgerService = ledgerService;
+    }
+
+    /**
+     * What an owner has earned from rentals, net of refunds
+     */
+    @GetMapping("/owners/{username}")
+    public ResponseEntity<?> getOwnerBalances(@PathVariable String username) {
+        try {
+            List<LedgerBalance> balances = ledgerService.getOwnerBalances(username);
+            return ResponseEntity.ok(balances);
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                .body(Map.of("message", "Error retrieving balances: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Platform totals, net of refunds (admin only)
+     */
+    @GetMapping("/platform")
+    public ResponseEntity<?> getPlatformBalances() {
+        try {
+            List<LedgerBalance> balances = ledgerService.getPlatformBalances();
+            return ResponseEntity.ok(balances);
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                .body(Map.of("message", "Error retrieving balances: " + e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package test1.test1.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import test1.test1.model.BatchCheckpoint;
+import test1.test1.service.PaymentBatchService;
+import java.net.URI;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Month-end batch jobs over payments (admin only). Jobs run in the background;
+ * follow them with GET /payments/batch/{jobName}.
+ */
+@RestController
+@RequestMapping("/payments/batch")
+public class PaymentBatchController {
+
+    private final PaymentBatchService batchService;
+
+    public PaymentBatchController(PaymentBatchService batchService) {
+        this.batchService = batchService;
+    }
+
+    /**
+     * Refund every COMPLETED payment whose booking was DECLINED
+     * Optional request body:
+     * {
+     *   "jobName": "refund-2026-09",
+     *   "from": "2026-09-01",   (payments created on or after, default: first day of last month)
+     *   "to": "2026-10-01",     (and before, default: first day of this month)
+     *   "reason": "Booking declined by owner"
+     * }
+     * Posting a job name again resumes that job if it stopped.
+     */
+    @PostMapping("/refunds")
+    public ResponseEntity<?> startRefunds(@RequestBody(required = false) Map<String, String> request) {
+        String reason = request == null || request.get("reason") == null
+            ? "Booking declined by owner" : request.get("reason");
+        return start(BatchCheckpoint.REFUND, "refund", request, reason);
+    }
+
+    /**
+     * Total payments per status and currency, and resubmit payments stuck in
+     * PENDING. Same optional body as refunds, without the reason.
+     */
+    @PostMapping("/reconciliations")
+    public ResponseEntity<?> startReconciliation(@RequestBody(required = false) Map<String, String> request) {
+        return start(BatchCheckpoint.RECONCILE, "reconcile", request, null);
+    }
+
+    /**
+     * Progress of a job: position, counters, items per second and, for
+     * reconciliations, the totals so far
+     */
+    @GetMapping("/{jobName}")
+    public ResponseEntity<?> getJob(@PathVariable String jobName) {
+        Optional<BatchCheckpoint> job = batchService.getJob(jobName);
+        if (job.isEmpty()) {
+            return ResponseEntity.status(404)
+                .body(Map.of("message", "Batch job not found"));
+        }
+        return ResponseEntity.ok(job.get());
+    }
+
+    private ResponseEntity<?> start(String jobType, String namePrefix, Map<String, String> request, String reason) {
+        LocalDate from;
+        LocalDate to;
+        try {
+            LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+            from = parseDate(request, "from", thisMonth.minusMonths(1));
+            to = parseDate(request, "to", thisMonth);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("message", "Dates must be formatted as yyyy-MM-dd"));
+        }
+        if (!from.isBefore(to)) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("message", "from must be before to"));
+        }
+
+        String jobName = request == null ? null : request.get("jobName");
+        if (jobName == null) {
+            jobName = namePrefix + "-" + from + "-" + to;
+        }
+        if (jobName.isBlank() || jobName.length() > BatchCheckpoint.MAX_JOB_NAME_LENGTH) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("message", "jobName must be 1 to " + BatchCheckpoint.MAX_JOB_NAME_LENGTH + " characters"));
+        }
+
+        try {
+            BatchCheckpoint job = batchService.start(jobName, jobType, from.atStartOfDay(), to.atStartOfDay(), reason);
+            if (job.isFinished()) {
+                return ResponseEntity.ok(job);
+            }
+            return ResponseEntity.accepted()
+                .location(URI.create("/payments/batch/" + jobName))
+                .body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    private static LocalDate parseDate(Map<String, String> request, String field, LocalDate fallback) {
+        String value = request == null ? null : request.get(field);
+        return value == null ? fallback : LocalDate.parse(value);
+    }
+}
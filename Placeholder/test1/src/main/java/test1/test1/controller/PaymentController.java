@@ -1,13 +1,21 @@
 package test1.test1.controller;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import test1.test1.dto.PaymentSummary;
+import test1.test1.model.IdempotencyRecord;
 import test1.test1.model.Payment;
 import test1.test1.model.Booking;
 import test1.test1.model.User;
 import test1.test1.service.PaymentService;
 import test1.test1.service.BookingService;
+import test1.test1.service.IdempotencyService;
 import test1.test1.service.UserService;
+import java.net.URI;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
@@ -21,11 +29,16 @@ public class PaymentController {
     private final PaymentService paymentService;
     private final BookingService bookingService;
     private final UserService userService;
+    private final IdempotencyService idempotencyService;
+    private final PaymentEventStream paymentEvents;
 
-    public PaymentController(PaymentService paymentService, BookingService bookingService, UserService userService) {
+    public PaymentController(PaymentService paymentService, BookingService bookingService, UserService userService,
+                             IdempotencyService idempotencyService, PaymentEventStream paymentEvents) {
         this.paymentService = paymentService;
         this.bookingService = bookingService;
         this.userService = userService;
+        this.idempotencyService = idempotencyService;
+        this.paymentEvents = paymentEvents;
     }
 
     /**
@@ -45,9 +58,26 @@ public class PaymentController {
      *   "card": { ... } (for Stripe)
      *   "paypal": { ... } (for PayPal)
      * }
+     * The payment is accepted as PENDING (202) and charged in the background;
+     * follow it by polling GET /payments/{id} or with GET /payments/{id}/events.
+     * With an Idempotency-Key header the booking and payment are made once per
+     * key; retries get the first response back (with Idempotent-Replayed: true).
      */
     @PostMapping("/process")
-    public ResponseEntity<?> processPayment(@RequestBody Map<String, Object> request) {
+    public ResponseEntity<?> processPayment(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody Map<String, Object> request) {
+        if (idempotencyKey == null) {
+            return process(request);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > IdempotencyRecord.MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("message", "Idempotency-Key must be 1 to " + IdempotencyRecord.MAX_KEY_LENGTH + " characters"));
+        }
+        return idempotencyService.execute(idempotencyKey, request, () -> process(request));
+    }
+
+    private ResponseEntity<?> process(Map<String, Object> request) {
         try {
             String method = (String) request.get("method");
             Double amount = ((Number) request.get("amount")).doubleValue();
@@ -121,6 +151,8 @@ public class PaymentController {
             );
 
             if ("FAILED".equals(payment.getStatus())) {
+                // Free the dates so the renter can try again with another method
+                bookingService.updateBookingStatus(booking.getBookingId(), "DECLINED");
                 return ResponseEntity.badRequest()
                     .body(Map.of(
                         "message", "Payment failed: " + payment.getFailureReason(),
@@ -137,8 +169,15 @@ public class PaymentController {
             response.put("amount", payment.getAmount());
             response.put("currency", payment.getCurrency());
             response.put("status", payment.getStatus());
-            response.put("message", "Payment processed successfully!");
 
+            if ("PENDING".equals(payment.getStatus())) {
+                String statusUrl = "/payments/" + payment.getPaymentId();
+                response.put("statusUrl", statusUrl);
+                response.put("eventsUrl", statusUrl + "/events");
+                response.put("message", "Payment accepted and being processed");
+                return ResponseEntity.accepted().location(URI.create(statusUrl)).body(response);
+            }
+            response.put("message", "Payment processed successfully!");
             return ResponseEntity.ok(response);
 
         } catch (IllegalArgumentException e) {
@@ -168,6 +207,18 @@ public class PaymentController {
         }
     }
 
+    /**
+     * Stream that sends one "status" event when the payment is no longer PENDING
+     */
+    @GetMapping(value = "/{paymentId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter paymentEvents(@PathVariable Integer paymentId) {
+        if (paymentService.getPaymentById(paymentId).isEmpty()) {
+            // A map body can't be written as text/event-stream; the error page answers instead
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Payment not found");
+        }
+        return paymentEvents.subscribe(paymentId, id -> paymentService.getPaymentById(id).orElse(null));
+    }
+
     /**
      * Get payment by transaction ID
      */
@@ -225,7 +276,7 @@ public class PaymentController {
     @GetMapping
     public ResponseEntity<?> getAllPayments() {
         try {
-            List<Payment> payments = paymentService.getAllPayments();
+            List<PaymentSummary> payments = paymentService.getPaymentSummaries();
             return ResponseEntity.ok(payments);
         } catch (Exception e) {
             return ResponseEntity.status(500)
@@ -236,7 +287,7 @@ public class PaymentController {
     /**
      * Detect card brand from card number
      */
-    private String detectCardBrand(String cardNumber) {
+    static String detectCardBrand(String cardNumber) {
         if (cardNumber == null || cardNumber.length() < 1) {
             return "Unknown";
         }
@@ -0,0 +1,88 @@
+package test1.test1.controller;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import test1.test1.model.Payment;
+import test1.test1.service.PaymentFinishedEvent;
+
+/**
+ * Server-sent event streams for pending payments. Each stream gets one
+ * {@code status} event with the final status and is then closed. Only
+ * payments finished by this instance are pushed; a client whose stream times
+ * out falls back to polling {@code GET /payments/{id}}.
+ */
+@Component
+public class PaymentEventStream {
+
+    static final long TIMEOUT_MILLIS = 60_000;
+
+    private final ConcurrentMap<Integer, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    /**
+     * Opens a stream for a payment. {@code currentPayment} is read after the
+     * stream is registered, so a payment finishing in between still reaches it.
+     */
+    public SseEmitter subscribe(Integer paymentId, Function<Integer, Payment> currentPayment) {
+        SseEmitter emitter = new SseEmitter(TIMEOUT_MILLIS);
+        // Added atomically with respect to deliver(), which takes the whole set at once
+        subscribers.compute(paymentId, (id, emitters) -> {
+            Set<SseEmitter> set = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            set.add(emitter);
+            return set;
+        });
+        Runnable remove = () -> unsubscribe(paymentId, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        Payment payment = currentPayment.apply(paymentId);
+        if (payment != null && !"PENDING".equals(payment.getStatus())) {
+            deliver(paymentId, payment.getStatus(), payment.getFailureReason());
+        }
+        return emitter;
+    }
+
+    @EventListener
+    public void onPaymentFinished(PaymentFinishedEvent event) {
+        deliver(event.getPaymentId(), event.getStatus(), event.getFailureReason());
+    }
+
+    private void deliver(Integer paymentId, String status, String failureReason) {
+        Set<SseEmitter> emitters = subscribers.remove(paymentId);
+        if (emitters == null) {
+            return;
+        }
+        Map<String, Object> data = failureReason == null
+            ? Map.of("paymentId", paymentId, "status", status)
+            : Map.of("paymentId", paymentId, "status", status, "failureReason", failureReason);
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().name("status").data(data));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e); // client already gone
+            }
+        }
+    }
+
+    private void unsubscribe(Integer paymentId, SseEmitter emitter) {
+        subscribers.computeIfPresent(paymentId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    int subscriberCount(Integer paymentId) {
+        Set<SseEmitter> emitters = subscribers.get(paymentId);
+        return emitters == null ? 0 : emitters.size();
+    }
+}
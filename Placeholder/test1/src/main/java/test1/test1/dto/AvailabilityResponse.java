@@ -0,0 +1,64 @@
+package test1.test1.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Free and busy days of one game inside a requested window.
+ */
+public class AvailabilityResponse {
+    private Integer gameId;
+    private LocalDate from;
+    private LocalDate to;
+    private List<DateRange> busy;
+    private List<DateRange> free;
+
+    public AvailabilityResponse(Integer gameId, LocalDate from, LocalDate to, List<DateRange> busy, List<DateRange> free) {
+        this.gameId = gameId;
+        this.from = from;
+        this.to = to;
+        this.busy = busy;
+        this.free = free;
+    }
+
+    // Getters and Setters
+    public Integer getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(Integer gameId) {
+        this.gameId = gameId;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public List<DateRange> getBusy() {
+        return busy;
+    }
+
+    public void setBusy(List<DateRange> busy) {
+        this.busy = busy;
+    }
+
+    public List<DateRange> getFree() {
+        return free;
+    }
+
+    public void setFree(List<DateRange> free) {
+        this.free = free;
+    }
+}
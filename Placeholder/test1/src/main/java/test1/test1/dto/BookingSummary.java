@@ -0,0 +1,144 @@
+package test1.test1.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Booking row for the booking lists. Built straight from a JPQL constructor
+ * expression, so only these columns are selected; the nested game and user
+ * carry just what the booking pages show (no description, photo list or
+ * password hash).
+ */
+public class BookingSummary {
+    private Integer bookingId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private double totalPrice;
+    private String status;
+    private GameInfo game;
+    private UserInfo user;
+
+    public BookingSummary(Integer bookingId, LocalDate startDate, LocalDate endDate, double totalPrice, String status,
+                          Integer gameId, String title, double pricePerDay, String photos, String ownerUsername,
+                          Integer userId, String username) {
+        this.bookingId = bookingId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.totalPrice = totalPrice;
+        this.status = status;
+        this.game = new GameInfo(gameId, title, pricePerDay, GameSummary.firstPhoto(photos), ownerUsername);
+        this.user = new UserInfo(userId, username);
+    }
+
+    // Getters and Setters
+    public Integer getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(Integer bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public double getTotalPrice() {
+        return totalPrice;
+    }
+
+    public void setTotalPrice(double totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public GameInfo getGame() {
+        return game;
+    }
+
+    public void setGame(GameInfo game) {
+        this.game = game;
+    }
+
+    public UserInfo getUser() {
+        return user;
+    }
+
+    public void setUser(UserInfo user) {
+        this.user = user;
+    }
+
+    public static class GameInfo {
+        private Integer gameId;
+        private String title;
+        private double pricePerDay;
+        private String coverPhoto;
+        private String ownerUsername;
+
+        public GameInfo(Integer gameId, String title, double pricePerDay, String coverPhoto, String ownerUsername) {
+            this.gameId = gameId;
+            this.title = title;
+            this.pricePerDay = pricePerDay;
+            this.coverPhoto = coverPhoto;
+            this.ownerUsername = ownerUsername;
+        }
+
+        // Getters
+        public Integer getGameId() {
+            return gameId;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public double getPricePerDay() {
+            return pricePerDay;
+        }
+
+        public String getCoverPhoto() {
+            return coverPhoto;
+        }
+
+        public String getOwnerUsername() {
+            return ownerUsername;
+        }
+    }
+
+    public static class UserInfo {
+        private Integer userId;
+        private String username;
+
+        public UserInfo(Integer userId, String username) {
+            this.userId = userId;
+            this.username = username;
+        }
+
+        // Getters
+        public Integer getUserId() {
+            return userId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package test1.test1.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import test1.test1.dto.GameSearchCriteria.Sort;
+
+/**
+ * Opaque keyset cursor for the game catalog: the sort it was issued for, the
+ * sort key of the last row returned and its id as a tie-breaker, base64url
+ * encoded. The key is parsed back to its type (creation date, title or price)
+ * when the cursor is decoded, so a malformed or mismatched cursor is rejected
+ * before any query runs.
+ */
+public class CatalogCursor {
+    private final Sort sort;
+    private final Comparable<?> sortValue;
+    private final Integer gameId;
+
+    public CatalogCursor(Sort sort, Comparable<?> sortValue, Integer gameId) {
+        this.sort = sort;
+        this.sortValue = sortValue;
+        this.gameId = gameId;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    /** A LocalDate for NEWEST/OLDEST, a String for ALPHABETICAL, a Double for the price sorts. */
+    public Comparable<?> getSortValue() {
+        return sortValue;
+    }
+
+    public Integer getGameId() {
+        return gameId;
+    }
+
+    public String encode() {
+        String raw = sort.getParam() + "|" + gameId + "|" + sortValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor for a request sorted by {@code expected}; one issued for
+     * another sort can't mark a position in this order and is rejected.
+     */
+    public static CatalogCursor decode(String token, Sort expected) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length < 3) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            Sort sort = Sort.fromParam(parts[0]);
+            if (sort != expected) {
+                throw new IllegalArgumentException("Cursor was issued for sort " + sort.getParam());
+            }
+            return new CatalogCursor(sort, parseValue(sort, parts[2]), Integer.valueOf(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    private static Comparable<?> parseValue(Sort sort, String value) {
+        switch (sort) {
+            case NEWEST:
+            case OLDEST:
+                return LocalDate.parse(value);
+            case ALPHABETICAL:
+                return value;
+            default:
+                return Double.valueOf(value);
+        }
+    }
+}
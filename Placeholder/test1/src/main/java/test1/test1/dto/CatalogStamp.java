@@ -0,0 +1,32 @@
+package test1.test1.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate over the games table that changes whenever a game is added,
+ * edited or removed. The catalog ETag is built from it.
+ */
+public class CatalogStamp {
+    private final long games;
+    private final long versions;
+    private final LocalDateTime lastUpdate;
+
+    public CatalogStamp(Long games, Long versions, LocalDateTime lastUpdate) {
+        this.games = games != null ? games : 0;
+        this.versions = versions != null ? versions : 0;
+        this.lastUpdate = lastUpdate;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getVersions() {
+        return versions;
+    }
+
+    /** Null while no game has been written since the column was added. */
+    public LocalDateTime getLastUpdate() {
+        return lastUpdate;
+    }
+}
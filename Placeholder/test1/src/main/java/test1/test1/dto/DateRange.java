@@ -0,0 +1,32 @@
+package test1.test1.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Inclusive range of days.
+ */
+public class DateRange {
+    private LocalDate from;
+    private LocalDate to;
+
+    public DateRange(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+}
@@ -0,0 +1,189 @@
+package test1.test1.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filters, ordering and page position for a catalog query. Every filter is
+ * optional; unset fields do not constrain the result.
+ */
+public class GameSearchCriteria {
+
+    public static final int DEFAULT_LIMIT = 24;
+    public static final int MAX_LIMIT = 100;
+
+    // Listing page slugs -> tag names stored on games
+    private static final Map<String, String> PLATFORM_TAGS = Map.of(
+        "playstation", "PlayStation",
+        "xbox", "Xbox",
+        "nintendo", "Nintendo Switch",
+        "pc", "PC"
+    );
+
+    public enum Sort {
+        NEWEST("newest"),
+        OLDEST("oldest"),
+        ALPHABETICAL("alphabetical"),
+        PRICE_LOW("price-low"),
+        PRICE_HIGH("price-high");
+
+        private final String param;
+
+        Sort(String param) {
+            this.param = param;
+        }
+
+        public String getParam() {
+            return param;
+        }
+
+        public static Sort fromParam(String param) {
+            if (param == null || param.isEmpty()) {
+                return NEWEST;
+            }
+            for (Sort sort : values()) {
+                if (sort.param.equalsIgnoreCase(param)) {
+                    return sort;
+                }
+            }
+            throw new IllegalArgumentException("Unknown sort: " + param);
+        }
+    }
+
+    private String query;
+    private String platform;
+    private String category;
+    private List<String> tags;
+    private String condition;
+    private Double minPrice;
+    private Double maxPrice;
+    private Boolean active;
+    private LocalDate availableFrom;
+    private LocalDate availableTo;
+    private Sort sort = Sort.NEWEST;
+    private CatalogCursor cursor;
+    private int limit = DEFAULT_LIMIT;
+
+    public GameSearchCriteria() {}
+
+    /**
+     * Tag name for the requested platform slug, e.g. "nintendo" -> "Nintendo Switch".
+     * Unknown slugs are used verbatim.
+     */
+    public String getPlatformTag() {
+        if (platform == null || platform.isEmpty()) {
+            return null;
+        }
+        return PLATFORM_TAGS.getOrDefault(platform.toLowerCase(), platform);
+    }
+
+    // Getters and Setters
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public String getPlatform() {
+        return platform;
+    }
+
+    public void setPlatform(String platform) {
+        this.platform = platform;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    public String getCondition() {
+        return condition;
+    }
+
+    public void setCondition(String condition) {
+        this.condition = condition;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+
+    public LocalDate getAvailableFrom() {
+        return availableFrom;
+    }
+
+    public void setAvailableFrom(LocalDate availableFrom) {
+        this.availableFrom = availableFrom;
+    }
+
+    public LocalDate getAvailableTo() {
+        return availableTo;
+    }
+
+    public void setAvailableTo(LocalDate availableTo) {
+        this.availableTo = availableTo;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public void setSort(Sort sort) {
+        this.sort = sort != null ? sort : Sort.NEWEST;
+    }
+
+    public CatalogCursor getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(CatalogCursor cursor) {
+        this.cursor = cursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            this.limit = DEFAULT_LIMIT;
+        } else {
+            this.limit = Math.min(limit, MAX_LIMIT);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package test1.test1.dto;
+
+import java.time.LocalDate;
+
+import test1.test1.util.ImageVariant;
+
+/**
+ * Slim view of a game used by the listings page. Leaves out the description,
+ * delivery instructions and the full photo list so catalog pages stay small.
+ */
+public class GameSummary {
+    private Integer gameId;
+    private String title;
+    private double pricePerDay;
+    private String condition;
+    private String tags;
+    private String coverPhoto;
+    private String thumbnail; // resized cover; may not exist yet, so clients fall back to coverPhoto
+    private boolean active;
+    private String ownerUsername;
+    private LocalDate createdAt;
+
+    public GameSummary(Integer gameId, String title, double pricePerDay, String condition, String tags,
+                       String photos, boolean active, String ownerUsername, LocalDate createdAt) {
+        this.gameId = gameId;
+        this.title = title;
+        this.pricePerDay = pricePerDay;
+        this.condition = condition;
+        this.tags = tags;
+        this.coverPhoto = firstPhoto(photos);
+        this.thumbnail = ImageVariant.THUMB.urlFor(coverPhoto);
+        this.active = active;
+        this.ownerUsername = ownerUsername;
+        this.createdAt = createdAt;
+    }
+
+    static String firstPhoto(String photos) {
+        if (photos == null || photos.isBlank()) {
+            return null;
+        }
+        String first = photos.split(",")[0].trim();
+        return first.isEmpty() ? null : first;
+    }
+
+    // Getters and Setters
+    public Integer getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(Integer gameId) {
+        this.gameId = gameId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public double getPricePerDay() {
+        return pricePerDay;
+    }
+
+    public void setPricePerDay(double pricePerDay) {
+        this.pricePerDay = pricePerDay;
+    }
+
+    public String getCondition() {
+        return condition;
+    }
+
+    public void setCondition(String condition) {
+        this.condition = condition;
+    }
+
+    public String getTags() {
+        return tags;
+    }
+
+    public void setTags(String tags) {
+        this.tags = tags;
+    }
+
+    public String getCoverPhoto() {
+        return coverPhoto;
+    }
+
+    public void setCoverPhoto(String coverPhoto) {
+        this.coverPhoto = coverPhoto;
+    }
+
+    public String getThumbnail() {
+        return thumbnail;
+    }
+
+    public void setThumbnail(String thumbnail) {
+        this.thumbnail = thumbnail;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public String getOwnerUsername() {
+        return ownerUsername;
+    }
+
+    public void setOwnerUsername(String ownerUsername) {
+        this.ownerUsername = ownerUsername;
+    }
+
+    public LocalDate getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDate createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,136 @@
+package test1.test1.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Payment row for the payments list: the payment's own columns plus the id of
+ * its booking instead of the whole booking graph.
+ */
+public class PaymentSummary {
+    private Integer paymentId;
+    private Integer bookingId;
+    private String paymentMethod;
+    private double amount;
+    private String currency;
+    private String status;
+    private String transactionId;
+    private String cardLast4;
+    private String cardBrand;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    private String failureReason;
+
+    public PaymentSummary(Integer paymentId, Integer bookingId, String paymentMethod, double amount, String currency,
+                          String status, String transactionId, String cardLast4, String cardBrand,
+                          LocalDateTime createdAt, LocalDateTime completedAt, String failureReason) {
+        this.paymentId = paymentId;
+        this.bookingId = bookingId;
+        this.paymentMethod = paymentMethod;
+        this.amount = amount;
+        this.currency = currency;
+        this.status = status;
+        this.transactionId = transactionId;
+        this.cardLast4 = cardLast4;
+        this.cardBrand = cardBrand;
+        this.createdAt = createdAt;
+        this.completedAt = completedAt;
+        this.failureReason = failureReason;
+    }
+
+    // Getters and Setters
+    public Integer getPaymentId() {
+        return paymentId;
+    }
+
+    public void setPaymentId(Integer paymentId) {
+        this.paymentId = paymentId;
+    }
+
+    public Integer getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(Integer bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public void setPaymentMethod(String paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(double amount) {
+        this.amount = amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public String getCardLast4() {
+        return cardLast4;
+    }
+
+    public void setCardLast4(String cardLast4) {
+        this.cardLast4 = cardLast4;
+    }
+
+    public String getCardBrand() {
+        return cardBrand;
+    }
+
+    public void setCardBrand(String cardBrand) {
+        this.cardBrand = cardBrand;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+}
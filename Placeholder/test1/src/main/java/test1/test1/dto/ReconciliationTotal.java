@@ -0,0 +1,42 @@
+package test1.test1.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Number and sum of the payments with one status and currency, as counted by
+ * a reconciliation job. Amounts are added as decimals so a month of payments
+ * doesn't pick up floating-point drift.
+ */
+public class ReconciliationTotal {
+    private long count;
+    private BigDecimal amount = BigDecimal.ZERO;
+
+    public ReconciliationTotal() {}
+
+    public void add(double paymentAmount) {
+        count++;
+        amount = amount.add(BigDecimal.valueOf(paymentAmount));
+    }
+
+    public void add(ReconciliationTotal other) {
+        count += other.count;
+        amount = amount.add(other.amount);
+    }
+
+    // Getters and Setters
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+}
@@ -0,0 +1,246 @@
+package test1.test1.model;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Progress of a payment batch job. Payments are walked in (createdAt,
+ * paymentId) order and the position of the last finished chunk is stored here
+ * together with the counters, so a job stopped by a restart or an error
+ * carries on from that point instead of starting over.
+ */
+@Entity
+@Table(name = "batch_checkpoints", indexes = {
+    @Index(name = "idx_batch_checkpoints_status", columnList = "status")
+})
+public class BatchCheckpoint {
+
+    public static final String REFUND = "REFUND";
+    public static final String RECONCILE = "RECONCILE";
+    public static final String LEDGER = "LEDGER";
+
+    public static final int MAX_JOB_NAME_LENGTH = 100;
+
+    @Id
+    @Column(name = "job_name", length = MAX_JOB_NAME_LENGTH)
+    private String jobName;
+
+    @Column(name = "job_type", nullable = false)
+    private String jobType; // REFUND, RECONCILE or LEDGER
+
+    @Column(nullable = false)
+    private String status; // 'RUNNING', 'COMPLETED', 'FAILED'
+
+    // Payments created in [createdFrom, createdTo) are processed
+    @Column(name = "created_from", nullable = false)
+    private LocalDateTime createdFrom;
+
+    @Column(name = "created_to", nullable = false)
+    private LocalDateTime createdTo;
+
+    @Column
+    private String reason; // refund reason
+
+    @Column(name = "last_created_at", nullable = false)
+    private LocalDateTime lastCreatedAt;
+
+    @Column(name = "last_payment_id", nullable = false)
+    private int lastPaymentId;
+
+    @Column(nullable = false)
+    private long processed;
+
+    @Column(nullable = false)
+    private long affected; // refunded, resubmitted by a reconciliation, or added to the ledger
+
+    @Column(nullable = false)
+    private long failed;
+
+    @Column(columnDefinition = "TEXT")
+    private String totals; // JSON, reconciliation only: count and amount per status and currency
+
+    @Column(name = "elapsed_millis", nullable = false)
+    private long elapsedMillis; // time spent running, not counting downtime between restarts
+
+    @Column
+    private String error;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public BatchCheckpoint() {}
+
+    public BatchCheckpoint(String jobName, String jobType, LocalDateTime createdFrom, LocalDateTime createdTo,
+                           String reason) {
+        this.jobName = jobName;
+        this.jobType = jobType;
+        this.status = "RUNNING";
+        this.createdFrom = createdFrom;
+        this.createdTo = createdTo;
+        this.reason = reason;
+        // Nothing is before the first payment of the window
+        this.lastCreatedAt = createdFrom;
+        this.lastPaymentId = 0;
+        this.startedAt = LocalDateTime.now();
+        this.updatedAt = this.startedAt;
+    }
+
+    public boolean isFinished() {
+        return "COMPLETED".equals(status);
+    }
+
+    public double getItemsPerSecond() {
+        return elapsedMillis == 0 ? 0 : processed * 1000.0 / elapsedMillis;
+    }
+
+    // Getters and Setters
+    public String getJobName() {
+        return jobName;
+    }
+
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+
+    public String getJobType() {
+        return jobType;
+    }
+
+    public void setJobType(String jobType) {
+        this.jobType = jobType;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public void setCreatedFrom(LocalDateTime createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+
+    public LocalDateTime getCreatedTo() {
+        return createdTo;
+    }
+
+    public void setCreatedTo(LocalDateTime createdTo) {
+        this.createdTo = createdTo;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public LocalDateTime getLastCreatedAt() {
+        return lastCreatedAt;
+    }
+
+    public void setLastCreatedAt(LocalDateTime lastCreatedAt) {
+        this.lastCreatedAt = lastCreatedAt;
+    }
+
+    public int getLastPaymentId() {
+        return lastPaymentId;
+    }
+
+    public void setLastPaymentId(int lastPaymentId) {
+        this.lastPaymentId = lastPaymentId;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+
+    public long getAffected() {
+        return affected;
+    }
+
+    public void setAffected(long affected) {
+        this.affected = affected;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    @JsonRawValue
+    public String getTotals() {
+        return totals;
+    }
+
+    public void setTotals(String totals) {
+        this.totals = totals;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
@@ -1,29 +1,42 @@
 package test1.test1.model;
 
 import java.time.LocalDate;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "bookings")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // set on lazy-loading proxies
+// Index names match db/migration/postgresql so both schemas stay aligned
+@Table(name = "bookings", indexes = {
+    @Index(name = "idx_bookings_game_start", columnList = "game_id, start_date"),
+    @Index(name = "idx_bookings_user", columnList = "user_id")
+})
 public class Booking {
 
+    // Bookings in these states hold their dates; DECLINED ones free them again
+    public static final List<String> BLOCKING_STATUSES = List.of("PENDING", "APPROVED");
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer bookingId;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "game_id")
     private Game game;
 
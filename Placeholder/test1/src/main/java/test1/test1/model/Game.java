@@ -1,16 +1,29 @@
 package test1.test1.model;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.ColumnDefault;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "games")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Table(name = "games", indexes = {
+    @Index(name = "idx_games_owner_username", columnList = "owner_username")
+})
 public class Game {
 
     @Id
@@ -50,6 +63,16 @@ public class Game {
     @Column(nullable = false)
     private LocalDate createdAt;
 
+    // Incremented by Hibernate on every update; the game's ETag is derived from it
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
+    // Time of the last insert or update; the catalog ETag uses the latest one
+    @JsonIgnore
+    private LocalDateTime updatedAt;
+
     
     public Game() {
         this.createdAt = LocalDate.now();
@@ -189,4 +212,22 @@ public class Game {
     public void setCreatedAt(LocalDate createdAt) {
         this.createdAt = createdAt;
     }
-}
\ No newline at end of file
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+}
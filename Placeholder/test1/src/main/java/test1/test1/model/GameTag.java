@@ -0,0 +1,98 @@
+package test1.test1.model;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * One tag of one game. Mirrors the comma-separated {@link Game#getTags()} value in
+ * indexed form so tag filters are index lookups instead of string scans.
+ */
+@Entity
+@Table(name = "game_tags", indexes = {
+    @Index(name = "idx_game_tags_tag_game", columnList = "tag, game_id"),
+    @Index(name = "idx_game_tags_game", columnList = "game_id")
+})
+public class GameTag {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "game_id", nullable = false)
+    private Integer gameId;
+
+    @Column(nullable = false, length = 100)
+    private String tag; // normalized: trimmed, lower case
+
+    public GameTag() {}
+
+    public GameTag(Integer gameId, String tag) {
+        this.gameId = gameId;
+        this.tag = tag;
+    }
+
+    /**
+     * Normalized form used for storage and lookups ("Nintendo Switch " -> "nintendo switch").
+     */
+    public static String normalize(String tag) {
+        return tag == null ? "" : tag.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static Set<String> normalizeAll(Collection<String> tags) {
+        Set<String> normalized = new LinkedHashSet<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                String value = normalize(tag);
+                if (!value.isEmpty()) {
+                    normalized.add(value);
+                }
+            }
+        }
+        return normalized;
+    }
+
+    /**
+     * Parses a comma-separated tag list as stored on {@link Game}.
+     */
+    public static Set<String> parse(String tags) {
+        if (tags == null || tags.isBlank()) {
+            return new LinkedHashSet<>();
+        }
+        return normalizeAll(Arrays.asList(tags.split(",")));
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Integer getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(Integer gameId) {
+        this.gameId = gameId;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public void setTag(String tag) {
+        this.tag = tag;
+    }
+}
@@ -0,0 +1,104 @@
+package test1.test1.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import test1.test1.util.MinorUnits;
+
+/**
+ * Running total of the ledger for one account and currency, moved in the same
+ * transaction as each {@link LedgerEntry} so it can be read without summing
+ * entries. Accounts are {@code owner:<username>} for what a game owner has
+ * earned and {@link #PLATFORM} for all payments taken.
+ */
+@Entity
+@Table(name = "ledger_balances", indexes = {
+    @Index(name = "uk_ledger_balances_account_currency", columnList = "account, currency", unique = true)
+})
+public class LedgerBalance {
+
+    public static final String PLATFORM = "platform";
+    private static final String OWNER_PREFIX = "owner:";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false)
+    private String account;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Column(name = "balance_minor", nullable = false)
+    private long balanceMinor;
+
+    @Column(name = "entry_count", nullable = false)
+    private long entryCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public LedgerBalance() {}
+
+    public static String ownerAccount(String username) {
+        return OWNER_PREFIX + username;
+    }
+
+    /** Balance in major units, e.g. 12.50 for 1250 cents. */
+    public BigDecimal getBalance() {
+        return MinorUnits.toMajor(balanceMinor, currency);
+    }
+
+    // Getters and Setters
+    public Integer getId() {
+        return id;
+    }
+
+    public String getAccount() {
+        return account;
+    }
+
+    public void setAccount(String account) {
+        this.account = account;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public long getBalanceMinor() {
+        return balanceMinor;
+    }
+
+    public void setBalanceMinor(long balanceMinor) {
+        this.balanceMinor = balanceMinor;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(long entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
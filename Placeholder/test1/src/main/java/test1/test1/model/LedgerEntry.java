@@ -0,0 +1,84 @@
+package test1.test1.model;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * One money movement in the append-only payment ledger: a CHARGE when a
+ * payment completes and a negative REFUND when it is refunded. Rows are never
+ * updated or deleted; each payment has at most one entry of each type, which
+ * makes recording a transition safe to repeat.
+ */
+@Entity
+@Immutable
+@Table(name = "ledger_entries", indexes = {
+    @Index(name = "uk_ledger_entries_payment_type", columnList = "payment_id, entry_type", unique = true),
+    @Index(name = "idx_ledger_entries_owner", columnList = "owner_username")
+})
+public class LedgerEntry {
+
+    public static final String CHARGE = "CHARGE";
+    public static final String REFUND = "REFUND";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long entryId;
+
+    @Column(name = "payment_id", nullable = false)
+    private Integer paymentId;
+
+    @Column(name = "entry_type", nullable = false, length = 20)
+    private String entryType; // CHARGE or REFUND
+
+    @Column(name = "owner_username")
+    private String ownerUsername; // owner of the rented game, null if unknown
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Column(name = "amount_minor", nullable = false)
+    private long amountMinor; // minor units, negative for refunds
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    protected LedgerEntry() {}
+
+    // Getters
+    public Long getEntryId() {
+        return entryId;
+    }
+
+    public Integer getPaymentId() {
+        return paymentId;
+    }
+
+    public String getEntryType() {
+        return entryType;
+    }
+
+    public String getOwnerUsername() {
+        return ownerUsername;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public long getAmountMinor() {
+        return amountMinor;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -4,22 +4,29 @@ import java.time.LocalDateTime;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+    @Index(name = "uk_payments_transaction_id", columnList = "transaction_id", unique = true),
+    @Index(name = "idx_payments_booking", columnList = "booking_id"),
+    @Index(name = "idx_payments_status", columnList = "status"),
+    @Index(name = "idx_payments_created_at", columnList = "created_at, payment_id")
+})
 public class Payment {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer paymentId;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "booking_id")
     private Booking booking;
 
@@ -56,6 +63,12 @@ public class Payment {
     @Column
     private String failureReason;
 
+    @Column
+    private String claimedBy; // Instance charging it; see PaymentRepository.claimPending
+
+    @Column
+    private LocalDateTime claimedAt;
+
     public Payment() {}
 
     public Payment(Booking booking, String paymentMethod, double amount, String currency) {
@@ -171,4 +184,20 @@ public class Payment {
     public void setFailureReason(String failureReason) {
         this.failureReason = failureReason;
     }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public LocalDateTime getClaimedAt() {
+        return claimedAt;
+    }
+
+    public void setClaimedAt(LocalDateTime claimedAt) {
+        this.claimedAt = claimedAt;
+    }
 }
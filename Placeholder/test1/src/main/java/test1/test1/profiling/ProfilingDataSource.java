@@ -0,0 +1,187 @@
+package test1.test1.profiling;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource that times statements and counts result rows for the profiler.
+ * Connections are only wrapped while the calling thread is being profiled, so
+ * ordinary requests get the pool's connection untouched.
+ */
+public class ProfilingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final Supplier<SqlProfiler> profiler;
+
+    public ProfilingDataSource(DataSource target, Supplier<SqlProfiler> profiler) {
+        super(target);
+        this.profiler = profiler;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    // Lets the container close the pool behind this wrapper on shutdown
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection wrap(Connection connection) {
+        SqlProfiler current = profiler.get();
+        if (current == null || !current.isActive()) {
+            return connection;
+        }
+        return proxy(Connection.class, new ConnectionHandler(connection, current));
+    }
+
+    static String normalize(String sql) {
+        return sql == null ? "" : sql.strip().replaceAll("\\s+", " ");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(ProfilingDataSource.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static Class<? extends Statement> statementType(Statement statement) {
+        if (statement instanceof CallableStatement) {
+            return CallableStatement.class;
+        }
+        if (statement instanceof PreparedStatement) {
+            return PreparedStatement.class;
+        }
+        return Statement.class;
+    }
+
+    private static class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+        private final SqlProfiler profiler;
+
+        ConnectionHandler(Connection target, SqlProfiler profiler) {
+            this.target = target;
+            this.profiler = profiler;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = ProfilingDataSource.invoke(target, method, args);
+            if (result instanceof Statement statement) {
+                // prepareStatement/prepareCall carry the SQL up front; plain statements get it per execute
+                String sql = method.getName().startsWith("prepare") && args != null && args[0] instanceof String s
+                        ? normalize(s) : null;
+                return proxy(statementType(statement), new StatementHandler(statement, sql, profiler));
+            }
+            return result;
+        }
+    }
+
+    private static class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String preparedSql;
+        private final SqlProfiler profiler;
+        private String lastSql;
+
+        StatementHandler(Statement target, String preparedSql, SqlProfiler profiler) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.profiler = profiler;
+            this.lastSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute") && !name.equals("getResultSet")) {
+                return ProfilingDataSource.invoke(target, method, args);
+            }
+            if (name.equals("getResultSet")) {
+                return wrapResultSet(ProfilingDataSource.invoke(target, method, args));
+            }
+
+            String sql = preparedSql;
+            if (args != null && args.length > 0 && args[0] instanceof String s) {
+                sql = normalize(s);
+            }
+            if (sql == null) {
+                sql = "(batch)"; // addBatch(String) on a plain statement
+            }
+            lastSql = sql;
+            long start = System.nanoTime();
+            try {
+                return wrapResultSet(ProfilingDataSource.invoke(target, method, args));
+            } finally {
+                profiler.recordExecution(sql, System.nanoTime() - start);
+            }
+        }
+
+        private Object wrapResultSet(Object result) {
+            if (result instanceof ResultSet resultSet) {
+                return proxy(ResultSet.class, new ResultSetHandler(resultSet, lastSql, profiler));
+            }
+            return result;
+        }
+    }
+
+    private static class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final String sql;
+        private final SqlProfiler profiler;
+        private long rows;
+
+        ResultSetHandler(ResultSet target, String sql, SqlProfiler profiler) {
+            this.target = target;
+            this.sql = sql;
+            this.profiler = profiler;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = ProfilingDataSource.invoke(target, method, args);
+            if (method.getName().equals("next")) {
+                if (Boolean.TRUE.equals(result)) {
+                    rows++;
+                } else {
+                    flush();
+                }
+            } else if (method.getName().equals("close")) {
+                flush();
+            }
+            return result;
+        }
+
+        private void flush() {
+            profiler.recordRows(sql, rows);
+            rows = 0;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package test1.test1.profiling;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statements run while handling a single request. Only ever touched by the
+ * request thread, so it is not synchronized.
+ */
+public class SqlProfile {
+
+    private final String request;
+    private final Map<String, Integer> executionsBySql = new LinkedHashMap<>();
+    private int statements;
+    private long nanos;
+    private long rows;
+
+    SqlProfile(String request) {
+        this.request = request;
+    }
+
+    void recordExecution(String sql, long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+        executionsBySql.merge(sql, 1, Integer::sum);
+    }
+
+    void recordRows(long count) {
+        rows += count;
+    }
+
+    /**
+     * Statements that ran at least {@code threshold} times in this request,
+     * which is what lazily loading one association per parent row looks like.
+     */
+    public List<String> repeatedStatements(int threshold) {
+        return executionsBySql.entrySet().stream()
+                .filter(e -> e.getValue() >= threshold)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    public int executionsOf(String sql) {
+        return executionsBySql.getOrDefault(sql, 0);
+    }
+
+    // Getters
+    public String getRequest() {
+        return request;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getDistinctStatements() {
+        return executionsBySql.size();
+    }
+
+    public double getMillis() {
+        return nanos / 1_000_000.0;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,39 @@
+package test1.test1.profiling;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * {@code /actuator/sqlprofile}: the statements with the most accumulated time
+ * and the most recent N+1 suspects. DELETE clears both.
+ */
+@Endpoint(id = "sqlprofile")
+public class SqlProfileEndpoint {
+
+    private static final int TOP_STATEMENTS = 20;
+
+    private final SqlProfiler profiler;
+
+    public SqlProfileEndpoint(SqlProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @ReadOperation
+    public Map<String, Object> profile() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("profileAllRequests", profiler.isProfileAllRequests());
+        body.put("nPlusOneThreshold", profiler.getNPlusOneThreshold());
+        body.put("slowest", profiler.slowest(TOP_STATEMENTS));
+        body.put("nPlusOne", profiler.recentNPlusOne());
+        return body;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        profiler.reset();
+    }
+}
@@ -0,0 +1,180 @@
+package test1.test1.profiling;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import test1.test1.config.RequestCorrelationFilter;
+
+/**
+ * Collects JDBC statement timings for profiled requests. A request is profiled
+ * between {@link #begin} and {@link #end} on its own thread; statements run
+ * outside that window are not recorded, so unprofiled traffic only pays for a
+ * thread-local lookup when a connection is taken from the pool.
+ */
+public class SqlProfiler {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlProfiler.class);
+
+    // Hard caps so a flood of distinct SQL strings cannot grow memory without bound
+    private static final int MAX_TRACKED_STATEMENTS = 1000;
+    private static final int MAX_FLAGGED_REQUESTS = 50;
+
+    private final boolean profileAllRequests;
+    private final int nPlusOneThreshold;
+
+    private final ThreadLocal<SqlProfile> current = new ThreadLocal<>();
+    private final ConcurrentMap<String, SqlStatementStats> statements = new ConcurrentHashMap<>();
+    private final Deque<FlaggedStatement> flagged = new ConcurrentLinkedDeque<>();
+
+    public SqlProfiler(boolean profileAllRequests, int nPlusOneThreshold) {
+        this.profileAllRequests = profileAllRequests;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    public boolean shouldProfile(boolean requestedByHeader) {
+        return profileAllRequests || requestedByHeader;
+    }
+
+    public void begin(String request) {
+        current.set(new SqlProfile(request));
+    }
+
+    /**
+     * Finishes the current thread's profile and flags statements repeated often
+     * enough to look like N+1 loading.
+     */
+    public SqlProfile end() {
+        SqlProfile profile = current.get();
+        current.remove();
+        if (profile == null) {
+            return null;
+        }
+        for (String sql : profile.repeatedStatements(nPlusOneThreshold)) {
+            int executions = profile.executionsOf(sql);
+            log.warn("Possible N+1 in {}: statement ran {} times: {}", profile.getRequest(), executions, sql);
+            SqlStatementStats stats = statements.get(sql);
+            if (stats != null) {
+                stats.recordNPlusOne();
+            }
+            flagged.addFirst(new FlaggedStatement(profile.getRequest(), MDC.get(RequestCorrelationFilter.MDC_KEY),
+                    sql, executions, Instant.now()));
+            while (flagged.size() > MAX_FLAGGED_REQUESTS) {
+                flagged.pollLast();
+            }
+        }
+        return profile;
+    }
+
+    boolean isActive() {
+        return current.get() != null;
+    }
+
+    void recordExecution(String sql, long nanos) {
+        SqlProfile profile = current.get();
+        if (profile == null) {
+            return;
+        }
+        profile.recordExecution(sql, nanos);
+        SqlStatementStats stats = stats(sql);
+        if (stats != null) {
+            stats.recordExecution(nanos);
+        }
+    }
+
+    void recordRows(String sql, long rows) {
+        SqlProfile profile = current.get();
+        if (profile == null || rows == 0) {
+            return;
+        }
+        profile.recordRows(rows);
+        SqlStatementStats stats = statements.get(sql);
+        if (stats != null) {
+            stats.recordRows(rows);
+        }
+    }
+
+    private SqlStatementStats stats(String sql) {
+        SqlStatementStats stats = statements.get(sql);
+        if (stats == null && statements.size() < MAX_TRACKED_STATEMENTS) {
+            stats = statements.computeIfAbsent(sql, SqlStatementStats::new);
+        }
+        return stats;
+    }
+
+    /**
+     * Statements with the most total time spent, slowest first.
+     */
+    public List<SqlStatementStats> slowest(int limit) {
+        return statements.values().stream()
+                .sorted(Comparator.comparingDouble(SqlStatementStats::getTotalMillis).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public List<FlaggedStatement> recentNPlusOne() {
+        return new ArrayList<>(flagged);
+    }
+
+    public void reset() {
+        statements.clear();
+        flagged.clear();
+    }
+
+    public boolean isProfileAllRequests() {
+        return profileAllRequests;
+    }
+
+    public int getNPlusOneThreshold() {
+        return nPlusOneThreshold;
+    }
+
+    /**
+     * A statement that repeated within one request.
+     */
+    public static class FlaggedStatement {
+        private final String request;
+        private final String requestId;
+        private final String sql;
+        private final int executions;
+        private final Instant at;
+
+        FlaggedStatement(String request, String requestId, String sql, int executions, Instant at) {
+            this.request = request;
+            this.requestId = requestId;
+            this.sql = sql;
+            this.executions = executions;
+            this.at = at;
+        }
+
+        // Getters
+        public String getRequest() {
+            return request;
+        }
+
+        public String getRequestId() {
+            return requestId;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public int getExecutions() {
+            return executions;
+        }
+
+        public Instant getAt() {
+            return at;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package test1.test1.profiling;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Profiles the SQL of requests sent with {@code X-Sql-Profile: true} (or of every
+ * request when profile-all is on) and reports the totals in response headers.
+ * The body is buffered only for profiled requests so the headers can still be
+ * added after the controller has written it.
+ */
+public class SqlProfilingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlProfilingFilter.class);
+
+    public static final String HEADER = "X-Sql-Profile";
+
+    private final SqlProfiler profiler;
+
+    public SqlProfilingFilter(SqlProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!profiler.shouldProfile("true".equalsIgnoreCase(request.getHeader(HEADER)))) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapped = new ContentCachingResponseWrapper(response);
+        profiler.begin(request.getMethod() + " " + request.getRequestURI());
+        SqlProfile profile = null;
+        try {
+            chain.doFilter(request, wrapped);
+        } finally {
+            profile = profiler.end();
+            if (profile != null) {
+                int repeated = profile.repeatedStatements(profiler.getNPlusOneThreshold()).size();
+                wrapped.setHeader("X-Sql-Statements", String.valueOf(profile.getStatements()));
+                wrapped.setHeader("X-Sql-Time-Ms", String.format("%.3f", profile.getMillis()));
+                wrapped.setHeader("X-Sql-Rows", String.valueOf(profile.getRows()));
+                wrapped.setHeader("X-Sql-N-Plus-One", String.valueOf(repeated));
+                log.info("SQL profile {}: {} statements ({} distinct), {} rows, {} ms",
+                        profile.getRequest(), profile.getStatements(), profile.getDistinctStatements(),
+                        profile.getRows(), String.format("%.3f", profile.getMillis()));
+            }
+            wrapped.copyBodyToResponse();
+        }
+    }
+}
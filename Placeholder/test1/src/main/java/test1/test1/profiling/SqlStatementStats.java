@@ -0,0 +1,66 @@
+package test1.test1.profiling;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals for one SQL string across all profiled requests.
+ */
+public class SqlStatementStats {
+
+    private final String sql;
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder rows = new LongAdder();
+    private final AtomicLong nPlusOneHits = new AtomicLong();
+
+    SqlStatementStats(String sql) {
+        this.sql = sql;
+    }
+
+    void recordExecution(long nanos) {
+        executions.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    void recordRows(long count) {
+        rows.add(count);
+    }
+
+    void recordNPlusOne() {
+        nPlusOneHits.incrementAndGet();
+    }
+
+    // Getters
+    public String getSql() {
+        return sql;
+    }
+
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    public double getTotalMillis() {
+        return totalNanos.sum() / 1_000_000.0;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    public double getAverageMillis() {
+        long count = executions.sum();
+        return count == 0 ? 0 : getTotalMillis() / count;
+    }
+
+    public long getRows() {
+        return rows.sum();
+    }
+
+    public long getNPlusOneHits() {
+        return nPlusOneHits.get();
+    }
+}
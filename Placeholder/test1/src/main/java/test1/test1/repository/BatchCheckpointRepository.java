@@ -0,0 +1,15 @@
+package test1.test1.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import test1.test1.model.BatchCheckpoint;
+
+public interface BatchCheckpointRepository extends JpaRepository<BatchCheckpoint, String> {
+
+    // Jobs a restart interrupted
+    @Query("select c.jobName from BatchCheckpoint c where c.status = 'RUNNING'")
+    List<String> findRunningJobNames();
+}
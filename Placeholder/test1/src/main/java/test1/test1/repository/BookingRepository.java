@@ -1,13 +1,76 @@
 package test1.test1.repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import test1.test1.dto.BookingSummary;
 import test1.test1.model.Booking;
+import test1.test1.model.Game;
 
+/**
+ * Booking.game and Booking.user are lazy; lookups whose callers read them load
+ * both in the same query through an entity graph.
+ */
 public interface BookingRepository extends JpaRepository<Booking, Integer> {
+    @EntityGraph(attributePaths = {"game", "user"})
+    Optional<Booking> findById(Integer bookingId);
+
+    @EntityGraph(attributePaths = {"game", "user"})
+    List<Booking> findAll();
+
+    @EntityGraph(attributePaths = {"game", "user"})
     List<Booking> findByGameGameId(Integer gameId);
+    List<Booking> findByGameGameIdAndStatusIn(Integer gameId, Collection<String> statuses);
+
+    @EntityGraph(attributePaths = {"game", "user"})
     List<Booking> findByUserUserId(Integer userId);
+
+    @EntityGraph(attributePaths = {"game", "user"})
     List<Booking> findByGameOwnerUsername(String ownerUsername);
+
+    // List endpoints select only the columns BookingSummary needs
+    String SUMMARY = "select new test1.test1.dto.BookingSummary(b.bookingId, b.startDate, b.endDate, b.totalPrice,"
+            + " b.status, g.gameId, g.title, g.pricePerDay, g.photos, g.ownerUsername, u.userId, u.username)"
+            + " from Booking b join b.game g join b.user u";
+
+    @Query(SUMMARY)
+    List<BookingSummary> findAllSummaries();
+
+    @Query(SUMMARY + " where g.gameId = :gameId")
+    List<BookingSummary> findSummariesByGameId(@Param("gameId") Integer gameId);
+
+    @Query(SUMMARY + " where u.userId = :userId")
+    List<BookingSummary> findSummariesByUserId(@Param("userId") Integer userId);
+
+    @Query(SUMMARY + " where g.ownerUsername = :ownerUsername")
+    List<BookingSummary> findSummariesByOwnerUsername(@Param("ownerUsername") String ownerUsername);
+
+    /**
+     * True if another booking of the game with one of the given statuses shares
+     * at least one day with start..end. Pass null as excludeId for new bookings.
+     */
+    @Query("select count(b) > 0 from Booking b where b.game.gameId = :gameId and b.status in :statuses"
+            + " and b.startDate <= :end and b.endDate >= :start"
+            + " and (:excludeId is null or b.bookingId <> :excludeId)")
+    boolean existsOverlapping(@Param("gameId") Integer gameId, @Param("start") LocalDate start,
+                              @Param("end") LocalDate end, @Param("statuses") Collection<String> statuses,
+                              @Param("excludeId") Integer excludeId);
+
+    /**
+     * Locks the game's row (SELECT ... FOR UPDATE) until the transaction ends.
+     * Reservation checks take it first, so concurrent bookings of one game wait
+     * for each other across app instances; SQLite already serializes writers.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select g from Game g where g.gameId = :gameId")
+    Optional<Game> lockGame(@Param("gameId") Integer gameId);
 }
@@ -0,0 +1,13 @@
+package test1.test1.repository;
+
+import test1.test1.dto.CursorPage;
+import test1.test1.dto.GameSearchCriteria;
+import test1.test1.dto.GameSummary;
+
+/**
+ * Catalog queries that cannot be expressed as derived finders: dynamic filters
+ * with keyset pagination over a slim projection.
+ */
+public interface GameCatalogRepository {
+    CursorPage<GameSummary> searchCatalog(GameSearchCriteria criteria);
+}
@@ -0,0 +1,215 @@
+package test1.test1.repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import test1.test1.dto.CatalogCursor;
+import test1.test1.dto.CursorPage;
+import test1.test1.dto.GameSearchCriteria;
+import test1.test1.dto.GameSearchCriteria.Sort;
+import test1.test1.dto.GameSummary;
+import test1.test1.model.Booking;
+import test1.test1.model.Game;
+import test1.test1.model.GameTag;
+
+class GameCatalogRepositoryImpl implements GameCatalogRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public CursorPage<GameSummary> searchCatalog(GameSearchCriteria criteria) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<GameSummary> query = cb.createQuery(GameSummary.class);
+        Root<Game> game = query.from(Game.class);
+
+        query.select(cb.construct(GameSummary.class,
+            game.get("gameId"),
+            game.get("title"),
+            game.get("pricePerDay"),
+            game.get("condition"),
+            game.get("tags"),
+            game.get("photos"),
+            game.get("active"),
+            game.get("ownerUsername"),
+            game.get("createdAt")
+        ));
+
+        List<Predicate> predicates = filters(cb, query, game, criteria);
+        Sort sort = criteria.getSort();
+        if (criteria.getCursor() != null) {
+            predicates.add(after(cb, game, sort, criteria.getCursor()));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+
+        Path<Object> key = game.get(sortProperty(sort));
+        Path<Object> id = game.get("gameId");
+        if (isDescending(sort)) {
+            query.orderBy(cb.desc(key), cb.desc(id));
+        } else {
+            query.orderBy(cb.asc(key), cb.asc(id));
+        }
+
+        // Fetch one extra row to learn whether another page exists
+        List<GameSummary> rows = entityManager.createQuery(query)
+            .setMaxResults(criteria.getLimit() + 1)
+            .getResultList();
+
+        String nextCursor = null;
+        if (rows.size() > criteria.getLimit()) {
+            rows = new ArrayList<>(rows.subList(0, criteria.getLimit()));
+            GameSummary last = rows.get(rows.size() - 1);
+            nextCursor = new CatalogCursor(sort, sortValue(sort, last), last.getGameId()).encode();
+        }
+        return new CursorPage<>(rows, nextCursor);
+    }
+
+    private List<Predicate> filters(CriteriaBuilder cb, CriteriaQuery<?> query, Root<Game> game, GameSearchCriteria criteria) {
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (hasText(criteria.getQuery())) {
+            String pattern = containsPattern(criteria.getQuery());
+            predicates.add(cb.or(
+                cb.like(cb.lower(game.get("title")), pattern, '\\'),
+                cb.like(cb.lower(game.get("description")), pattern, '\\'),
+                cb.like(cb.lower(game.get("ownerUsername")), pattern, '\\')
+            ));
+        }
+        if (hasText(criteria.getPlatformTag())) {
+            predicates.add(hasTag(cb, query, game, criteria.getPlatformTag()));
+        }
+        if (hasText(criteria.getCategory())) {
+            predicates.add(hasTag(cb, query, game, criteria.getCategory()));
+        }
+        for (String tag : GameTag.normalizeAll(criteria.getTags())) {
+            predicates.add(hasTag(cb, query, game, tag));
+        }
+        if (hasText(criteria.getCondition())) {
+            predicates.add(cb.equal(cb.lower(game.get("condition")), criteria.getCondition().toLowerCase()));
+        }
+        if (criteria.getMinPrice() != null) {
+            predicates.add(cb.ge(game.get("pricePerDay"), criteria.getMinPrice()));
+        }
+        if (criteria.getMaxPrice() != null) {
+            predicates.add(cb.le(game.get("pricePerDay"), criteria.getMaxPrice()));
+        }
+        if (criteria.getActive() != null) {
+            predicates.add(cb.equal(game.get("active"), criteria.getActive()));
+        }
+
+        // The listing window [startDate, endDate] must cover the requested rental dates
+        LocalDate from = criteria.getAvailableFrom();
+        LocalDate to = criteria.getAvailableTo() != null ? criteria.getAvailableTo() : from;
+        if (from != null) {
+            Path<LocalDate> start = game.get("startDate");
+            predicates.add(cb.or(cb.isNull(start), cb.lessThanOrEqualTo(start, from)));
+        }
+        if (to != null) {
+            Path<LocalDate> end = game.get("endDate");
+            predicates.add(cb.or(cb.isNull(end), cb.greaterThanOrEqualTo(end, to)));
+        }
+        // ...and no pending or approved booking may overlap them
+        if (from != null) {
+            Subquery<Integer> overlapping = query.subquery(Integer.class);
+            Root<Booking> booking = overlapping.from(Booking.class);
+            overlapping.select(booking.get("bookingId")).where(
+                cb.equal(booking.get("game").get("gameId"), game.get("gameId")),
+                booking.get("status").in(Booking.BLOCKING_STATUSES),
+                cb.lessThanOrEqualTo(booking.get("startDate"), to),
+                cb.greaterThanOrEqualTo(booking.get("endDate"), from)
+            );
+            predicates.add(cb.not(cb.exists(overlapping)));
+        }
+        return predicates;
+    }
+
+    /**
+     * EXISTS lookup against the (tag, game_id) index on game_tags.
+     */
+    private Predicate hasTag(CriteriaBuilder cb, CriteriaQuery<?> query, Root<Game> game, String tag) {
+        Subquery<Integer> subquery = query.subquery(Integer.class);
+        Root<GameTag> gameTag = subquery.from(GameTag.class);
+        subquery.select(gameTag.get("gameId")).where(
+            cb.equal(gameTag.get("tag"), GameTag.normalize(tag)),
+            cb.equal(gameTag.get("gameId"), game.get("gameId"))
+        );
+        return cb.exists(subquery);
+    }
+
+    // The cursor was decoded for this sort (CatalogCursor.decode), so its value already has the key's type
+    private Predicate after(CriteriaBuilder cb, Root<Game> game, Sort sort, CatalogCursor cursor) {
+        Object value = cursor.getSortValue();
+        boolean descending = isDescending(sort);
+        switch (sort) {
+            case NEWEST:
+            case OLDEST:
+                return after(cb, game.get("createdAt"), (LocalDate) value, game.get("gameId"), cursor.getGameId(), descending);
+            case ALPHABETICAL:
+                return after(cb, game.get("title"), (String) value, game.get("gameId"), cursor.getGameId(), descending);
+            default:
+                return after(cb, game.get("pricePerDay"), (Double) value, game.get("gameId"), cursor.getGameId(), descending);
+        }
+    }
+
+    /**
+     * Rows strictly past (key, id) in the requested direction:
+     * key beyond value, or key equal and id beyond the last id.
+     */
+    private <Y extends Comparable<? super Y>> Predicate after(CriteriaBuilder cb, Expression<Y> key, Y value,
+                                                              Expression<Integer> id, Integer lastId, boolean descending) {
+        if (descending) {
+            return cb.or(cb.lessThan(key, value), cb.and(cb.equal(key, value), cb.lessThan(id, lastId)));
+        }
+        return cb.or(cb.greaterThan(key, value), cb.and(cb.equal(key, value), cb.greaterThan(id, lastId)));
+    }
+
+    private static String sortProperty(Sort sort) {
+        switch (sort) {
+            case NEWEST:
+            case OLDEST:
+                return "createdAt";
+            case ALPHABETICAL:
+                return "title";
+            default:
+                return "pricePerDay";
+        }
+    }
+
+    private static boolean isDescending(Sort sort) {
+        return sort == Sort.NEWEST || sort == Sort.PRICE_HIGH;
+    }
+
+    private static Comparable<?> sortValue(Sort sort, GameSummary row) {
+        switch (sort) {
+            case NEWEST:
+            case OLDEST:
+                return row.getCreatedAt();
+            case ALPHABETICAL:
+                return row.getTitle();
+            default:
+                return row.getPricePerDay();
+        }
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static String containsPattern(String value) {
+        String escaped = value.trim().toLowerCase()
+            .replace("\\", "\\\\")
+            .replace("%", "\\%")
+            .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
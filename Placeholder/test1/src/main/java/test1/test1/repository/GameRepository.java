@@ -1,11 +1,42 @@
 package test1.test1.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import test1.test1.dto.CatalogStamp;
 import test1.test1.model.Game;
 
-public interface GameRepository extends JpaRepository<Game, Integer> {
+public interface GameRepository extends JpaRepository<Game, Integer>, GameCatalogRepository {
     List<Game> findByOwnerUsername(String ownerUsername);
-}
\ No newline at end of file
+
+    @Query("select g.version from Game g where g.gameId = :gameId")
+    Long findVersionById(@Param("gameId") Integer gameId);
+
+    // Moves on every insert, update and delete; see GameVersions
+    @Query("select new test1.test1.dto.CatalogStamp(count(g), sum(g.version), max(g.updatedAt)) from Game g")
+    CatalogStamp catalogStamp();
+
+    // Tag lookups go through the game_tags index; tags must already be normalized (see GameTag.normalize)
+    @Query("select g from Game g where g.gameId in (select t.gameId from GameTag t where t.tag in :tags)")
+    List<Game> findByAnyTag(@Param("tags") Collection<String> tags);
+
+    @Query("select g from Game g where g.gameId in ("
+        + "select t.gameId from GameTag t where t.tag in :tags group by t.gameId having count(distinct t.tag) = :tagCount)")
+    List<Game> findByAllTags(@Param("tags") Collection<String> tags, @Param("tagCount") long tagCount);
+
+    // Games whose tag column was never copied into game_tags; an anti-join on idx_game_tags_game
+    @Query("select g from Game g where g.tags is not null and g.tags <> ''"
+        + " and not exists (select t from GameTag t where t.gameId = g.gameId)")
+    List<Game> findWithUnindexedTags();
+
+    // Reference check for image garbage collection; a LIKE scan, but it only runs when photos are removed
+    boolean existsByPhotosContaining(String photo);
+
+    // Every photo list, read once per image sweep instead of one LIKE scan per stored file
+    @Query("select g.photos from Game g where g.photos is not null and g.photos <> ''")
+    List<String> findAllPhotos();
+}
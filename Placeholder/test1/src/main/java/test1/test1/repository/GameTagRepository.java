@@ -0,0 +1,18 @@
+package test1.test1.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import test1.test1.model.GameTag;
+
+public interface GameTagRepository extends JpaRepository<GameTag, Integer> {
+    List<GameTag> findByGameId(Integer gameId);
+
+    @Modifying
+    @Query("delete from GameTag t where t.gameId = :gameId")
+    void deleteByGameId(@Param("gameId") Integer gameId);
+}
@@ -0,0 +1,33 @@
+package test1.test1.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import test1.test1.model.LedgerBalance;
+
+public interface LedgerBalanceRepository extends JpaRepository<LedgerBalance, Integer> {
+
+    /**
+     * Adds to a balance in one statement, creating it on first use; the row
+     * lock taken by the update keeps concurrent payments from losing changes.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query(value = "insert into ledger_balances (account, currency, balance_minor, entry_count, updated_at)"
+            + " values (:account, :currency, :amountMinor, 1, :now)"
+            + " on conflict (account, currency) do update set"
+            + " balance_minor = ledger_balances.balance_minor + excluded.balance_minor,"
+            + " entry_count = ledger_balances.entry_count + 1, updated_at = excluded.updated_at", nativeQuery = true)
+    int add(@Param("account") String account, @Param("currency") String currency,
+            @Param("amountMinor") long amountMinor, @Param("now") LocalDateTime now);
+
+    List<LedgerBalance> findByAccountOrderByCurrency(String account);
+}
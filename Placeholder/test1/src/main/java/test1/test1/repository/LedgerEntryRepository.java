@@ -0,0 +1,32 @@
+package test1.test1.repository;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import test1.test1.model.LedgerEntry;
+
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    /**
+     * Appends an entry unless the payment already has one of this type.
+     * Returns 0 when it did, so the balances are only moved once. The
+     * ON CONFLICT form is understood by both SQLite and PostgreSQL. No entity
+     * maps onto the ledger tables for writing, so the statement skips the
+     * auto-flush, which would dirty-check every payment loaded in the session.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query(value = "insert into ledger_entries (payment_id, entry_type, owner_username, currency, amount_minor, created_at)"
+            + " values (:paymentId, :entryType, :ownerUsername, :currency, :amountMinor, :createdAt)"
+            + " on conflict (payment_id, entry_type) do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("paymentId") Integer paymentId, @Param("entryType") String entryType,
+                       @Param("ownerUsername") String ownerUsername, @Param("currency") String currency,
+                       @Param("amountMinor") long amountMinor, @Param("createdAt") LocalDateTime createdAt);
+}
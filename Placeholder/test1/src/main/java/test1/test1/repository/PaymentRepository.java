@@ -1,14 +1,96 @@
 package test1.test1.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import test1.test1.dto.PaymentSummary;
 import test1.test1.model.Payment;
 import test1.test1.model.Booking;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Payment.booking is lazy; lookups that return payments to callers fetch the
+ * booking with its game and user in the same query.
+ */
 public interface PaymentRepository extends JpaRepository<Payment, Integer> {
+    @EntityGraph(attributePaths = {"booking", "booking.game", "booking.user"})
+    Optional<Payment> findById(Integer paymentId);
+
+    @EntityGraph(attributePaths = {"booking", "booking.game", "booking.user"})
+    List<Payment> findAll();
+
+    @EntityGraph(attributePaths = {"booking", "booking.game", "booking.user"})
     Optional<Payment> findByTransactionId(String transactionId);
+
     List<Payment> findByBooking(Booking booking);
+
+    @EntityGraph(attributePaths = {"booking", "booking.game", "booking.user"})
     List<Payment> findByStatus(String status);
+
     Optional<Payment> findByBookingAndStatus(Booking booking, String status);
+
+    @Query("select new test1.test1.dto.PaymentSummary(p.paymentId, p.booking.bookingId, p.paymentMethod, p.amount,"
+            + " p.currency, p.status, p.transactionId, p.cardLast4, p.cardBrand, p.createdAt, p.completedAt,"
+            + " p.failureReason) from Payment p")
+    List<PaymentSummary> findAllSummaries();
+
+    /**
+     * Sets the final status of a pending payment. Returns 0 if it was no longer
+     * pending, so each payment is finished exactly once.
+     */
+    @Modifying
+    @Query("update Payment p set p.status = :status, p.completedAt = :completedAt, p.failureReason = :failureReason"
+            + " where p.paymentId = :paymentId and p.status = 'PENDING'")
+    int finishPending(@Param("paymentId") Integer paymentId, @Param("status") String status,
+                      @Param("completedAt") LocalDateTime completedAt, @Param("failureReason") String failureReason);
+
+    /**
+     * Claims a pending payment for {@code owner} before it is charged. Returns 0
+     * if it is no longer pending or another claim made after
+     * {@code expiredBefore} still holds, so only one instance charges it at a time.
+     */
+    @Modifying
+    @Query("update Payment p set p.claimedBy = :owner, p.claimedAt = :now"
+            + " where p.paymentId = :paymentId and p.status = 'PENDING'"
+            + " and (p.claimedAt is null or p.claimedAt < :expiredBefore)")
+    int claimPending(@Param("paymentId") Integer paymentId, @Param("owner") String owner,
+                     @Param("now") LocalDateTime now, @Param("expiredBefore") LocalDateTime expiredBefore);
+
+    /** Pending payments created before {@code createdBefore} that nobody has claimed since {@code expiredBefore}. */
+    @Query("select p.paymentId from Payment p where p.status = 'PENDING' and p.createdAt < :createdBefore"
+            + " and (p.claimedAt is null or p.claimedAt < :expiredBefore) order by p.paymentId")
+    List<Integer> findResumableIds(@Param("createdBefore") LocalDateTime createdBefore,
+                                   @Param("expiredBefore") LocalDateTime expiredBefore);
+
+    /** Position of a payment in the (createdAt, paymentId) order batch jobs walk. */
+    interface PaymentKey {
+        Integer getPaymentId();
+
+        LocalDateTime getCreatedAt();
+    }
+
+    /**
+     * Next keyset page for a batch job: payments created before {@code to} that
+     * come after the given position, optionally with one status. Reads the
+     * (created_at, payment_id) index, so each page costs the same however far
+     * into the window it is.
+     */
+    @Query("select p.paymentId as paymentId, p.createdAt as createdAt from Payment p"
+            + " where p.createdAt >= :afterCreatedAt and p.createdAt < :to"
+            // Written as a range plus a filter, not an OR of two ranges, so the index also gives the order
+            + " and (p.createdAt > :afterCreatedAt or p.paymentId > :afterId)"
+            + " and (:status is null or p.status = :status)"
+            + " order by p.createdAt, p.paymentId")
+    List<PaymentKey> findKeysAfter(@Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                   @Param("afterId") Integer afterId, @Param("to") LocalDateTime to,
+                                   @Param("status") String status, Limit limit);
+
+    @EntityGraph(attributePaths = {"booking", "booking.game", "booking.user"})
+    List<Payment> findByPaymentIdIn(Collection<Integer> paymentIds);
 }
@@ -0,0 +1,103 @@
+package test1.test1.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.stereotype.Service;
+
+import test1.test1.dto.AvailabilityResponse;
+import test1.test1.dto.DateRange;
+import test1.test1.model.Booking;
+import test1.test1.model.Game;
+import test1.test1.repository.BookingRepository;
+
+/**
+ * In-memory availability index per game. Each game's calendar is loaded from
+ * {@link BookingRepository} on first use and then kept in step by
+ * {@link BookingService} whenever a booking is created or changes status.
+ */
+@Service
+public class AvailabilityService {
+
+    private final BookingRepository bookingRepository;
+    private final ConcurrentMap<Integer, BookingCalendar> calendars = new ConcurrentHashMap<>();
+
+    public AvailabilityService(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    public boolean isAvailable(Integer gameId, LocalDate start, LocalDate end) {
+        BookingCalendar calendar = calendar(gameId);
+        synchronized (calendar) {
+            return calendar.isFree(start, end);
+        }
+    }
+
+    /**
+     * Busy ranges from bookings plus the free ranges left over inside both the
+     * requested window and the game's own listing window.
+     */
+    public AvailabilityResponse getAvailability(Game game, LocalDate from, LocalDate to) {
+        List<DateRange> busy;
+        BookingCalendar calendar = calendar(game.getGameId());
+        synchronized (calendar) {
+            busy = calendar.busy(from, to);
+        }
+
+        LocalDate openFrom = game.getStartDate() != null && game.getStartDate().isAfter(from) ? game.getStartDate() : from;
+        LocalDate openTo = game.getEndDate() != null && game.getEndDate().isBefore(to) ? game.getEndDate() : to;
+
+        List<DateRange> free = new ArrayList<>();
+        LocalDate cursor = openFrom;
+        for (DateRange range : busy) {
+            if (cursor.isAfter(openTo)) {
+                break;
+            }
+            if (range.getFrom().isAfter(cursor)) {
+                LocalDate freeEnd = range.getFrom().minusDays(1);
+                free.add(new DateRange(cursor, freeEnd.isAfter(openTo) ? openTo : freeEnd));
+            }
+            if (!range.getTo().isBefore(cursor)) {
+                cursor = range.getTo().plusDays(1);
+            }
+        }
+        if (!cursor.isAfter(openTo)) {
+            free.add(new DateRange(cursor, openTo));
+        }
+
+        return new AvailabilityResponse(game.getGameId(), from, to, busy, free);
+    }
+
+    /**
+     * Applies a saved booking to its game's calendar: blocking statuses occupy
+     * the dates, anything else releases them.
+     */
+    public void onBookingSaved(Booking booking) {
+        if (booking == null || booking.getBookingId() == null || booking.getGame() == null) {
+            return;
+        }
+        BookingCalendar calendar = calendar(booking.getGame().getGameId());
+        synchronized (calendar) {
+            if (Booking.BLOCKING_STATUSES.contains(booking.getStatus())) {
+                calendar.add(booking.getBookingId(), booking.getStartDate(), booking.getEndDate());
+            } else {
+                calendar.remove(booking.getBookingId());
+            }
+        }
+    }
+
+    private BookingCalendar calendar(Integer gameId) {
+        return calendars.computeIfAbsent(gameId, this::load);
+    }
+
+    private BookingCalendar load(Integer gameId) {
+        BookingCalendar calendar = new BookingCalendar();
+        for (Booking booking : bookingRepository.findByGameGameIdAndStatusIn(gameId, Booking.BLOCKING_STATUSES)) {
+            calendar.add(booking.getBookingId(), booking.getStartDate(), booking.getEndDate());
+        }
+        return calendar;
+    }
+}
@@ -0,0 +1,118 @@
+package test1.test1.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import test1.test1.dto.DateRange;
+
+/**
+ * Booked days of a single game as a sorted set of disjoint busy blocks keyed by
+ * their first day. Each block remembers the bookings it was merged from so a
+ * booking can be removed again without reloading the game.
+ *
+ * Overlap checks only look at the block starting at or before the requested end
+ * date, so they are O(log n) in the number of blocks. Not thread-safe; callers
+ * synchronize on the instance.
+ */
+class BookingCalendar {
+
+    private static final class Block {
+        private final LocalDate start;
+        private final LocalDate end;
+        private final Map<Integer, DateRange> bookings;
+
+        private Block(LocalDate start, LocalDate end, Map<Integer, DateRange> bookings) {
+            this.start = start;
+            this.end = end;
+            this.bookings = bookings;
+        }
+    }
+
+    private final TreeMap<LocalDate, Block> blocks = new TreeMap<>();
+    private final Map<Integer, LocalDate> blockStartByBooking = new HashMap<>();
+
+    /**
+     * Adds (or replaces) a booking covering start..end inclusive.
+     */
+    void add(Integer bookingId, LocalDate start, LocalDate end) {
+        remove(bookingId);
+
+        LocalDate mergedStart = start;
+        LocalDate mergedEnd = end;
+        Map<Integer, DateRange> members = new HashMap<>();
+        members.put(bookingId, new DateRange(start, end));
+
+        // A block starting before us can still reach into our range
+        Map.Entry<LocalDate, Block> before = blocks.lowerEntry(start);
+        if (before != null && !before.getValue().end.isBefore(start)) {
+            mergedStart = before.getKey();
+        }
+        // Absorb every block that starts inside the merged range
+        Map.Entry<LocalDate, Block> next = blocks.ceilingEntry(mergedStart);
+        while (next != null && !next.getKey().isAfter(mergedEnd)) {
+            Block block = blocks.remove(next.getKey());
+            if (block.end.isAfter(mergedEnd)) {
+                mergedEnd = block.end;
+            }
+            members.putAll(block.bookings);
+            next = blocks.ceilingEntry(mergedStart);
+        }
+
+        blocks.put(mergedStart, new Block(mergedStart, mergedEnd, members));
+        for (Integer member : members.keySet()) {
+            blockStartByBooking.put(member, mergedStart);
+        }
+    }
+
+    /**
+     * Removes a booking, splitting its block again if other bookings remain in it.
+     */
+    void remove(Integer bookingId) {
+        LocalDate blockStart = blockStartByBooking.remove(bookingId);
+        if (blockStart == null) {
+            return;
+        }
+        Block block = blocks.remove(blockStart);
+        if (block == null) {
+            return;
+        }
+        block.bookings.remove(bookingId);
+        for (Map.Entry<Integer, DateRange> remaining : block.bookings.entrySet()) {
+            blockStartByBooking.remove(remaining.getKey());
+        }
+        for (Map.Entry<Integer, DateRange> remaining : block.bookings.entrySet()) {
+            add(remaining.getKey(), remaining.getValue().getFrom(), remaining.getValue().getTo());
+        }
+    }
+
+    boolean isFree(LocalDate start, LocalDate end) {
+        Map.Entry<LocalDate, Block> candidate = blocks.floorEntry(end);
+        return candidate == null || candidate.getValue().end.isBefore(start);
+    }
+
+    /**
+     * Busy blocks intersecting from..to, clipped to that window.
+     */
+    List<DateRange> busy(LocalDate from, LocalDate to) {
+        List<DateRange> result = new ArrayList<>();
+        Map.Entry<LocalDate, Block> first = blocks.floorEntry(from);
+        LocalDate scanFrom = first != null && !first.getValue().end.isBefore(from) ? first.getKey() : from;
+        for (Block block : blocks.subMap(scanFrom, true, to, true).values()) {
+            if (block.end.isBefore(from)) {
+                continue;
+            }
+            LocalDate start = block.start.isBefore(from) ? from : block.start;
+            LocalDate end = block.end.isAfter(to) ? to : block.end;
+            result.add(new DateRange(start, end));
+        }
+        return result;
+    }
+
+    int size() {
+        return blockStartByBooking.size();
+    }
+}
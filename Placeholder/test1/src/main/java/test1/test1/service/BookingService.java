@@ -4,74 +4,182 @@ import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
+import test1.test1.dto.BookingSummary;
 import test1.test1.model.Booking;
 import test1.test1.model.Game;
 import test1.test1.model.User;
 import test1.test1.repository.BookingRepository;
+import test1.test1.util.StripedLock;
 
 @Service
+@Timed(value = ServiceMetrics.SERVICE_TIMER, histogram = true)
 public class BookingService {
 
+    private static final int GAME_LOCK_STRIPES = 64;
+
     private final BookingRepository bookingRepository;
     private final GameService gameService;
     private final UserService userService;
+    private final AvailabilityService availabilityService;
+    private final TransactionOperations transactions;
+    private final MeterRegistry meterRegistry;
+
+    // Reservations for the same game are serialized; different games proceed in parallel.
+    // This only covers one instance: the game row lock inside the transaction covers the rest
+    private final StripedLock gameLocks = new StripedLock(GAME_LOCK_STRIPES);
 
-    public BookingService(BookingRepository bookingRepository, GameService gameService, UserService userService) {
+    public BookingService(BookingRepository bookingRepository, GameService gameService, UserService userService,
+                          AvailabilityService availabilityService, TransactionOperations transactions,
+                          MeterRegistry meterRegistry) {
         this.bookingRepository = bookingRepository;
         this.gameService = gameService;
         this.userService = userService;
+        this.availabilityService = availabilityService;
+        this.transactions = transactions;
+        this.meterRegistry = meterRegistry;
     }
 
     public Booking createBooking(Integer userId, Integer gameId, LocalDate start, LocalDate end) {
 
-        User user = userService.getAllUsers().stream()
-                .filter(u -> u.getUserId().equals(userId))
-                .findFirst().orElse(null);
+        User user = userService.getUserById(userId).orElse(null);
 
         Game game = gameService.getGame(gameId);
 
-        if (user == null || game == null) {
+        if (user == null || game == null || end.isBefore(start)) {
+            rejected("invalid");
             return null; // simple validation
         }
 
-        long days = ChronoUnit.DAYS.between(start, end) + 1; // +1 to include both start and end days
-        double totalPrice = days * game.getPricePerDay();
+        double totalPrice = totalPrice(start, end, game.getPricePerDay());
+
+        Lock lock = gameLocks.get(gameId);
+        lock.lock();
+        try {
+            // Cheap in-memory check first; the database check inside the transaction has the final word
+            if (!availabilityService.isAvailable(gameId, start, end)) {
+                rejected("unavailable");
+                return null; // dates overlap a pending or approved booking
+            }
+            Booking saved = transactions.execute(tx -> {
+                bookingRepository.lockGame(gameId);
+                if (bookingRepository.existsOverlapping(gameId, start, end, Booking.BLOCKING_STATUSES, null)) {
+                    return null;
+                }
+                // Don't mark game as inactive - multiple bookings for different dates are allowed
+                return bookingRepository.save(new Booking(user, game, start, end, totalPrice));
+            });
+            if (saved == null) {
+                rejected("unavailable");
+                return null;
+            }
+            availabilityService.onBookingSaved(saved);
+            transition("NEW", saved.getStatus());
+            return saved;
+        } finally {
+            lock.unlock();
+        }
+    }
 
-        Booking booking = new Booking(user, game, start, end, totalPrice);
+    private void transition(String from, String to) {
+        meterRegistry.counter(ServiceMetrics.BOOKING_TRANSITIONS, "from", from, "to", to).increment();
+    }
 
-        // Don't mark game as inactive - multiple bookings for different dates are allowed
-        return bookingRepository.save(booking);
+    private void rejected(String reason) {
+        meterRegistry.counter(ServiceMetrics.BOOKINGS_REJECTED, "reason", reason).increment();
     }
 
+    static double totalPrice(LocalDate start, LocalDate end, double pricePerDay) {
+        long days = ChronoUnit.DAYS.between(start, end) + 1; // +1 to include both start and end days
+        return days * pricePerDay;
+    }
+
+    @Transactional(readOnly = true)
     public List<Booking> getAllBookings() {
         return bookingRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Optional<Booking> getBookingById(Integer bookingId) {
         return bookingRepository.findById(bookingId);
     }
 
+    @Transactional(readOnly = true)
     public List<Booking> getBookingsByGame(Integer gameId) {
         return bookingRepository.findByGameGameId(gameId);
     }
 
+    @Transactional(readOnly = true)
     public List<Booking> getBookingsByUser(Integer userId) {
         return bookingRepository.findByUserUserId(userId);
     }
 
+    @Transactional(readOnly = true)
     public List<Booking> getBookingsByOwner(String ownerUsername) {
         return bookingRepository.findByGameOwnerUsername(ownerUsername);
     }
 
+    @Transactional(readOnly = true)
+    public List<BookingSummary> getBookingSummaries() {
+        return bookingRepository.findAllSummaries();
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookingSummary> getBookingSummariesByGame(Integer gameId) {
+        return bookingRepository.findSummariesByGameId(gameId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookingSummary> getBookingSummariesByUser(Integer userId) {
+        return bookingRepository.findSummariesByUserId(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookingSummary> getBookingSummariesByOwner(String ownerUsername) {
+        return bookingRepository.findSummariesByOwnerUsername(ownerUsername);
+    }
+
+    /**
+     * Changes a booking's status under its game's lock. Moving a booking back
+     * into a blocking status (e.g. approving a declined one) fails with
+     * {@link IllegalStateException} if its dates have since been taken.
+     */
     public Booking updateBookingStatus(Integer bookingId, String status) {
         Booking booking = bookingRepository.findById(bookingId).orElse(null);
-        if (booking != null) {
-            booking.setStatus(status);
-            return bookingRepository.save(booking);
+        if (booking == null) {
+            return null;
+        }
+
+        Lock lock = gameLocks.get(booking.getGame().getGameId());
+        lock.lock();
+        try {
+            Booking saved = transactions.execute(tx -> {
+                bookingRepository.lockGame(booking.getGame().getGameId());
+                // Re-read under the lock so the status we compare against is current
+                Booking current = bookingRepository.findById(bookingId).orElse(booking);
+                boolean reserving = Booking.BLOCKING_STATUSES.contains(status)
+                        && !Booking.BLOCKING_STATUSES.contains(current.getStatus());
+                if (reserving && bookingRepository.existsOverlapping(current.getGame().getGameId(),
+                        current.getStartDate(), current.getEndDate(), Booking.BLOCKING_STATUSES, bookingId)) {
+                    throw new IllegalStateException("Booking dates are no longer available");
+                }
+                String previous = current.getStatus();
+                current.setStatus(status);
+                Booking updated = bookingRepository.save(current);
+                transition(previous, status);
+                return updated;
+            });
+            availabilityService.onBookingSaved(saved);
+            return saved;
+        } finally {
+            lock.unlock();
         }
-        return null;
     }
 }
@@ -1,53 +1,138 @@
 package test1.test1.service;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import io.micrometer.core.annotation.Timed;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import test1.test1.config.CacheConfig;
+import test1.test1.dto.CursorPage;
+import test1.test1.dto.GameSearchCriteria;
+import test1.test1.dto.GameSummary;
 import test1.test1.model.Game;
+import test1.test1.model.GameTag;
 import test1.test1.repository.GameRepository;
+import test1.test1.repository.GameTagRepository;
 
+/**
+ * Game listings. Single games, each owner's listings and the full catalog are
+ * cached (see {@link CacheConfig}); every write below evicts what it touches.
+ * Cached games are shared between callers and must not be modified in place.
+ */
 @Service
+@Timed(value = ServiceMetrics.SERVICE_TIMER, histogram = true)
 public class GameService {
 
     private final GameRepository gameRepository;
+    private final GameTagRepository gameTagRepository;
+    private final ImageGarbageCollector imageGarbageCollector;
 
-    public GameService(GameRepository gameRepository) {
+    public GameService(GameRepository gameRepository, GameTagRepository gameTagRepository,
+                       ImageGarbageCollector imageGarbageCollector) {
         this.gameRepository = gameRepository;
+        this.gameTagRepository = gameTagRepository;
+        this.imageGarbageCollector = imageGarbageCollector;
     }
 
+    @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.GAMES_BY_OWNER, key = "#ownerUsername"),
+        @CacheEvict(cacheNames = CacheConfig.GAME_CATALOG, allEntries = true)
+    })
     public Game addGame(String title, String description, double pricePerDay, 
                        String condition, String photos, String tags, boolean active, 
                        LocalDate startDate, LocalDate endDate, String ownerUsername) {
         Game g = new Game(title, description, pricePerDay, condition, photos, tags,
                          active, startDate, endDate, ownerUsername);
-        return gameRepository.save(g);
+        Game saved = gameRepository.save(g);
+        syncTags(saved);
+        return saved;
     }
 
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.GAME_CATALOG)
     public List<Game> getAllGames() {
-        return gameRepository.findAll();
+        return List.copyOf(gameRepository.findAll());
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<GameSummary> searchGames(GameSearchCriteria criteria) {
+        return gameRepository.searchCatalog(criteria);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Game> getGamesWithAllTags(Collection<String> tags) {
+        Set<String> normalized = GameTag.normalizeAll(tags);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        return gameRepository.findByAllTags(normalized, normalized.size());
+    }
+
+    @Transactional(readOnly = true)
+    public List<Game> getGamesWithAnyTag(Collection<String> tags) {
+        Set<String> normalized = GameTag.normalizeAll(tags);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        return gameRepository.findByAnyTag(normalized);
+    }
+
+    // Shares its cache with getGameById, which stores the unwrapped Optional
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.GAMES_BY_ID, unless = "#result == null")
     public Game getGame(Integer id) {
-        return gameRepository.findById(id).orElse(null);
+        return getGameById(id).orElse(null);
     }
 
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.GAMES_BY_ID, unless = "#result == null")
     public Optional<Game> getGameById(Integer id) {
         return gameRepository.findById(id);
     }
 
+    /**
+     * Reads a game from the database and replaces its cached copy, for callers
+     * that found the cached one older than the stored version (e.g. after a
+     * write on another instance).
+     */
+    @Transactional(readOnly = true)
+    @CachePut(cacheNames = CacheConfig.GAMES_BY_ID, key = "#id", unless = "#result == null")
+    public Game reloadGame(Integer id) {
+        return gameRepository.findById(id).orElse(null);
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.GAMES_BY_OWNER)
     public List<Game> getGamesByOwner(String ownerUsername) {
-        return gameRepository.findByOwnerUsername(ownerUsername);
+        return List.copyOf(gameRepository.findByOwnerUsername(ownerUsername));
     }
 
+    // The owner isn't a parameter, so every owner's listings are dropped
+    @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.GAMES_BY_ID, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.GAMES_BY_OWNER, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.GAME_CATALOG, allEntries = true)
+    })
     public Game updateGame(Integer id, String title, String description, String deliveryInstructions,
                           double pricePerDay, String condition, String photos, String tags, boolean active,
                           LocalDate startDate, LocalDate endDate) {
         Optional<Game> gameOpt = gameRepository.findById(id);
         if (gameOpt.isPresent()) {
             Game game = gameOpt.get();
+            String previousPhotos = game.getPhotos();
             game.setTitle(title);
             game.setDescription(description);
             game.setDeliveryInstructions(deliveryInstructions);
@@ -58,21 +143,62 @@ public class GameService {
             game.setActive(active);
             game.setStartDate(startDate);
             game.setEndDate(endDate);
-            return gameRepository.save(game);
+            Game saved = gameRepository.save(game);
+            if (tags != null) syncTags(saved);
+            if (photos != null) imageGarbageCollector.releaseRemoved(previousPhotos, photos);
+            return saved;
         }
         return null;
     }
 
+    @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.GAMES_BY_ID, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.GAMES_BY_OWNER, key = "#ownerUsername"),
+        @CacheEvict(cacheNames = CacheConfig.GAME_CATALOG, allEntries = true)
+    })
     public boolean deleteGame(Integer id, String ownerUsername) {
         Optional<Game> gameOpt = gameRepository.findById(id);
         if (gameOpt.isPresent() && gameOpt.get().getOwnerUsername().equals(ownerUsername)) {
+            gameTagRepository.deleteByGameId(id);
             gameRepository.deleteById(id);
+            imageGarbageCollector.releaseRemoved(gameOpt.get().getPhotos(), null);
             return true;
         }
         return false;
     }
 
+    @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.GAMES_BY_ID, key = "#game.gameId", condition = "#game.gameId != null"),
+        @CacheEvict(cacheNames = CacheConfig.GAMES_BY_OWNER, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.GAME_CATALOG, allEntries = true)
+    })
     public void save(Game game) {
-        gameRepository.save(game);
+        Game saved = gameRepository.save(game);
+        syncTags(saved);
+    }
+
+    /**
+     * Copies the comma-separated tag column into game_tags for games that have
+     * tags but no index rows, e.g. those saved before the tag table existed. Once
+     * backfilled, startup only pays for the one anti-join query.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillTagIndex() {
+        for (Game game : gameRepository.findWithUnindexedTags()) {
+            syncTags(game);
+        }
+    }
+
+    private void syncTags(Game game) {
+        if (game == null || game.getGameId() == null) {
+            return;
+        }
+        gameTagRepository.deleteByGameId(game.getGameId());
+        for (String tag : GameTag.parse(game.getTags())) {
+            gameTagRepository.save(new GameTag(game.getGameId(), tag));
+        }
     }
 }
\ No newline at end of file
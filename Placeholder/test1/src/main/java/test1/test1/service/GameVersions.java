@@ -0,0 +1,71 @@
+package test1.test1.service;
+
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import test1.test1.config.CacheConfig;
+import test1.test1.dto.CatalogStamp;
+import test1.test1.model.Game;
+import test1.test1.repository.GameRepository;
+
+/**
+ * Strong ETags of the game endpoints, derived from what is stored so that
+ * every instance hands out the same tag for the same data. A game's tag is its
+ * {@code @Version}; the catalog tag combines the number of games, the sum of
+ * their versions and the latest {@code updatedAt}, which together move on any
+ * insert, update or delete.
+ *
+ * <p>The catalog and owner listings are cached per instance, so when the
+ * catalog tag read here differs from the last one this instance saw, those
+ * caches are dropped: a write committed by another instance is then served on
+ * the next request instead of after the cache expires.
+ */
+@Component
+public class GameVersions {
+
+    private final GameRepository gameRepository;
+    private final CacheManager cacheManager;
+    private final AtomicReference<String> lastCatalogTag = new AtomicReference<>();
+
+    public GameVersions(GameRepository gameRepository, CacheManager cacheManager) {
+        this.gameRepository = gameRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    public String catalogETag() {
+        CatalogStamp stamp = gameRepository.catalogStamp();
+        String lastUpdate = stamp.getLastUpdate() == null ? "0"
+            : Long.toString(stamp.getLastUpdate().toInstant(ZoneOffset.UTC).toEpochMilli(), 36);
+        String tag = "\"catalog-" + stamp.getGames() + "-" + stamp.getVersions() + "-" + lastUpdate + "\"";
+        String previous = lastCatalogTag.getAndSet(tag);
+        if (previous != null && !previous.equals(tag)) {
+            clear(CacheConfig.GAME_CATALOG);
+            clear(CacheConfig.GAMES_BY_OWNER);
+        }
+        return tag;
+    }
+
+    public String gameETag(Game game) {
+        return gameETag(game.getGameId(), game.getVersion());
+    }
+
+    public static String gameETag(Integer gameId, long version) {
+        return "\"game-" + gameId + "-" + version + "\"";
+    }
+
+    /** The stored version of a game, or null if it doesn't exist. One primary key lookup. */
+    public Long currentVersion(Integer gameId) {
+        return gameRepository.findVersionById(gameId);
+    }
+
+    private void clear(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
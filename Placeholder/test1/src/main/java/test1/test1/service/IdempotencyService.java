@@ -0,0 +1,228 @@
+package test1.test1.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import test1.test1.config.CacheConfig;
+import test1.test1.model.IdempotencyRecord;
+import test1.test1.repository.IdempotencyRecordRepository;
+import test1.test1.util.StripedLock;
+
+/**
+ * Runs a request at most once per {@code Idempotency-Key} and answers retries
+ * with the stored response. Completed responses are kept in the
+ * idempotency_keys table until they expire, with the recent ones also in the
+ * {@link CacheConfig#IDEMPOTENCY_KEYS} cache so a burst of retries doesn't hit
+ * the database.
+ *
+ * <p>The first request claims its key by inserting a row before doing any
+ * work. Requests for the same key in this process wait on a striped lock;
+ * one arriving through another instance finds the claim and gets 409 until the
+ * first one finishes. Server errors release the claim so the client can retry
+ * for real.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final int KEY_LOCK_STRIPES = 64;
+    // A claim left behind by a crashed instance stops blocking the key after this
+    private static final Duration CLAIM_TIMEOUT = Duration.ofMinutes(5);
+
+    private final IdempotencyRecordRepository repository;
+    private final CacheManager cacheManager;
+    private final TransactionOperations transactions;
+    private final JsonMapper jsonMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+
+    private final StripedLock keyLocks = new StripedLock(KEY_LOCK_STRIPES);
+
+    public IdempotencyService(IdempotencyRecordRepository repository, CacheManager cacheManager,
+                              TransactionOperations transactions, JsonMapper jsonMapper, MeterRegistry meterRegistry,
+                              @Value("${app.idempotency.ttl-hours:24}") long ttlHours) {
+        this.repository = repository;
+        this.cacheManager = cacheManager;
+        this.transactions = transactions;
+        this.jsonMapper = jsonMapper;
+        this.meterRegistry = meterRegistry;
+        this.ttl = Duration.ofHours(ttlHours);
+    }
+
+    /**
+     * Returns the stored response for {@code key} if there is one, otherwise
+     * runs {@code action} and stores what it returns. Reusing a key with a
+     * different request body gets 422; a key whose first request is still
+     * running gets 409.
+     */
+    public ResponseEntity<?> execute(String key, Map<String, Object> request,
+                                     Supplier<ResponseEntity<?>> action) {
+        String requestHash = hash(request);
+
+        IdempotencyRecord existing = find(key);
+        if (existing != null) {
+            return replay(existing, requestHash);
+        }
+
+        Lock lock = keyLocks.get(key);
+        lock.lock();
+        try {
+            // A request for the same key may have finished while we waited
+            existing = find(key);
+            if (existing != null) {
+                return replay(existing, requestHash);
+            }
+            IdempotencyRecord claim = claim(key, requestHash);
+            if (claim == null) {
+                IdempotencyRecord other = repository.findById(key).orElse(null);
+                return other != null ? replay(other, requestHash) : inProgress();
+            }
+
+            ResponseEntity<?> response;
+            try {
+                response = action.get();
+            } catch (RuntimeException e) {
+                release(key);
+                throw e;
+            }
+            if (response.getStatusCode().is5xxServerError()) {
+                release(key);
+            } else {
+                complete(claim, response);
+            }
+            outcome("executed");
+            return response;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private IdempotencyRecord find(String key) {
+        Cache cache = cache();
+        IdempotencyRecord record = cache.get(key, IdempotencyRecord.class);
+        if (record == null) {
+            record = repository.findById(key).orElse(null);
+            if (record == null || !record.isCompleted()) {
+                // Claims are left to the lock and the insert; only finished responses are replayed from here
+                return null;
+            }
+        }
+        if (record.isExpired(LocalDateTime.now())) {
+            cache.evict(key);
+            return null;
+        }
+        cache.put(key, record);
+        return record;
+    }
+
+    private ResponseEntity<?> replay(IdempotencyRecord record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            outcome("mismatch");
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_CONTENT)
+                .body(Map.of("message", "Idempotency-Key was already used with a different request"));
+        }
+        if (!record.isCompleted()) {
+            return inProgress();
+        }
+        outcome("replayed");
+        return ResponseEntity.status(record.getResponseStatus())
+            .header("Idempotent-Replayed", "true")
+            .body(jsonMapper.readValue(record.getResponseBody(), Map.class));
+    }
+
+    private ResponseEntity<?> inProgress() {
+        outcome("in_progress");
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+            .body(Map.of("message", "A request with this Idempotency-Key is still being processed"));
+    }
+
+    /** Inserts the claim row, or returns null if another live request holds the key. */
+    private IdempotencyRecord claim(String key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            return transactions.execute(tx -> {
+                IdempotencyRecord current = repository.findById(key).orElse(null);
+                if (current != null && !current.isExpired(now)) {
+                    return null;
+                }
+                if (current != null) {
+                    // Expired: the key is free again and the old row is reused
+                    current.setRequestHash(requestHash);
+                    current.setResponseStatus(null);
+                    current.setResponseBody(null);
+                    current.setCreatedAt(now);
+                    current.setExpiresAt(now.plus(CLAIM_TIMEOUT));
+                    return repository.saveAndFlush(current);
+                }
+                return repository.saveAndFlush(new IdempotencyRecord(key, requestHash, now.plus(CLAIM_TIMEOUT)));
+            });
+        } catch (DataIntegrityViolationException e) {
+            return null; // claimed by another instance between our read and insert
+        }
+    }
+
+    private void complete(IdempotencyRecord claim, ResponseEntity<?> response) {
+        claim.setResponseStatus(response.getStatusCode().value());
+        claim.setResponseBody(jsonMapper.writeValueAsString(response.getBody()));
+        claim.setExpiresAt(LocalDateTime.now().plus(ttl));
+        transactions.executeWithoutResult(tx -> repository.save(claim));
+        cache().put(claim.getIdempotencyKey(), claim);
+    }
+
+    private void release(String key) {
+        try {
+            transactions.executeWithoutResult(tx -> repository.deleteById(key));
+        } catch (RuntimeException e) {
+            // The claim then simply times out
+            log.warn("Could not release idempotency key {}", key, e);
+        }
+    }
+
+    /** SHA-256 of the request with map keys sorted, so field order doesn't matter. */
+    String hash(Map<String, Object> request) {
+        byte[] json = jsonMapper.writer(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS).writeValueAsBytes(request);
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        Integer purged = transactions.execute(tx -> repository.deleteExpired(LocalDateTime.now()));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CacheConfig.IDEMPOTENCY_KEYS);
+    }
+
+    private void outcome(String outcome) {
+        meterRegistry.counter(ServiceMetrics.IDEMPOTENT_REQUESTS, "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,137 @@
+package test1.test1.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import test1.test1.repository.GameRepository;
+import test1.test1.util.AfterCommit;
+
+/**
+ * Deletes stored images once no game lists them in its photos. References are
+ * counted straight from {@code Game.photos} instead of a separate counter, so
+ * the count can't drift from what the games actually show. Only
+ * content-addressed files are collected; older random-named uploads are left
+ * alone.
+ *
+ * <p>Files still in their grace period when released, and uploads never
+ * attached to a game, are picked up by the periodic {@link #sweep()}.
+ */
+@Service
+public class ImageGarbageCollector {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageGarbageCollector.class);
+
+    private final GameRepository gameRepository;
+    private final ImageStorageService storage;
+    private final Duration grace;
+
+    public ImageGarbageCollector(GameRepository gameRepository, ImageStorageService storage,
+                                 @Value("${app.images.gc-grace-minutes:60}") long graceMinutes) {
+        this.gameRepository = gameRepository;
+        this.storage = storage;
+        this.grace = Duration.ofMinutes(graceMinutes);
+    }
+
+    /**
+     * Releases the photos listed in {@code previousPhotos} but not in
+     * {@code currentPhotos} (null when the game was deleted). Call it inside the
+     * transaction that changed the game: the reference check then sees that
+     * change, and files are deleted only once it commits.
+     */
+    public void releaseRemoved(String previousPhotos, String currentPhotos) {
+        Set<String> kept = parse(currentPhotos);
+        List<String> orphans = new ArrayList<>();
+        for (String url : parse(previousPhotos)) {
+            String name = ImageStorageService.storedName(url);
+            if (kept.contains(url) || !ImageStorageService.isContentAddressed(name)) {
+                continue;
+            }
+            if (!gameRepository.existsByPhotosContaining(name)) {
+                orphans.add(name);
+            }
+        }
+        if (!orphans.isEmpty()) {
+            AfterCommit.run(() -> orphans.forEach(this::delete));
+        }
+    }
+
+    /**
+     * Deletes content-addressed files that are past the grace period and that
+     * no game lists. Runs on the scheduler, outside any transaction; each
+     * candidate is checked again right before deletion in case a game picked it
+     * up during the sweep.
+     */
+    @Scheduled(initialDelayString = "${app.images.gc-sweep-interval:PT1H}",
+               fixedDelayString = "${app.images.gc-sweep-interval:PT1H}")
+    public void sweep() {
+        Path root = storage.getRoot();
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        Set<String> referenced = new HashSet<>();
+        for (String photos : gameRepository.findAllPhotos()) {
+            for (String url : parse(photos)) {
+                referenced.add(ImageStorageService.storedName(url));
+            }
+        }
+        List<String> orphans;
+        // Stored names are <2 hex>/<sha-256>.<ext>; variants don't match and go with their original
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            orphans = files.filter(Files::isRegularFile)
+                .map(file -> root.relativize(file).toString().replace('\\', '/'))
+                .filter(ImageStorageService::isContentAddressed)
+                .filter(name -> !referenced.contains(name))
+                .collect(Collectors.toList());
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Could not list stored images under {}", root, e);
+            return;
+        }
+        for (String name : orphans) {
+            if (!gameRepository.existsByPhotosContaining(name)) {
+                delete(name);
+            }
+        }
+    }
+
+    private void delete(String name) {
+        try {
+            // Recently uploaded or re-uploaded files may be about to be attached to another game
+            if (Files.getLastModifiedTime(storage.resolve(name)).toInstant().isAfter(Instant.now().minus(grace))) {
+                log.debug("Keeping unreferenced image {} within its grace period", name);
+                return;
+            }
+            storage.delete(name);
+            log.info("Deleted unreferenced image {}", name);
+        } catch (IOException e) {
+            log.warn("Could not delete unreferenced image {}", name, e);
+        }
+    }
+
+    private static Set<String> parse(String photos) {
+        if (photos == null || photos.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(photos.split(","))
+            .map(String::trim)
+            .filter(photo -> !photo.isEmpty())
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
@@ -0,0 +1,228 @@
+package test1.test1.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import test1.test1.util.ImageVariant;
+
+/**
+ * Content-addressed store for uploaded game images under
+ * {@code app.images.storage-root}. A file is named after the SHA-256 of its
+ * bytes and kept in a directory named after the first two hex digits
+ * ({@code 3f/3fa9...c1.png}), so identical uploads share one file and a name
+ * never changes meaning, which lets clients cache images forever.
+ *
+ * <p>Uploads are streamed through a small buffer into a temp file in the root
+ * and then moved into place, so readers never see a partial image and the
+ * upload is never held in memory as a whole. The image type comes from the
+ * file's first bytes, not from the client's Content-Type or file name.
+ */
+@Service
+public class ImageStorageService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageStorageService.class);
+
+    // Longest signature we check (RIFF....WEBP)
+    static final int SNIFF_BYTES = 12;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("[0-9a-f]{2}/[0-9a-f]{64}\\.(png|jpg|gif|webp)");
+
+    public enum ImageType {
+        PNG(".png"), JPEG(".jpg"), GIF(".gif"), WEBP(".webp");
+
+        private final String extension;
+
+        ImageType(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private final Path root;
+
+    public ImageStorageService(@Value("${app.images.storage-root:data/game_images}") String root) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /** Path of a stored file; names that would leave the root are rejected. */
+    public Path resolve(String filename) {
+        Path path = root.resolve(filename).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IllegalArgumentException("Invalid file name: " + filename);
+        }
+        return path;
+    }
+
+    /** Stored name for an image URL, or null if the URL isn't served from the store. */
+    public static String storedName(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(ImageVariant.URL_PREFIX)) {
+            return null;
+        }
+        String name = imageUrl.substring(ImageVariant.URL_PREFIX.length());
+        return name.isEmpty() ? null : name;
+    }
+
+    /** True for names written by {@link #store}; older uploads used random names. */
+    public static boolean isContentAddressed(String filename) {
+        return filename != null && CONTENT_ADDRESSED.matcher(filename).matches();
+    }
+
+    /** Fresh temp file location inside the root, so {@link #publish} can move it atomically. */
+    public Path newTempFile() throws IOException {
+        Files.createDirectories(root);
+        return root.resolve(".upload-" + UUID.randomUUID() + ".tmp");
+    }
+
+    /** Moves a finished temp file to its final name in one step. */
+    public void publish(Path temp, String filename) throws IOException {
+        Path target = resolve(filename);
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Streams the upload to disk and returns the stored file name. If the same
+     * bytes are already stored, the existing file is reused.
+     *
+     * @throws IllegalArgumentException if the file is empty or not a supported image
+     */
+    public String store(MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("File is empty");
+        }
+        Path temp = newTempFile();
+        try {
+            MessageDigest digest = sha256();
+            ImageType type = copy(file, temp, digest);
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String filename = hash.substring(0, 2) + "/" + hash + type.getExtension();
+
+            Path target = resolve(filename);
+            if (Files.exists(target)) {
+                // Fresh timestamp keeps the garbage collector's grace period from removing it
+                // before the game that will reference it is saved
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                log.debug("Upload matches stored image {}", filename);
+                return filename;
+            }
+            publish(temp, filename);
+            log.debug("Stored {} image {}", type, filename);
+            return filename;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /** Removes a stored image and its variants. */
+    public void delete(String filename) throws IOException {
+        Files.deleteIfExists(resolve(filename));
+        for (ImageVariant variant : ImageVariant.values()) {
+            Files.deleteIfExists(resolve(variant.fileName(filename)));
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static ImageType copy(MultipartFile file, Path temp, MessageDigest digest) throws IOException {
+        try (InputStream in = file.getInputStream();
+             ReadableByteChannel source = Channels.newChannel(in);
+             FileChannel target = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+
+            // Read at least the signature before writing anything
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+            while (buffer.position() < SNIFF_BYTES) {
+                if (source.read(buffer) < 0) {
+                    break;
+                }
+            }
+            ImageType type = sniff(buffer.array(), buffer.position());
+            if (type == null) {
+                throw new IllegalArgumentException("Invalid file type. Only images are allowed");
+            }
+
+            // Hash and write the same buffer as it streams through
+            do {
+                buffer.flip();
+                digest.update(buffer.array(), 0, buffer.limit());
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+                buffer.clear();
+            } while (source.read(buffer) >= 0);
+            target.force(false);
+            return type;
+        }
+    }
+
+    /** Image type from the leading magic bytes, or null if it isn't one we accept. */
+    static ImageType sniff(byte[] head, int length) {
+        if (startsWith(head, length, 0x89, 'P', 'N', 'G')) {
+            return ImageType.PNG;
+        }
+        if (startsWith(head, length, 0xFF, 0xD8, 0xFF)) {
+            return ImageType.JPEG;
+        }
+        if (startsWith(head, length, 'G', 'I', 'F', '8')) {
+            return ImageType.GIF;
+        }
+        if (length >= SNIFF_BYTES && startsWith(head, length, 'R', 'I', 'F', 'F')
+                && "WEBP".equals(new String(head, 8, 4, StandardCharsets.US_ASCII))) {
+            return ImageType.WEBP;
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] head, int length, int... signature) {
+        if (length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((head[i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
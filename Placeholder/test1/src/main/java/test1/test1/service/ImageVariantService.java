@@ -0,0 +1,261 @@
+package test1.test1.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import test1.test1.util.ImageVariant;
+
+/**
+ * Generates the {@link ImageVariant} copies of uploaded images as JPEGs next
+ * to the original. Work runs on a small fixed pool with a bounded queue so
+ * uploads return straight away and a burst of uploads can't pile up unbounded
+ * decoding work; when the queue is full the image is simply served without
+ * variants.
+ */
+@Service
+public class ImageVariantService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantService.class);
+
+    // Images bundled with the app; their variants are written to the storage root
+    private static final String BUNDLED_IMAGES = "classpath:/static" + ImageVariant.URL_PREFIX + "*";
+
+    private final ImageStorageService storage;
+    private final float jpegQuality;
+    private final boolean backfill;
+    private final ThreadPoolExecutor executor;
+
+    public ImageVariantService(ImageStorageService storage, MeterRegistry meterRegistry,
+                               @Value("${app.images.variants.threads:2}") int threads,
+                               @Value("${app.images.variants.queue-capacity:100}") int queueCapacity,
+                               @Value("${app.images.variants.jpeg-quality:0.8}") float jpegQuality,
+                               @Value("${app.images.variants.backfill:true}") boolean backfill) {
+        this.storage = storage;
+        this.jpegQuality = jpegQuality;
+        this.backfill = backfill;
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "image-variants-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        new ExecutorServiceMetrics(executor, "image.variants", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /**
+     * Queues variant generation for a stored upload. Returns false if the
+     * queue is full; the original image is still usable.
+     */
+    public boolean submit(String filename) {
+        if (!missingVariants(filename)) {
+            return true; // a duplicate upload of an image that already has them
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(filename);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Could not generate variants for {}", filename, e);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.warn("Variant queue full, serving {} without variants", filename);
+            return false;
+        }
+    }
+
+    /** Writes every variant of a stored image; returns false if it can't be decoded. */
+    public boolean generate(String filename) throws IOException {
+        try (InputStream in = Files.newInputStream(storage.resolve(filename))) {
+            return generate(filename, in);
+        }
+    }
+
+    boolean generate(String filename, InputStream original) throws IOException {
+        BufferedImage image = decode(original, ImageVariant.FULL.getMaxSize());
+        if (image == null) {
+            log.debug("No decoder for {}, skipping variants", filename);
+            return false;
+        }
+        // Largest first, each one scaled from the previous to keep the steps small
+        for (ImageVariant variant : List.of(ImageVariant.FULL, ImageVariant.CARD, ImageVariant.THUMB)) {
+            image = scale(image, variant.getMaxSize());
+            Path temp = storage.newTempFile();
+            try {
+                writeJpeg(image, temp);
+                storage.publish(temp, variant.fileName(filename));
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes the first frame, subsampling while reading so a large photo is
+     * never expanded at full resolution.
+     */
+    private static BufferedImage decode(InputStream original, int maxSize) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original)) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, longest / maxSize);
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Always returns an opaque RGB image; transparency is flattened onto white for JPEG
+    static BufferedImage scale(BufferedImage source, int maxSize) {
+        double ratio = Math.min(1.0, (double) maxSize / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Generates missing variants for images uploaded before this pipeline
+     * existed and for the bundled images, one at a time on the worker pool.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillVariants() {
+        if (!backfill) {
+            return;
+        }
+        try {
+            executor.execute(this::backfill);
+        } catch (RejectedExecutionException e) {
+            log.warn("Variant queue full, skipping backfill");
+        }
+    }
+
+    private void backfill() {
+        int generated = 0;
+        try {
+            if (Files.isDirectory(storage.getRoot())) {
+                List<String> stored;
+                // Root level holds older random-named uploads, shard directories the rest
+                try (Stream<Path> files = Files.walk(storage.getRoot(), 2)) {
+                    stored = files.filter(Files::isRegularFile)
+                        .filter(path -> !path.getFileName().toString().startsWith("."))
+                        .map(path -> storage.getRoot().relativize(path).toString().replace('\\', '/'))
+                        .filter(name -> !ImageVariant.isVariant(name))
+                        .toList();
+                }
+                for (String name : stored) {
+                    if (missingVariants(name) && backfillOne(name, () -> Files.newInputStream(storage.resolve(name)))) {
+                        generated++;
+                    }
+                }
+            }
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(BUNDLED_IMAGES)) {
+                String name = resource.getFilename();
+                if (name != null && !ImageVariant.isVariant(name) && missingVariants(name)
+                        && backfillOne(name, resource::getInputStream)) {
+                    generated++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Image variant backfill stopped", e);
+        }
+        if (generated > 0) {
+            log.info("Generated variants for {} existing images", generated);
+        }
+    }
+
+    // One unreadable image (e.g. an arithmetic-coded JPEG) must not stop the rest
+    private boolean backfillOne(String name, InputStreamSource source) {
+        try (InputStream in = source.getInputStream()) {
+            return generate(name, in);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Skipping variants for {}: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean missingVariants(String filename) {
+        return !Files.exists(storage.resolve(ImageVariant.THUMB.fileName(filename)));
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
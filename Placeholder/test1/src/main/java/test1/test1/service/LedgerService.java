@@ -0,0 +1,84 @@
+package test1.test1.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import test1.test1.model.Game;
+import test1.test1.model.LedgerBalance;
+import test1.test1.model.LedgerEntry;
+import test1.test1.model.Payment;
+import test1.test1.repository.LedgerBalanceRepository;
+import test1.test1.repository.LedgerEntryRepository;
+import test1.test1.util.MinorUnits;
+
+/**
+ * Append-only ledger of completed and refunded payments, with per-owner and
+ * platform balances per currency kept up to date as entries are written, so
+ * earnings are read from one row per currency instead of summed from the
+ * payments table. Entries are written in the transaction that changes the
+ * payment's status, so a status change and its ledger entry commit together.
+ */
+@Service
+@Timed(value = ServiceMetrics.SERVICE_TIMER, histogram = true)
+public class LedgerService {
+
+    private final LedgerEntryRepository entryRepository;
+    private final LedgerBalanceRepository balanceRepository;
+
+    public LedgerService(LedgerEntryRepository entryRepository, LedgerBalanceRepository balanceRepository) {
+        this.entryRepository = entryRepository;
+        this.balanceRepository = balanceRepository;
+    }
+
+    /**
+     * Credits a payment that has just completed to its game's owner and the
+     * platform. Returns false if it was already recorded.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean recordCharge(Payment payment) {
+        return record(payment, LedgerEntry.CHARGE, 1);
+    }
+
+    /** Takes a refunded payment back out of both balances; false if already recorded. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean recordRefund(Payment payment) {
+        return record(payment, LedgerEntry.REFUND, -1);
+    }
+
+    private boolean record(Payment payment, String entryType, int sign) {
+        String currency = payment.getCurrency();
+        long amount = sign * MinorUnits.toMinor(payment.getAmount(), currency);
+        String owner = ownerOf(payment);
+        LocalDateTime now = LocalDateTime.now();
+        if (entryRepository.insertIfAbsent(payment.getPaymentId(), entryType, owner, currency, amount, now) == 0) {
+            return false;
+        }
+        if (owner != null) {
+            balanceRepository.add(LedgerBalance.ownerAccount(owner), currency, amount, now);
+        }
+        balanceRepository.add(LedgerBalance.PLATFORM, currency, amount, now);
+        return true;
+    }
+
+    private static String ownerOf(Payment payment) {
+        Game game = payment.getBooking() == null ? null : payment.getBooking().getGame();
+        return game == null ? null : game.getOwnerUsername();
+    }
+
+    /** What an owner has earned, net of refunds, one row per currency. */
+    @Transactional(readOnly = true)
+    public List<LedgerBalance> getOwnerBalances(String username) {
+        return balanceRepository.findByAccountOrderByCurrency(LedgerBalance.ownerAccount(username));
+    }
+
+    /** Everything taken through the platform, net of refunds, one row per currency. */
+    @Transactional(readOnly = true)
+    public List<LedgerBalance> getPlatformBalances() {
+        return balanceRepository.findByAccountOrderByCurrency(LedgerBalance.PLATFORM);
+    }
+}
@@ -0,0 +1,411 @@
+package test1.test1.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import test1.test1.dto.ReconciliationTotal;
+import test1.test1.model.BatchCheckpoint;
+import test1.test1.model.Payment;
+import test1.test1.repository.BatchCheckpointRepository;
+import test1.test1.repository.PaymentRepository;
+import test1.test1.repository.PaymentRepository.PaymentKey;
+
+/**
+ * Refund and reconciliation jobs over the payments created in a date window.
+ * Payments are read in keyset pages of {@code chunk-size}, never as one list,
+ * and each page is applied in its own transaction on a pool of
+ * {@code parallelism} workers. Progress is checkpointed in page order after
+ * each page, so an interrupted job resumes from its last finished page;
+ * a page that was applied but not yet checkpointed is simply applied again,
+ * which both jobs tolerate.
+ *
+ * <ul>
+ *   <li>REFUND marks COMPLETED payments of DECLINED bookings as REFUNDED.</li>
+ *   <li>RECONCILE totals payments per status and currency and hands payments
+ *       still PENDING after {@code stale-pending-minutes}, and not claimed by
+ *       a worker within the claim timeout, back to the {@link PaymentProcessor}.
+ *       It charges them only if it can claim them, with the payment's own
+ *       idempotency key, and a full queue leaves them PENDING for the next
+ *       run.</li>
+ *   <li>LEDGER writes the ledger entries of payments that completed or were
+ *       refunded before the ledger existed. It runs once, at the first
+ *       startup with the ledger.</li>
+ * </ul>
+ */
+@Service
+public class PaymentBatchService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentBatchService.class);
+
+    private static final TypeReference<TreeMap<String, ReconciliationTotal>> TOTALS = new TypeReference<>() {};
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    static final String LEDGER_BACKFILL_JOB = "ledger-backfill";
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private final PaymentRepository paymentRepository;
+    private final BatchCheckpointRepository checkpointRepository;
+    private final PaymentProcessor paymentProcessor;
+    private final LedgerService ledgerService;
+    private final TransactionOperations transactions;
+    private final JsonMapper jsonMapper;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+    private final int parallelism;
+    private final long stalePendingMinutes;
+    private final long claimTimeoutMinutes;
+    private final boolean ledgerBackfill;
+    // Jobs run one at a time; their pages run on the chunk pool
+    private final ThreadPoolExecutor jobs;
+    private final ThreadPoolExecutor chunks;
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public PaymentBatchService(PaymentRepository paymentRepository, BatchCheckpointRepository checkpointRepository,
+                               PaymentProcessor paymentProcessor, LedgerService ledgerService,
+                               TransactionOperations transactions, JsonMapper jsonMapper, MeterRegistry meterRegistry,
+                               @Value("${app.payments.batch.chunk-size:500}") int chunkSize,
+                               @Value("${app.payments.batch.parallelism:4}") int parallelism,
+                               @Value("${app.payments.batch.stale-pending-minutes:15}") long stalePendingMinutes,
+                               @Value("${app.payments.processor.claim-timeout-minutes:5}") long claimTimeoutMinutes,
+                               @Value("${app.payments.batch.ledger-backfill:true}") boolean ledgerBackfill) {
+        this.paymentRepository = paymentRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.paymentProcessor = paymentProcessor;
+        this.ledgerService = ledgerService;
+        this.transactions = transactions;
+        this.jsonMapper = jsonMapper;
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.stalePendingMinutes = stalePendingMinutes;
+        this.claimTimeoutMinutes = claimTimeoutMinutes;
+        this.ledgerBackfill = ledgerBackfill;
+        this.jobs = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(10),
+            runnable -> {
+                Thread thread = new Thread(runnable, "payment-batch");
+                thread.setDaemon(true);
+                return thread;
+            });
+        AtomicInteger count = new AtomicInteger();
+        // At most `parallelism` pages are in flight, so the queue never fills
+        this.chunks = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(parallelism), runnable -> {
+                Thread thread = new Thread(runnable, "payment-batch-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        new ExecutorServiceMetrics(chunks, "payments.batch", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /**
+     * Starts a job, or resumes it if a job with this name was interrupted or
+     * failed; the window and reason it was first started with are kept. A
+     * completed job is returned as is.
+     *
+     * @throws IllegalArgumentException if the name belongs to a job of another type
+     * @throws IllegalStateException if too many jobs are already queued
+     */
+    public BatchCheckpoint start(String jobName, String jobType, LocalDateTime from, LocalDateTime to, String reason) {
+        BatchCheckpoint checkpoint = transactions.execute(tx -> {
+            BatchCheckpoint existing = checkpointRepository.findById(jobName).orElse(null);
+            if (existing == null) {
+                return checkpointRepository.save(new BatchCheckpoint(jobName, jobType, from, to, reason));
+            }
+            if (!existing.getJobType().equals(jobType)) {
+                throw new IllegalArgumentException("Job " + jobName + " is a " + existing.getJobType() + " job");
+            }
+            if (!existing.isFinished()) {
+                existing.setStatus("RUNNING");
+                existing.setError(null);
+            }
+            return existing;
+        });
+        if (!checkpoint.isFinished()) {
+            launch(jobName);
+        }
+        return checkpoint;
+    }
+
+    public Optional<BatchCheckpoint> getJob(String jobName) {
+        return checkpointRepository.findById(jobName);
+    }
+
+    private void launch(String jobName) {
+        if (!running.add(jobName)) {
+            return; // already running here
+        }
+        try {
+            jobs.execute(() -> {
+                try {
+                    run(jobName);
+                } finally {
+                    running.remove(jobName);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.remove(jobName);
+            finish(jobName, "FAILED", "Too many batch jobs queued");
+            throw new IllegalStateException("Too many batch jobs queued, try again later");
+        }
+    }
+
+    void run(String jobName) {
+        BatchCheckpoint job = checkpointRepository.findById(jobName).orElse(null);
+        if (job == null || !"RUNNING".equals(job.getStatus())) {
+            return;
+        }
+        log.info("Batch job {} ({}) starting after payment {}", jobName, job.getJobType(), job.getLastPaymentId());
+        // Refunds only ever touch completed payments, so only those are read
+        String status = BatchCheckpoint.REFUND.equals(job.getJobType()) ? "COMPLETED" : null;
+        LocalDateTime staleBefore = LocalDateTime.now().minusMinutes(stalePendingMinutes);
+        LocalDateTime claimsExpiredBefore = LocalDateTime.now().minusMinutes(claimTimeoutMinutes);
+        LocalDateTime afterCreatedAt = job.getLastCreatedAt();
+        int afterId = job.getLastPaymentId();
+        Deque<Future<Chunk>> inFlight = new ArrayDeque<>();
+        long mark = System.nanoTime();
+        try {
+            List<PaymentKey> keys;
+            do {
+                keys = paymentRepository.findKeysAfter(afterCreatedAt, afterId, job.getCreatedTo(), status,
+                    Limit.of(chunkSize));
+                if (keys.isEmpty()) {
+                    break;
+                }
+                PaymentKey last = keys.get(keys.size() - 1);
+                afterCreatedAt = last.getCreatedAt();
+                afterId = last.getPaymentId();
+                Chunk chunk = new Chunk(afterCreatedAt, afterId);
+                List<Integer> ids = keys.stream().map(PaymentKey::getPaymentId).toList();
+                inFlight.add(chunks.submit(() -> process(job, ids, staleBefore, claimsExpiredBefore, chunk)));
+                if (inFlight.size() >= parallelism) {
+                    mark = checkpoint(job, inFlight.poll().get(), mark);
+                }
+            } while (keys.size() == chunkSize);
+            while (!inFlight.isEmpty()) {
+                mark = checkpoint(job, inFlight.poll().get(), mark);
+            }
+            BatchCheckpoint done = finish(jobName, "COMPLETED", null);
+            log.info("Batch job {} completed: {} payments, {} changed, {} failed in {} ms ({} per second)", jobName,
+                done.getProcessed(), done.getAffected(), done.getFailed(), done.getElapsedMillis(),
+                Math.round(done.getItemsPerSecond()));
+        } catch (InterruptedException e) {
+            // Shutting down: leave it RUNNING so the next start resumes it
+            inFlight.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RuntimeException e) {
+            inFlight.forEach(future -> future.cancel(true));
+            if (jobs.isShutdown()) {
+                // Interrupted mid-query, which surfaces as a data access error
+                log.info("Batch job {} stopped by shutdown after payment {}", jobName, afterId);
+                return;
+            }
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            log.error("Batch job {} failed after payment {}", jobName, afterId, cause);
+            finish(jobName, "FAILED", String.valueOf(cause.getMessage()));
+        }
+    }
+
+    /** Applies one page in a single transaction, falling back to one payment at a time if it fails. */
+    private Chunk process(BatchCheckpoint job, List<Integer> ids, LocalDateTime staleBefore,
+                          LocalDateTime claimsExpiredBefore, Chunk chunk) {
+        try {
+            chunk.add(transactions.execute(tx ->
+                apply(job, paymentRepository.findByPaymentIdIn(ids), staleBefore, claimsExpiredBefore)));
+        } catch (RuntimeException e) {
+            log.warn("Batch job {}: page ending at payment {} failed, retrying it one payment at a time",
+                job.getJobName(), chunk.lastPaymentId, e);
+            for (Integer id : ids) {
+                try {
+                    chunk.add(transactions.execute(tx -> apply(job, paymentRepository.findByPaymentIdIn(List.of(id)),
+                        staleBefore, claimsExpiredBefore)));
+                } catch (RuntimeException single) {
+                    log.warn("Batch job {}: payment {} failed: {}", job.getJobName(), id, single.getMessage());
+                    chunk.processed++;
+                    chunk.failed++;
+                }
+            }
+        }
+        // Only once the changes are committed
+        chunk.refundedMethods.forEach(method -> PaymentService.recordOutcome(meterRegistry, method, "REFUNDED"));
+        chunk.resubmit.forEach(paymentProcessor::retry);
+        return chunk;
+    }
+
+    private Chunk apply(BatchCheckpoint job, List<Payment> payments, LocalDateTime staleBefore,
+                        LocalDateTime claimsExpiredBefore) {
+        Chunk result = new Chunk(null, 0);
+        for (Payment payment : payments) {
+            result.processed++;
+            String status = payment.getStatus();
+            if (BatchCheckpoint.REFUND.equals(job.getJobType())) {
+                if ("COMPLETED".equals(status) && "DECLINED".equals(payment.getBooking().getStatus())) {
+                    payment.setStatus("REFUNDED");
+                    payment.setFailureReason(job.getReason());
+                    ledgerService.recordRefund(payment);
+                    result.refundedMethods.add(payment.getPaymentMethod());
+                    result.affected++;
+                }
+            } else if (BatchCheckpoint.LEDGER.equals(job.getJobType())) {
+                boolean added = false;
+                if ("COMPLETED".equals(status) || "REFUNDED".equals(status)) {
+                    added = ledgerService.recordCharge(payment);
+                }
+                if ("REFUNDED".equals(status)) {
+                    added |= ledgerService.recordRefund(payment);
+                }
+                if (added) {
+                    result.affected++;
+                }
+            } else {
+                result.totals.computeIfAbsent(status + "/" + payment.getCurrency(),
+                    key -> new ReconciliationTotal()).add(payment.getAmount());
+                // A live claim means a worker may be charging it right now
+                boolean claimed = payment.getClaimedAt() != null && !payment.getClaimedAt().isBefore(claimsExpiredBefore);
+                if ("PENDING".equals(status) && payment.getCreatedAt().isBefore(staleBefore) && !claimed) {
+                    result.resubmit.add(payment.getPaymentId());
+                    result.affected++;
+                }
+            }
+        }
+        return result;
+    }
+
+    private long checkpoint(BatchCheckpoint job, Chunk chunk, long mark) {
+        long now = System.nanoTime();
+        transactions.executeWithoutResult(tx -> {
+            BatchCheckpoint checkpoint = checkpointRepository.findById(job.getJobName()).orElseThrow();
+            checkpoint.setLastCreatedAt(chunk.lastCreatedAt);
+            checkpoint.setLastPaymentId(chunk.lastPaymentId);
+            checkpoint.setProcessed(checkpoint.getProcessed() + chunk.processed);
+            checkpoint.setAffected(checkpoint.getAffected() + chunk.affected);
+            checkpoint.setFailed(checkpoint.getFailed() + chunk.failed);
+            if (!chunk.totals.isEmpty()) {
+                checkpoint.setTotals(mergeTotals(checkpoint.getTotals(), chunk.totals));
+            }
+            checkpoint.setElapsedMillis(checkpoint.getElapsedMillis() + TimeUnit.NANOSECONDS.toMillis(now - mark));
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+        });
+        String type = job.getJobType();
+        meterRegistry.counter(ServiceMetrics.BATCH_ITEMS, "job", type, "outcome", "changed").increment(chunk.affected);
+        meterRegistry.counter(ServiceMetrics.BATCH_ITEMS, "job", type, "outcome", "unchanged")
+            .increment(chunk.processed - chunk.affected - chunk.failed);
+        meterRegistry.counter(ServiceMetrics.BATCH_ITEMS, "job", type, "outcome", "failed").increment(chunk.failed);
+        return now;
+    }
+
+    String mergeTotals(String stored, Map<String, ReconciliationTotal> chunkTotals) {
+        TreeMap<String, ReconciliationTotal> totals = stored == null ? new TreeMap<>()
+            : jsonMapper.readValue(stored, TOTALS);
+        chunkTotals.forEach((key, total) -> totals.computeIfAbsent(key, k -> new ReconciliationTotal()).add(total));
+        return jsonMapper.writeValueAsString(totals);
+    }
+
+    private BatchCheckpoint finish(String jobName, String status, String error) {
+        return transactions.execute(tx -> {
+            BatchCheckpoint checkpoint = checkpointRepository.findById(jobName).orElseThrow();
+            checkpoint.setStatus(status);
+            checkpoint.setError(error == null || error.length() <= MAX_ERROR_LENGTH ? error
+                : error.substring(0, MAX_ERROR_LENGTH));
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            if ("COMPLETED".equals(status)) {
+                checkpoint.setFinishedAt(checkpoint.getUpdatedAt());
+            }
+            return checkpoint;
+        });
+    }
+
+    /** Carries on with jobs a restart interrupted. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        for (String jobName : checkpointRepository.findRunningJobNames()) {
+            log.info("Resuming batch job {}", jobName);
+            try {
+                launch(jobName);
+            } catch (IllegalStateException e) {
+                log.warn("Could not resume batch job {}: {}", jobName, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Fills the ledger from payments finished before it existed. Payments that
+     * finish meanwhile are recorded by their own transition, and the ledger
+     * ignores the second attempt, so the two can overlap safely. Once the job
+     * has completed this is a single lookup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillLedger() {
+        if (!ledgerBackfill) {
+            return;
+        }
+        try {
+            start(LEDGER_BACKFILL_JOB, BatchCheckpoint.LEDGER, BEGINNING, LocalDateTime.now(), null);
+        } catch (IllegalStateException e) {
+            log.warn("Could not start the ledger backfill: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        jobs.shutdownNow();
+        chunks.shutdownNow();
+        jobs.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /** Outcome of one page: its keyset position and what it changed. */
+    private static final class Chunk {
+
+        private final LocalDateTime lastCreatedAt;
+        private final int lastPaymentId;
+        private long processed;
+        private long affected;
+        private long failed;
+        private final Map<String, ReconciliationTotal> totals = new TreeMap<>();
+        private final List<String> refundedMethods = new ArrayList<>();
+        private final List<Integer> resubmit = new ArrayList<>();
+
+        Chunk(LocalDateTime lastCreatedAt, int lastPaymentId) {
+            this.lastCreatedAt = lastCreatedAt;
+            this.lastPaymentId = lastPaymentId;
+        }
+
+        void add(Chunk other) {
+            processed += other.processed;
+            affected += other.affected;
+            failed += other.failed;
+            other.totals.forEach((key, total) -> totals.computeIfAbsent(key, k -> new ReconciliationTotal()).add(total));
+            refundedMethods.addAll(other.refundedMethods);
+            resubmit.addAll(other.resubmit);
+        }
+    }
+}
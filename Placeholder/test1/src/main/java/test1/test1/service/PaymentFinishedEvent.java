@@ -0,0 +1,29 @@
+package test1.test1.service;
+
+/**
+ * Published once a pending payment has reached its final status.
+ */
+public class PaymentFinishedEvent {
+
+    private final Integer paymentId;
+    private final String status;
+    private final String failureReason;
+
+    public PaymentFinishedEvent(Integer paymentId, String status, String failureReason) {
+        this.paymentId = paymentId;
+        this.status = status;
+        this.failureReason = failureReason;
+    }
+
+    public Integer getPaymentId() {
+        return paymentId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+}
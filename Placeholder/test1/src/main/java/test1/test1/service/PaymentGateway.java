@@ -0,0 +1,46 @@
+package test1.test1.service;
+
+import test1.test1.model.Payment;
+
+/**
+ * Payment provider (Stripe, PayPal, or the local simulator). Charges run on
+ * the {@link PaymentProcessor} workers, never on request threads, so an
+ * implementation may block for as long as the provider takes to answer.
+ */
+public interface PaymentGateway {
+
+    /**
+     * Charges a pending payment. {@code idempotencyKey} is derived from the
+     * payment id and is the same every time the payment is charged, so a
+     * provider answers a repeated charge with the outcome of the first instead
+     * of taking the money again.
+     */
+    Result charge(Payment payment, String idempotencyKey);
+
+    final class Result {
+
+        private final boolean approved;
+        private final String failureReason;
+
+        private Result(boolean approved, String failureReason) {
+            this.approved = approved;
+            this.failureReason = failureReason;
+        }
+
+        public static Result approved() {
+            return new Result(true, null);
+        }
+
+        public static Result declined(String failureReason) {
+            return new Result(false, failureReason);
+        }
+
+        public boolean isApproved() {
+            return approved;
+        }
+
+        public String getFailureReason() {
+            return failureReason;
+        }
+    }
+}
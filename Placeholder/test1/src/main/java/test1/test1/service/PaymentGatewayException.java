@@ -0,0 +1,18 @@
+package test1.test1.service;
+
+/**
+ * A charge that could not be completed because of the provider rather than
+ * the customer: it errored, timed out, rate-limited us, or was short-circuited
+ * by {@link ResilientPaymentGateway}. The message is safe to show to the user
+ * and is stored as the payment's failure reason.
+ */
+public class PaymentGatewayException extends RuntimeException {
+
+    public PaymentGatewayException(String message) {
+        super(message);
+    }
+
+    public PaymentGatewayException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
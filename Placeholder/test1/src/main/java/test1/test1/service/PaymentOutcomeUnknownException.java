@@ -0,0 +1,14 @@
+package test1.test1.service;
+
+/**
+ * A charge that reached the provider but got no answer, because it timed out
+ * or was abandoned at shutdown. The provider may still take the money, so the
+ * payment is neither completed nor failed: it stays PENDING until a retry
+ * with the same idempotency key learns the outcome.
+ */
+public class PaymentOutcomeUnknownException extends PaymentGatewayException {
+
+    public PaymentOutcomeUnknownException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
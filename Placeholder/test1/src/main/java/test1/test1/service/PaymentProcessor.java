@@ -0,0 +1,221 @@
+package test1.test1.service;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import test1.test1.model.Payment;
+import test1.test1.repository.PaymentRepository;
+
+/**
+ * Charges pending payments through the {@link PaymentGateway} on a bounded
+ * worker pool, so request threads only record the payment and return. Each
+ * payment moves from PENDING to COMPLETED or FAILED exactly once, after which a
+ * {@link PaymentFinishedEvent} is published. Only an answer from the provider,
+ * or a call that never reached it, fails a payment; one whose outcome is
+ * unknown, such as a timeout, stays PENDING and claimed until the claim
+ * expires and reconciliation or a restart retries it. If the queue is full the payment
+ * fails straight away rather than waiting unbounded. A failed payment declines
+ * its booking so the dates are free for another try.
+ *
+ * <p>Several instances may share the database, so a worker first claims the
+ * payment with a conditional update and only charges it if the claim went
+ * through; a claim older than {@code claim-timeout-minutes} is treated as
+ * abandoned. The provider is always given the same idempotency key for a
+ * payment, so a charge repeated after an expired claim is not taken twice.
+ */
+@Service
+public class PaymentProcessor implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentProcessor.class);
+
+    static final String BUSY = "Payment service is busy. Please try again in a moment.";
+    static final String GATEWAY_ERROR = "Payment provider error. Please try again.";
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentGateway gateway;
+    private final LedgerService ledgerService;
+    private final BookingService bookingService;
+    private final TransactionOperations transactions;
+    private final ApplicationEventPublisher events;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final long claimTimeoutMinutes;
+    // "pid@host", unique per running instance
+    private final String instanceId = ManagementFactory.getRuntimeMXBean().getName();
+
+    public PaymentProcessor(PaymentRepository paymentRepository, PaymentGateway gateway,
+                            LedgerService ledgerService, BookingService bookingService,
+                            TransactionOperations transactions, ApplicationEventPublisher events,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.payments.processor.threads:8}") int threads,
+                            @Value("${app.payments.processor.queue-capacity:1000}") int queueCapacity,
+                            @Value("${app.payments.processor.claim-timeout-minutes:5}") long claimTimeoutMinutes) {
+        this.paymentRepository = paymentRepository;
+        this.gateway = gateway;
+        this.ledgerService = ledgerService;
+        this.bookingService = bookingService;
+        this.transactions = transactions;
+        this.events = events;
+        this.meterRegistry = meterRegistry;
+        this.claimTimeoutMinutes = claimTimeoutMinutes;
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "payments-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        new ExecutorServiceMetrics(executor, "payments.processor", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /** Queues a pending payment; the caller's transaction must already have committed it. */
+    public void submit(Integer paymentId) {
+        try {
+            executor.execute(() -> process(paymentId));
+        } catch (RejectedExecutionException e) {
+            log.warn("Payment queue full, failing payment {}", paymentId);
+            finish(paymentId, null, "FAILED", BUSY);
+        }
+    }
+
+    /**
+     * Queues a payment that may have been tried before. Unlike {@link #submit}
+     * a full queue leaves it PENDING, since an earlier attempt may still have
+     * charged it; it is picked up again later.
+     *
+     * @return false if the queue was full
+     */
+    public boolean retry(Integer paymentId) {
+        try {
+            executor.execute(() -> process(paymentId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.warn("Payment queue full, leaving payment {} pending", paymentId);
+            return false;
+        }
+    }
+
+    static String idempotencyKey(Integer paymentId) {
+        return "payment-" + paymentId;
+    }
+
+    void process(Integer paymentId) {
+        Payment payment = paymentRepository.findById(paymentId).orElse(null);
+        if (payment == null) {
+            // Submitted ids come from committed rows, so this is a lost payment, not a race
+            log.error("Payment {} was submitted but can't be found; it stays unprocessed", paymentId);
+            return;
+        }
+        if (!"PENDING".equals(payment.getStatus())) {
+            return; // already finished, e.g. resubmitted at startup
+        }
+        if (!claim(paymentId)) {
+            log.debug("Payment {} is claimed by another worker or no longer pending", paymentId);
+            return;
+        }
+        PaymentGateway.Result result;
+        try {
+            result = gateway.charge(payment, idempotencyKey(paymentId));
+        } catch (PaymentOutcomeUnknownException e) {
+            // The provider may still take the money, so the booking is kept too
+            log.warn("Outcome of payment {} unknown, leaving it pending: {}", paymentId, e.getMessage());
+            PaymentService.recordOutcome(meterRegistry, payment.getPaymentMethod(), "UNKNOWN");
+            return;
+        } catch (PaymentGatewayException e) {
+            log.warn("Payment gateway call failed for payment {}: {}", paymentId, e.getMessage());
+            result = PaymentGateway.Result.declined(e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("Payment gateway call failed for payment {}", paymentId, e);
+            result = PaymentGateway.Result.declined(GATEWAY_ERROR);
+        }
+        if (result.isApproved()) {
+            finish(paymentId, payment, "COMPLETED", null);
+        } else {
+            finish(paymentId, payment, "FAILED", result.getFailureReason());
+        }
+    }
+
+    private boolean claim(Integer paymentId) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transactions.execute(tx ->
+            paymentRepository.claimPending(paymentId, instanceId, now, now.minusMinutes(claimTimeoutMinutes)));
+        return claimed != null && claimed == 1;
+    }
+
+    // payment is null when it was never loaded (queue full)
+    private void finish(Integer paymentId, Payment payment, String status, String failureReason) {
+        LocalDateTime completedAt = "COMPLETED".equals(status) ? LocalDateTime.now() : null;
+        Integer updated = transactions.execute(tx -> {
+            int rows = paymentRepository.finishPending(paymentId, status, completedAt, failureReason);
+            if (rows == 1 && "COMPLETED".equals(status)) {
+                ledgerService.recordCharge(payment);
+            }
+            return rows;
+        });
+        if (updated == null || updated == 0) {
+            return;
+        }
+        if ("FAILED".equals(status)) {
+            releaseBooking(paymentId, payment);
+        }
+        PaymentService.recordOutcome(meterRegistry, payment == null ? null : payment.getPaymentMethod(), status);
+        log.info("Payment {} {}", paymentId, status);
+        events.publishEvent(new PaymentFinishedEvent(paymentId, status, failureReason));
+    }
+
+    // Before the event goes out, so a client retrying on FAILED finds the dates free
+    private void releaseBooking(Integer paymentId, Payment payment) {
+        Integer bookingId = payment != null ? payment.getBooking().getBookingId()
+            : paymentRepository.findById(paymentId).map(p -> p.getBooking().getBookingId()).orElse(null);
+        if (bookingId == null) {
+            return;
+        }
+        try {
+            bookingService.updateBookingStatus(bookingId, "DECLINED");
+        } catch (RuntimeException e) {
+            log.warn("Could not decline booking {} of failed payment {}", bookingId, paymentId, e);
+        }
+    }
+
+    /**
+     * Picks up payments left pending by a restart. Only those older than the
+     * claim timeout and not claimed within it are taken: younger ones may still
+     * be queued or charging on another instance.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        LocalDateTime expiredBefore = LocalDateTime.now().minusMinutes(claimTimeoutMinutes);
+        List<Integer> pending = paymentRepository.findResumableIds(expiredBefore, expiredBefore);
+        if (!pending.isEmpty()) {
+            log.info("Resuming {} pending payments", pending.size());
+            pending.forEach(this::retry);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,28 +1,45 @@
 package test1.test1.service;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import test1.test1.dto.PaymentSummary;
 import test1.test1.model.Payment;
 import test1.test1.model.Booking;
 import test1.test1.repository.PaymentRepository;
 import test1.test1.repository.BookingRepository;
-import java.time.LocalDateTime;
+import test1.test1.util.AfterCommit;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
+@Timed(value = ServiceMetrics.SERVICE_TIMER, histogram = true)
 public class PaymentService {
 
+    private static final Set<String> SUPPORTED_METHODS = Set.of("stripe", "paypal");
+
     private final PaymentRepository paymentRepository;
     private final BookingRepository bookingRepository;
+    private final PaymentProcessor paymentProcessor;
+    private final LedgerService ledgerService;
+    private final MeterRegistry meterRegistry;
 
-    public PaymentService(PaymentRepository paymentRepository, BookingRepository bookingRepository) {
+    public PaymentService(PaymentRepository paymentRepository, BookingRepository bookingRepository,
+                          PaymentProcessor paymentProcessor, LedgerService ledgerService, MeterRegistry meterRegistry) {
         this.paymentRepository = paymentRepository;
         this.bookingRepository = bookingRepository;
+        this.paymentProcessor = paymentProcessor;
+        this.ledgerService = ledgerService;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
-     * Process a payment - simulates payment processing
+     * Records a payment as PENDING and hands it to the {@link PaymentProcessor};
+     * the provider is charged in the background, so this returns without
+     * waiting for it. Unsupported methods fail straight away.
      */
     public Payment processPayment(Integer bookingId, String paymentMethod, double amount, String currency, 
                                    String cardLast4, String cardBrand, String paypalEmail) {
@@ -49,39 +66,28 @@ public class PaymentService {
             payment.setPaypalEmail(paypalEmail);
         }
 
-        // Simulate payment processing
-        boolean paymentSuccessful = simulatePaymentProcessing(paymentMethod, amount);
-
-        if (paymentSuccessful) {
-            payment.setStatus("COMPLETED");
-            payment.setCompletedAt(LocalDateTime.now());
-        } else {
+        if (!isSupportedMethod(paymentMethod)) {
             payment.setStatus("FAILED");
-            payment.setFailureReason("Payment processing failed. Please try again or use another payment method.");
+            payment.setFailureReason(SimulatedPaymentGateway.DECLINED);
+            Payment failed = paymentRepository.save(payment);
+            recordOutcome(meterRegistry, paymentMethod, failed.getStatus());
+            return failed;
         }
 
-        // Save payment
         Payment savedPayment = paymentRepository.save(payment);
-
+        // The worker must be able to read the pending row
+        AfterCommit.run(() -> paymentProcessor.submit(savedPayment.getPaymentId()));
         return savedPayment;
     }
 
-    /**
-     * Simulate payment processing - can be replaced with actual Stripe/PayPal API calls
-     */
-    private boolean simulatePaymentProcessing(String paymentMethod, double amount) {
-        // Simulate 95% success rate
-        double successRate = 0.95;
-        
-        if (paymentMethod.equals("stripe")) {
-            // Stripe processing - always succeeds for test card
-            return Math.random() < successRate;
-        } else if (paymentMethod.equals("paypal")) {
-            // PayPal processing
-            return Math.random() < successRate;
-        }
+    static boolean isSupportedMethod(String paymentMethod) {
+        return paymentMethod != null && SUPPORTED_METHODS.contains(paymentMethod);
+    }
 
-        return false;
+    static void recordOutcome(MeterRegistry meterRegistry, String paymentMethod, String outcome) {
+        // The method comes from the client; keep the tag to known values
+        String method = "stripe".equals(paymentMethod) || "paypal".equals(paymentMethod) ? paymentMethod : "other";
+        meterRegistry.counter(ServiceMetrics.PAYMENTS, "method", method, "outcome", outcome).increment();
     }
 
     /**
@@ -95,6 +101,7 @@ public class PaymentService {
     /**
      * Get payment by ID
      */
+    @Transactional(readOnly = true)
     public Optional<Payment> getPaymentById(Integer paymentId) {
         return paymentRepository.findById(paymentId);
     }
@@ -102,6 +109,7 @@ public class PaymentService {
     /**
      * Get payment by transaction ID
      */
+    @Transactional(readOnly = true)
     public Optional<Payment> getPaymentByTransactionId(String transactionId) {
         return paymentRepository.findByTransactionId(transactionId);
     }
@@ -109,6 +117,7 @@ public class PaymentService {
     /**
      * Get all payments for a booking
      */
+    @Transactional(readOnly = true)
     public List<Payment> getPaymentsByBooking(Booking booking) {
         return paymentRepository.findByBooking(booking);
     }
@@ -116,13 +125,15 @@ public class PaymentService {
     /**
      * Get all payments with specific status
      */
+    @Transactional(readOnly = true)
     public List<Payment> getPaymentsByStatus(String status) {
         return paymentRepository.findByStatus(status);
     }
 
     /**
-     * Refund a payment
+     * Refund a payment; the ledger entry is written in the same transaction
      */
+    @Transactional
     public Payment refundPayment(Integer paymentId, String reason) {
         Optional<Payment> paymentOpt = paymentRepository.findById(paymentId);
         
@@ -139,12 +150,16 @@ public class PaymentService {
         payment.setStatus("REFUNDED");
         payment.setFailureReason(reason);
 
-        return paymentRepository.save(payment);
+        Payment saved = paymentRepository.save(payment);
+        ledgerService.recordRefund(saved);
+        recordOutcome(meterRegistry, payment.getPaymentMethod(), "REFUNDED");
+        return saved;
     }
 
     /**
      * Check if a booking has a successful payment
      */
+    @Transactional(readOnly = true)
     public boolean hasSuccessfulPayment(Booking booking) {
         Optional<Payment> payment = paymentRepository.findByBookingAndStatus(booking, "COMPLETED");
         return payment.isPresent();
@@ -153,7 +168,16 @@ public class PaymentService {
     /**
      * Get all payments (admin function)
      */
+    @Transactional(readOnly = true)
     public List<Payment> getAllPayments() {
         return paymentRepository.findAll();
     }
+
+    /**
+     * All payments as summaries for the admin list
+     */
+    @Transactional(readOnly = true)
+    public List<PaymentSummary> getPaymentSummaries() {
+        return paymentRepository.findAllSummaries();
+    }
 }
@@ -0,0 +1,173 @@
+package test1.test1.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import test1.test1.config.PaymentGatewayProperties;
+import test1.test1.model.Payment;
+import test1.test1.util.CircuitBreaker;
+
+/**
+ * Wraps a {@link PaymentGateway} with a timeout, a bulkhead and a circuit
+ * breaker for each gateway (Stripe, PayPal), configured under
+ * {@code app.payments.gateway.resilience.<method>.*}. A slow or failing
+ * provider then costs at most its bulkhead's worth of calls, each bounded by
+ * the timeout, instead of tying up every payment worker; while its breaker is
+ * open, charges fail at once and the other gateway is unaffected.
+ *
+ * <p>Declines are ordinary answers and count as successes for the breaker.
+ * Errors and timeouts count as failures and surface as a
+ * {@link PaymentGatewayException}. A timed-out charge may still go through at
+ * the provider later, so it surfaces as a {@link PaymentOutcomeUnknownException}
+ * instead; retrying it with the same idempotency key learns the outcome.
+ */
+public class ResilientPaymentGateway implements PaymentGateway, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ResilientPaymentGateway.class);
+
+    static final String UNAVAILABLE = "Payment provider is temporarily unavailable. Please try again later.";
+    static final String BUSY = "Payment provider is busy. Please try again in a moment.";
+    static final String TIMED_OUT = "Payment provider did not respond in time.";
+
+    private final PaymentGateway delegate;
+    private final PaymentGatewayProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Guard> guards = new ConcurrentHashMap<>();
+    // Unbounded on purpose: the bulkheads already cap how many calls run at once
+    private final ExecutorService calls;
+
+    public ResilientPaymentGateway(PaymentGateway delegate, PaymentGatewayProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        AtomicInteger count = new AtomicInteger();
+        this.calls = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "payment-gateway-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public Result charge(Payment payment, String idempotencyKey) {
+        // The method comes from the client; anything unknown shares one guard
+        String method = PaymentService.isSupportedMethod(payment.getPaymentMethod())
+            ? payment.getPaymentMethod() : "other";
+        return guards.computeIfAbsent(method, Guard::new).charge(payment, idempotencyKey);
+    }
+
+    CircuitBreaker.State breakerState(String method) {
+        Guard guard = guards.get(method);
+        return guard == null ? CircuitBreaker.State.CLOSED : guard.breaker.getState();
+    }
+
+    private final class Guard {
+
+        private final String method;
+        private final PaymentGatewayProperties.Resilience settings;
+        private final Semaphore bulkhead;
+        private final CircuitBreaker breaker;
+
+        Guard(String method) {
+            this.method = method;
+            this.settings = properties.resilienceFor(method);
+            this.bulkhead = new Semaphore(settings.getMaxConcurrentCalls());
+            this.breaker = new CircuitBreaker(settings.getFailureRateThreshold(), settings.getSlidingWindowSize(),
+                settings.getMinimumCalls(), settings.getOpenDuration(), settings.getHalfOpenCalls());
+            Gauge.builder(ServiceMetrics.GATEWAY_CIRCUIT, breaker, b -> b.getState().ordinal())
+                .description("0 closed, 1 open, 2 half open")
+                .tag("gateway", method)
+                .register(meterRegistry);
+        }
+
+        Result charge(Payment payment, String idempotencyKey) {
+            if (!acquireBulkhead()) {
+                record("bulkhead_full");
+                throw new PaymentGatewayException(BUSY);
+            }
+            if (!breaker.tryAcquire()) {
+                bulkhead.release();
+                record("circuit_open");
+                throw new PaymentGatewayException(UNAVAILABLE);
+            }
+
+            Future<Result> call;
+            try {
+                // The slot is held until the provider call really ends, even after a timeout
+                call = calls.submit(() -> {
+                    try {
+                        return delegate.charge(payment, idempotencyKey);
+                    } finally {
+                        bulkhead.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                bulkhead.release();
+                breaker.onFailure();
+                throw new PaymentGatewayException(UNAVAILABLE, e);
+            }
+
+            try {
+                Result result = call.get(settings.getTimeout().toNanos(), TimeUnit.NANOSECONDS);
+                breaker.onSuccess();
+                record(result.isApproved() ? "approved" : "declined");
+                return result;
+            } catch (TimeoutException e) {
+                call.cancel(true);
+                breaker.onFailure();
+                record("timeout");
+                log.warn("{} charge for payment {} timed out after {}", method, payment.getPaymentId(),
+                    settings.getTimeout());
+                throw new PaymentOutcomeUnknownException(TIMED_OUT, e);
+            } catch (ExecutionException e) {
+                breaker.onFailure();
+                record("error");
+                if (e.getCause() instanceof PaymentGatewayException gatewayError) {
+                    throw gatewayError;
+                }
+                throw new PaymentGatewayException(PaymentProcessor.GATEWAY_ERROR, e.getCause());
+            } catch (InterruptedException e) {
+                // Shutting down; not the provider's fault, so don't count it against the breaker
+                call.cancel(true);
+                breaker.release();
+                Thread.currentThread().interrupt();
+                // The call was already sent, so it may have gone through
+                throw new PaymentOutcomeUnknownException(UNAVAILABLE, e);
+            }
+        }
+
+        private boolean acquireBulkhead() {
+            try {
+                return bulkhead.tryAcquire(settings.getMaxWait().toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private void record(String outcome) {
+            meterRegistry.counter(ServiceMetrics.GATEWAY_CALLS, "gateway", method, "outcome", outcome).increment();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        calls.shutdownNow();
+    }
+}
@@ -0,0 +1,37 @@
+package test1.test1.service;
+
+/**
+ * Meter names recorded by the services, kept together so dashboards and
+ * alerts have one place to look them up.
+ */
+final class ServiceMetrics {
+
+    /** Timer on every public service method, tagged with class and method. */
+    static final String SERVICE_TIMER = "service.method";
+
+    /** Payment attempts and refunds, tagged with method and outcome. */
+    static final String PAYMENTS = "payments.processed";
+
+    /** Booking status changes, tagged with from and to (NEW for creation). */
+    static final String BOOKING_TRANSITIONS = "bookings.transitions";
+
+    /** Booking requests turned down, tagged with reason. */
+    static final String BOOKINGS_REJECTED = "bookings.rejected";
+
+    /** Requests carrying an Idempotency-Key, tagged with outcome (executed, replayed, mismatch, in_progress). */
+    static final String IDEMPOTENT_REQUESTS = "idempotency.requests";
+
+    /**
+     * Payment provider calls, tagged with gateway and outcome (approved, declined, error, timeout,
+     * bulkhead_full, circuit_open).
+     */
+    static final String GATEWAY_CALLS = "payments.gateway.calls";
+
+    /** Circuit breaker state per gateway: 0 closed, 1 open, 2 half open. */
+    static final String GATEWAY_CIRCUIT = "payments.gateway.circuit.state";
+
+    /** Payments handled by batch jobs, tagged with job (REFUND, RECONCILE) and outcome (changed, unchanged, failed). */
+    static final String BATCH_ITEMS = "payments.batch.items";
+
+    private ServiceMetrics() {}
+}
@@ -0,0 +1,120 @@
+package test1.test1.service;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import test1.test1.config.PaymentGatewayProperties;
+import test1.test1.model.Payment;
+
+/**
+ * Stand-in for the real providers, tuned through
+ * {@code app.payments.gateway.simulator.*} so the payment path can be load
+ * tested against realistic behaviour: log-normal latency with a configurable
+ * median and p99, a share of declines, provider errors and calls that hang,
+ * and a per-second rate limit. Unsupported methods are always declined.
+ *
+ * <p>Like a real provider it remembers the outcome of each idempotency key and
+ * answers a repeated charge with it. The outcome is settled before the
+ * simulated latency, so a call abandoned by the caller's timeout still counts
+ * as taken.
+ */
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    static final String DECLINED = "Payment processing failed. Please try again or use another payment method.";
+    static final String RATE_LIMITED = "Payment provider is receiving too many requests. Please try again in a moment.";
+
+    // z-score of the 99th percentile of the standard normal distribution
+    private static final double Z_99 = 2.326;
+
+    private final PaymentGatewayProperties.Simulator settings;
+    private final double mu;
+    private final double sigma;
+
+    // Fixed one-second window: the second it started in and calls made during it
+    private final AtomicLong windowSecond = new AtomicLong();
+    private final AtomicLong windowCalls = new AtomicLong();
+    private final Cache<String, Result> outcomes = Caffeine.newBuilder()
+        .maximumSize(100_000)
+        .expireAfterWrite(Duration.ofHours(24))
+        .build();
+
+    /** Instant answers, declining about 5% of charges. */
+    public SimulatedPaymentGateway() {
+        this(new PaymentGatewayProperties.Simulator());
+    }
+
+    public SimulatedPaymentGateway(PaymentGatewayProperties.Simulator settings) {
+        this.settings = settings;
+        long median = settings.getMedianLatency().toNanos();
+        long p99 = Math.max(median, settings.getP99Latency().toNanos());
+        this.mu = median > 0 ? Math.log(median) : 0;
+        this.sigma = median > 0 && p99 > median ? Math.log((double) p99 / median) / Z_99 : 0;
+    }
+
+    @Override
+    public Result charge(Payment payment, String idempotencyKey) {
+        if (!PaymentService.isSupportedMethod(payment.getPaymentMethod())) {
+            return Result.declined(DECLINED);
+        }
+        if (rateLimited()) {
+            throw new PaymentGatewayException(RATE_LIMITED);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Result previous = outcomes.getIfPresent(idempotencyKey);
+        if (previous != null) {
+            sleep(latencyNanos(random));
+            return previous;
+        }
+        // An error means the provider took nothing, so nothing is remembered
+        boolean error = random.nextDouble() < settings.getErrorRate();
+        Result result = error ? null : outcomes.get(idempotencyKey, key ->
+            random.nextDouble() < settings.getDeclineRate() ? Result.declined(DECLINED) : Result.approved());
+        if (random.nextDouble() < settings.getHangRate()) {
+            sleep(settings.getHangDuration().toNanos());
+        } else {
+            sleep(latencyNanos(random));
+        }
+        if (error) {
+            throw new PaymentGatewayException(PaymentProcessor.GATEWAY_ERROR);
+        }
+        return result;
+    }
+
+    long latencyNanos(ThreadLocalRandom random) {
+        if (mu == 0) {
+            return 0;
+        }
+        return (long) Math.exp(mu + sigma * random.nextGaussian());
+    }
+
+    private boolean rateLimited() {
+        int limit = settings.getRateLimitPerSecond();
+        if (limit <= 0) {
+            return false;
+        }
+        long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        long current = windowSecond.get();
+        if (second != current && windowSecond.compareAndSet(current, second)) {
+            windowCalls.set(0);
+        }
+        return windowCalls.incrementAndGet() > limit;
+    }
+
+    private static void sleep(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            // Cancelled by the caller's timeout
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException(PaymentProcessor.GATEWAY_ERROR, e);
+        }
+    }
+}
@@ -3,8 +3,13 @@ package test1.test1.service;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import test1.test1.config.CacheConfig;
 import test1.test1.model.User;
 import test1.test1.repository.UserRepository;
 import test1.test1.util.PasswordUtil;
@@ -35,14 +40,23 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
+    /**
+     * Cached by id; misses are not cached so a newly created user is found
+     * straight away.
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_ID, unless = "#result == null")
     public Optional<User> getUserById(Integer id) {
         return userRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_USERNAME, unless = "#result == null")
     public Optional<User> findByUsername(String username) {
         return Optional.ofNullable(userRepository.findByUsername(username));
     }
@@ -54,6 +68,11 @@ public class UserService {
         return passwordUtil.matches(rawPassword, user.getPassword());
     }
 
+    // The old username is not known up front, so the whole username cache is dropped
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.USERS_BY_ID, key = "#userId"),
+        @CacheEvict(cacheNames = CacheConfig.USERS_BY_USERNAME, allEntries = true)
+    })
     public User updateUser(Integer userId, String username, String bio) {
         Optional<User> optionalUser = userRepository.findById(userId);
         if (optionalUser.isPresent()) {
@@ -69,6 +88,10 @@ public class UserService {
         return null;
     }
 
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.USERS_BY_ID, key = "#userId"),
+        @CacheEvict(cacheNames = CacheConfig.USERS_BY_USERNAME, allEntries = true)
+    })
     public boolean deleteUser(Integer userId) {
         if (userRepository.existsById(userId)) {
             userRepository.deleteById(userId);
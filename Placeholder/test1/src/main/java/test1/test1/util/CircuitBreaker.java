@@ -0,0 +1,135 @@
+package test1.test1.util;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker. While CLOSED it remembers whether each of the
+ * last {@code windowSize} calls failed; once at least {@code minimumCalls}
+ * have been recorded and the failure rate reaches the threshold it OPENs and
+ * rejects every call for {@code openDuration}. After that it goes HALF_OPEN
+ * and lets {@code halfOpenCalls} trial calls through: if they all succeed it
+ * closes with a fresh window, and the first failure opens it again.
+ *
+ * <p>Every call admitted by {@link #tryAcquire()} must be reported with
+ * exactly one of {@link #onSuccess()}, {@link #onFailure()} or, for a call
+ * that ended without telling anything about the provider, {@link #release()}.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoClock;
+
+    // Ring of recent outcomes, true meaning failed
+    private final boolean[] window;
+    private int next;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialsLeft;
+    private int trialsSucceeded;
+
+    public CircuitBreaker(int failureRateThreshold, int windowSize, int minimumCalls,
+                          Duration openDuration, int halfOpenCalls) {
+        this(failureRateThreshold, windowSize, minimumCalls, openDuration, halfOpenCalls, System::nanoTime);
+    }
+
+    public CircuitBreaker(int failureRateThreshold, int windowSize, int minimumCalls,
+                          Duration openDuration, int halfOpenCalls, LongSupplier nanoClock) {
+        if (windowSize <= 0 || halfOpenCalls <= 0) {
+            throw new IllegalArgumentException("windowSize and halfOpenCalls must be positive");
+        }
+        this.failureRateThreshold = failureRateThreshold;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, windowSize));
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.nanoClock = nanoClock;
+    }
+
+    /** True if the call may go ahead; false while the breaker is open. */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialsLeft = halfOpenCalls;
+            trialsSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsLeft == 0) {
+                return false;
+            }
+            trialsLeft--;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++trialsSucceeded >= halfOpenCalls) {
+                close();
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+        // A late answer to a call admitted before the breaker opened changes nothing
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures * 100L >= (long) failureRateThreshold * recorded) {
+                open();
+            }
+        }
+    }
+
+    /** Hands back the permit of a call that has no outcome, e.g. one interrupted on shutdown. */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN && trialsLeft + trialsSucceeded < halfOpenCalls) {
+            trialsLeft++;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (recorded == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoClock.getAsLong();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+    }
+}
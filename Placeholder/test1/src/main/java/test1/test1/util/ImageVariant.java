@@ -0,0 +1,60 @@
+package test1.test1.util;
+
+/**
+ * Resized copies generated for each uploaded game image. A variant of
+ * {@code /images/game_images/3f/3fa9.png} is stored next to it as
+ * {@code 3f/3fa9-thumb.jpg}, {@code -card.jpg} or {@code -full.jpg}.
+ */
+public enum ImageVariant {
+    THUMB("thumb", 320),
+    CARD("card", 640),
+    FULL("full", 1600);
+
+    public static final String URL_PREFIX = "/images/game_images/";
+    public static final String EXTENSION = ".jpg";
+
+    private final String suffix;
+    private final int maxSize;
+
+    ImageVariant(String suffix, int maxSize) {
+        this.suffix = suffix;
+        this.maxSize = maxSize;
+    }
+
+    /** Longest side in pixels; smaller images are re-encoded but not enlarged. */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public String fileName(String original) {
+        int dot = original.lastIndexOf('.');
+        String base = dot > 0 ? original.substring(0, dot) : original;
+        return base + "-" + suffix + EXTENSION;
+    }
+
+    /**
+     * URL of this variant for an image URL, or null for images that aren't
+     * uploads (external links, data URLs) and so have no variants.
+     */
+    public String urlFor(String imagePath) {
+        if (imagePath == null || !imagePath.startsWith(URL_PREFIX)) {
+            return null;
+        }
+        String name = imagePath.substring(URL_PREFIX.length());
+        // At most the one shard directory of the content-addressed store
+        if (name.isEmpty() || name.contains("..") || name.indexOf('/') != name.lastIndexOf('/')
+                || isVariant(name)) {
+            return null;
+        }
+        return URL_PREFIX + fileName(name);
+    }
+
+    public static boolean isVariant(String fileName) {
+        for (ImageVariant variant : values()) {
+            if (fileName.endsWith("-" + variant.suffix + EXTENSION)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
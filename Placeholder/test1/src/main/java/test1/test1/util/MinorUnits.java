@@ -0,0 +1,40 @@
+package test1.test1.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Locale;
+
+/**
+ * Conversion between amounts and whole numbers of a currency's smallest unit
+ * (cents for USD and EUR, yen for JPY), so sums are exact integer arithmetic.
+ * Codes Java doesn't know are treated as having two decimals.
+ */
+public final class MinorUnits {
+
+    private MinorUnits() {}
+
+    /** Amount in minor units, rounded half-up. */
+    public static long toMinor(double amount, String currency) {
+        return BigDecimal.valueOf(amount)
+            .movePointRight(fractionDigits(currency))
+            .setScale(0, RoundingMode.HALF_UP)
+            .longValueExact();
+    }
+
+    public static BigDecimal toMajor(long minor, String currency) {
+        return BigDecimal.valueOf(minor, fractionDigits(currency));
+    }
+
+    static int fractionDigits(String currency) {
+        if (currency == null) {
+            return 2;
+        }
+        try {
+            int digits = Currency.getInstance(currency.trim().toUpperCase(Locale.ROOT)).getDefaultFractionDigits();
+            return digits < 0 ? 0 : digits; // -1 for pseudo-currencies such as XAU
+        } catch (IllegalArgumentException e) {
+            return 2;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package test1.test1.util;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed pool of locks shared out by key hash. Work on the same key is always
+ * serialized, while different keys usually land on different stripes and run
+ * in parallel, without keeping one lock object per key alive.
+ */
+public class StripedLock {
+
+    private final ReentrantLock[] stripes;
+
+    public StripedLock(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("stripeCount must be positive");
+        }
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock get(Object key) {
+        int hash = key == null ? 0 : key.hashCode();
+        // Spread the bits so sequential ids do not all share low-order stripes
+        hash ^= (hash >>> 16);
+        return stripes[Math.floorMod(hash, stripes.length)];
+    }
+
+    public int size() {
+        return stripes.length;
+    }
+}
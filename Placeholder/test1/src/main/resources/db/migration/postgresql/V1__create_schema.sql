@@ -0,0 +1,73 @@
+-- Baseline schema for the postgres profile. Mirrors the JPA entities; SQLite
+-- installs keep using ddl-auto=update and never run these scripts.
+
+CREATE TABLE users (
+    user_id     INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username    VARCHAR(255) NOT NULL,
+    password    VARCHAR(255),
+    bio         TEXT,
+    role        VARCHAR(255),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE games (
+    game_id               INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title                 VARCHAR(255) NOT NULL,
+    description           VARCHAR(500),
+    price_per_day         DOUBLE PRECISION NOT NULL,
+    condition             VARCHAR(255) NOT NULL,
+    photos                VARCHAR(1000),
+    tags                  VARCHAR(500),
+    delivery_instructions VARCHAR(1000),
+    active                BOOLEAN DEFAULT TRUE NOT NULL,
+    start_date            DATE,
+    end_date              DATE,
+    owner_username        VARCHAR(255),
+    created_at            DATE NOT NULL
+);
+
+-- GameService.getGamesByOwner / the owner dashboard
+CREATE INDEX idx_games_owner_username ON games (owner_username);
+
+CREATE TABLE game_tags (
+    id      INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    game_id INTEGER NOT NULL REFERENCES games (game_id) ON DELETE CASCADE,
+    tag     VARCHAR(100) NOT NULL
+);
+
+CREATE INDEX idx_game_tags_tag_game ON game_tags (tag, game_id);
+CREATE INDEX idx_game_tags_game ON game_tags (game_id);
+
+CREATE TABLE bookings (
+    booking_id  INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id     INTEGER NOT NULL REFERENCES users (user_id),
+    game_id     INTEGER NOT NULL REFERENCES games (game_id),
+    start_date  DATE NOT NULL,
+    end_date    DATE NOT NULL,
+    total_price DOUBLE PRECISION NOT NULL,
+    status      VARCHAR(20) DEFAULT 'PENDING' NOT NULL
+);
+
+-- Overlap checks and availability calendars scan a game's bookings by date
+CREATE INDEX idx_bookings_game_start ON bookings (game_id, start_date);
+CREATE INDEX idx_bookings_user ON bookings (user_id);
+
+CREATE TABLE payments (
+    payment_id     INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    booking_id     INTEGER NOT NULL REFERENCES bookings (booking_id),
+    payment_method VARCHAR(255) NOT NULL,
+    amount         DOUBLE PRECISION NOT NULL,
+    currency       VARCHAR(255) NOT NULL,
+    status         VARCHAR(255) NOT NULL,
+    transaction_id VARCHAR(255) NOT NULL,
+    card_last4     VARCHAR(255),
+    card_brand     VARCHAR(255),
+    paypal_email   VARCHAR(255),
+    created_at     TIMESTAMP(6) NOT NULL,
+    completed_at   TIMESTAMP(6),
+    failure_reason VARCHAR(255)
+);
+
+CREATE UNIQUE INDEX uk_payments_transaction_id ON payments (transaction_id);
+CREATE INDEX idx_payments_booking ON payments (booking_id);
+CREATE INDEX idx_payments_status ON payments (status);
@@ -0,0 +1,2 @@
+-- Optimistic-locking version of each game; the game endpoints derive their ETags from it
+ALTER TABLE games ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,25 @@
+-- Keyset order for payment batch jobs
+CREATE INDEX idx_payments_created_at ON payments (created_at, payment_id);
+
+-- Progress of refund and reconciliation jobs, so a restarted job resumes after its last chunk
+CREATE TABLE batch_checkpoints (
+    job_name        VARCHAR(100) PRIMARY KEY,
+    job_type        VARCHAR(255) NOT NULL,
+    status          VARCHAR(255) NOT NULL,
+    created_from    TIMESTAMP(6) NOT NULL,
+    created_to      TIMESTAMP(6) NOT NULL,
+    reason          VARCHAR(255),
+    last_created_at TIMESTAMP(6) NOT NULL,
+    last_payment_id INTEGER NOT NULL,
+    processed       BIGINT NOT NULL,
+    affected        BIGINT NOT NULL,
+    failed          BIGINT NOT NULL,
+    totals          TEXT,
+    elapsed_millis  BIGINT NOT NULL,
+    error           VARCHAR(255),
+    started_at      TIMESTAMP(6) NOT NULL,
+    updated_at      TIMESTAMP(6) NOT NULL,
+    finished_at     TIMESTAMP(6)
+);
+
+CREATE INDEX idx_batch_checkpoints_status ON batch_checkpoints (status);
@@ -0,0 +1,25 @@
+-- Append-only ledger: one CHARGE per completed payment and one negative REFUND per refund
+CREATE TABLE ledger_entries (
+    entry_id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    payment_id     INTEGER NOT NULL,
+    entry_type     VARCHAR(20) NOT NULL,
+    owner_username VARCHAR(255),
+    currency       VARCHAR(3) NOT NULL,
+    amount_minor   BIGINT NOT NULL,
+    created_at     TIMESTAMP(6) NOT NULL
+);
+
+CREATE UNIQUE INDEX uk_ledger_entries_payment_type ON ledger_entries (payment_id, entry_type);
+CREATE INDEX idx_ledger_entries_owner ON ledger_entries (owner_username);
+
+-- Running balance per account (owner:<username> or platform) and currency
+CREATE TABLE ledger_balances (
+    id            INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    account       VARCHAR(255) NOT NULL,
+    currency      VARCHAR(3) NOT NULL,
+    balance_minor BIGINT NOT NULL,
+    entry_count   BIGINT NOT NULL,
+    updated_at    TIMESTAMP(6) NOT NULL
+);
+
+CREATE UNIQUE INDEX uk_ledger_balances_account_currency ON ledger_balances (account, currency);
@@ -0,0 +1,3 @@
+-- Time of each game's last write; the catalog ETag combines the latest one with
+-- the row count and the sum of versions
+ALTER TABLE games ADD COLUMN updated_at TIMESTAMP(6);
@@ -0,0 +1,5 @@
+-- Instance charging a pending payment and since when; a worker claims the row
+-- with a conditional update before calling the provider, so two instances
+-- never charge the same payment at once
+ALTER TABLE payments ADD COLUMN claimed_by VARCHAR(255);
+ALTER TABLE payments ADD COLUMN claimed_at TIMESTAMP(6);
@@ -144,10 +144,8 @@ class BookingRequestsManager {
             year: 'numeric'
         });
 
-        // Get first photo if available
-        const gamePhoto = booking.game.photos && booking.game.photos.trim() !== ''
-            ? booking.game.photos.split(',')[0].trim()
-            : '/images/placeholder.png';
+        // Cover photo (first listing photo) if available
+        const gamePhoto = booking.game.coverPhoto || '/images/placeholder.png';
 
         // Get first letter of username for avatar
         const avatarLetter = booking.user.username.charAt(0).toUpperCase();
@@ -101,9 +101,14 @@ class GameDetails {
 
     async loadBookings() {
         try {
-            const response = await fetch(`/bookings/game/${this.gameId}`);
+            // Busy ranges come pre-merged from the server instead of every booking row
+            const response = await fetch(`/games/${this.gameId}/availability`);
             if (response.ok) {
-                this.bookings = await response.json();
+                const availability = await response.json();
+                this.bookings = availability.busy.map(range => ({
+                    startDate: range.from,
+                    endDate: range.to
+                }));
             }
         } catch (error) {
             console.error('Error loading bookings:', error);
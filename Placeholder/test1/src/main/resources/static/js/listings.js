@@ -7,6 +7,10 @@ class GameListings {
     constructor() {
         this.currentGames = [];
         this.allGames = [];
+        this.nextCursor = null;
+        this.pageSize = 24;
+        this.requestSeq = 0;
+        this.filterTimer = null;
         this.elements = this.initializeElements();
         this.init();
     }
@@ -44,62 +48,91 @@ class GameListings {
         this.updateSliderVisual();
     }
 
-    async loadGamesFromDatabase() {
+    buildSearchParams() {
+        const params = new URLSearchParams();
+        const searchTerm = this.elements.searchInput?.value.trim() || '';
+        const selectedCategory = this.elements.categoryFilter?.value || '';
+        const selectedPlatform = this.elements.platformFilter?.value || '';
+
+        if (searchTerm) params.set('q', searchTerm);
+        if (selectedCategory) params.set('category', selectedCategory);
+        if (selectedPlatform) params.set('platform', selectedPlatform);
+        params.set('minPrice', this.minPrice);
+        params.set('maxPrice', this.maxPrice);
+        params.set('sort', this.elements.sortFilter?.value || 'newest');
+        params.set('limit', this.pageSize);
+        if (this.nextCursor) params.set('cursor', this.nextCursor);
+        return params;
+    }
+
+    async loadGamesFromDatabase(append = false) {
+        if (!append) {
+            this.nextCursor = null;
+        }
+        const requestId = ++this.requestSeq;
+
         try {
-            const response = await fetch('/games');
+            const response = await fetch(`/games/search?${this.buildSearchParams()}`);
             if (!response.ok) {
                 throw new Error('Failed to fetch games');
             }
-            const games = await response.json();
-
-            // Transform backend Game model to frontend format
-            this.allGames = games.map(game => {
-                // Parse tags to extract platform and category
-                const tags = game.tags ? game.tags.split(',').map(t => t.trim()) : [];
-                const platformTags = ['PlayStation', 'Xbox', 'Nintendo Switch', 'PC'];
-                const categoryTags = ['Action', 'Adventure', 'RPG', 'Sports', 'Shooter', 'Puzzle', 'Horror', 'Platformer'];
-
-                // Find platform from tags
-                let platform = 'pc'; // default
-                const foundPlatform = tags.find(tag => platformTags.includes(tag));
-                if (foundPlatform) {
-                    platform = foundPlatform.toLowerCase().replace(' ', '');
-                    if (foundPlatform === 'Nintendo Switch') platform = 'nintendo';
-                }
-
-                // Find category from tags
-                let category = 'other'; // default
-                const foundCategory = tags.find(tag => categoryTags.includes(tag));
-                if (foundCategory) {
-                    category = foundCategory.toLowerCase();
-                }
-
-                return {
-                    id: game.gameId,
-                    title: game.title,
-                    platform: platform,
-                    category: category,
-                    tags: tags, // Store all tags
-                    description: game.description,
-                    status: game.active ? 'available' : 'rented',
-                    dateAdded: game.createdAt,
-                    price: game.pricePerDay,
-                    photos: game.photos,
-                    owner: {
-                        name: game.ownerUsername || 'Unknown'
-                    }
-                };
-            });
+            const page = await response.json();
+            if (requestId !== this.requestSeq) {
+                return; // a newer filter change superseded this request
+            }
 
+            // Transform backend GameSummary to frontend format
+            const games = page.items.map(game => this.toListing(game));
+            this.allGames = append ? [...this.allGames, ...games] : games;
+            this.nextCursor = page.nextCursor;
             this.currentGames = [...this.allGames];
         } catch (error) {
             console.error('Error loading games:', error);
             // Show empty state if fetch fails
             this.allGames = [];
             this.currentGames = [];
+            this.nextCursor = null;
         }
     }
 
+    toListing(game) {
+        // Parse tags to extract platform and category
+        const tags = game.tags ? game.tags.split(',').map(t => t.trim()) : [];
+        const platformTags = ['PlayStation', 'Xbox', 'Nintendo Switch', 'PC'];
+        const categoryTags = ['Action', 'Adventure', 'RPG', 'Sports', 'Shooter', 'Puzzle', 'Horror', 'Platformer'];
+
+        // Find platform from tags
+        let platform = 'pc'; // default
+        const foundPlatform = tags.find(tag => platformTags.includes(tag));
+        if (foundPlatform) {
+            platform = foundPlatform.toLowerCase().replace(' ', '');
+            if (foundPlatform === 'Nintendo Switch') platform = 'nintendo';
+        }
+
+        // Find category from tags
+        let category = 'other'; // default
+        const foundCategory = tags.find(tag => categoryTags.includes(tag));
+        if (foundCategory) {
+            category = foundCategory.toLowerCase();
+        }
+
+        return {
+            id: game.gameId,
+            title: game.title,
+            platform: platform,
+            category: category,
+            tags: tags, // Store all tags
+            status: game.active ? 'available' : 'rented',
+            dateAdded: game.createdAt,
+            price: game.pricePerDay,
+            photos: game.coverPhoto || '',
+            thumbnail: game.thumbnail || '',
+            owner: {
+                name: game.ownerUsername || 'Unknown'
+            }
+        };
+    }
+
     createSampleGames() {
         this.allGames = [
             {
@@ -411,7 +444,7 @@ class GameListings {
           </div>
           <div class="game-description-full">
             <strong>Description:</strong>
-            <p>${game.description}</p>
+            <p>${game.description || ''}</p>
           </div>
         </div>
         <div class="modal-footer">
@@ -564,8 +597,7 @@ class GameListings {
     }
 
     handleSort(sortBy) {
-        this.sortGames(sortBy);
-        this.renderGames();
+        this.applyFilters();
     }
 
     handleSignOut() {
@@ -575,51 +607,19 @@ class GameListings {
     }
 
     applyFilters() {
-        const searchTerm = this.elements.searchInput?.value.toLowerCase() || '';
-        const selectedCategory = this.elements.categoryFilter?.value || '';
-        const selectedPlatform = this.elements.platformFilter?.value || '';
-        const minPrice = this.minPrice;
-        const maxPrice = this.maxPrice;
-
-        this.currentGames = this.allGames.filter(game => {
-            const matchesSearch = game.title.toLowerCase().includes(searchTerm) ||
-                game.description.toLowerCase().includes(searchTerm) ||
-                game.owner.name.toLowerCase().includes(searchTerm) ||
-                (game.tags && game.tags.some(tag => tag.toLowerCase().includes(searchTerm)));
-
-            const matchesCategory = !selectedCategory || game.category === selectedCategory;
-            const matchesPlatform = !selectedPlatform || game.platform === selectedPlatform;
-
-            // Price range filtering with sliders
-            const matchesPrice = game.price >= minPrice && game.price <= maxPrice;
-
-            return matchesSearch && matchesCategory && matchesPlatform && matchesPrice;
-        });
-
-        // Apply current sort
-        const currentSort = this.elements.sortFilter?.value || 'newest';
-        this.sortGames(currentSort);
-        this.renderGames();
+        // Filtering, sorting and paging happen on the server; debounce so
+        // slider drags and typing do not fire a request per event
+        clearTimeout(this.filterTimer);
+        this.filterTimer = setTimeout(async () => {
+            await this.loadGamesFromDatabase();
+            this.renderGames();
+        }, 250);
     }
 
-    sortGames(sortBy) {
-        switch (sortBy) {
-            case 'newest':
-                this.currentGames.sort((a, b) => new Date(b.dateAdded) - new Date(a.dateAdded));
-                break;
-            case 'oldest':
-                this.currentGames.sort((a, b) => new Date(a.dateAdded) - new Date(b.dateAdded));
-                break;
-            case 'alphabetical':
-                this.currentGames.sort((a, b) => a.title.localeCompare(b.title));
-                break;
-            case 'price-low':
-                this.currentGames.sort((a, b) => a.price - b.price);
-                break;
-            case 'price-high':
-                this.currentGames.sort((a, b) => b.price - a.price);
-                break;
-        }
+    async loadMore() {
+        if (!this.nextCursor) return;
+        await this.loadGamesFromDatabase(true);
+        this.renderGames();
     }
 
     renderGames() {
@@ -628,6 +628,7 @@ class GameListings {
         if (this.currentGames.length === 0) {
             this.elements.listingsGrid.innerHTML = '';
             this.elements.noResults.style.display = 'block';
+            this.renderLoadMore();
             return;
         }
 
@@ -636,6 +637,20 @@ class GameListings {
         this.elements.listingsGrid.innerHTML = this.currentGames
             .map(game => this.createGameCard(game))
             .join('');
+        this.renderLoadMore();
+    }
+
+    renderLoadMore() {
+        let button = document.getElementById('load-more-btn');
+        if (!button) {
+            button = document.createElement('button');
+            button.id = 'load-more-btn';
+            button.className = 'load-more-btn';
+            button.textContent = 'Load more';
+            button.addEventListener('click', () => this.loadMore());
+            this.elements.listingsGrid.insertAdjacentElement('afterend', button);
+        }
+        button.style.display = this.nextCursor ? 'block' : 'none';
     }
 
     createGameCard(game) {
@@ -655,7 +670,10 @@ class GameListings {
         if (game.photos && game.photos.trim() !== '') {
             const firstPhoto = game.photos.split(',')[0].trim();
             if (firstPhoto) {
-                imageHtml = `<img src="${firstPhoto}" alt="${game.title}" onerror="this.style.display='none'; this.nextElementSibling.style.display='flex';">`;
+                // The thumbnail is generated after upload; fall back to the original until it exists
+                const src = game.thumbnail || firstPhoto;
+                const fallback = game.thumbnail ? firstPhoto : '';
+                imageHtml = `<img src="${src}" data-fallback="${fallback}" alt="${game.title}" loading="lazy" onerror="if (this.dataset.fallback) { this.src = this.dataset.fallback; this.dataset.fallback = ''; } else { this.style.display='none'; this.nextElementSibling.style.display='flex'; }">`;
             }
         }
 
@@ -353,6 +353,14 @@ class PaymentProcessor {
 
             const result = await response.json();
 
+            // 202: the payment is charged in the background; wait for its final status
+            if (result.status === 'PENDING') {
+                const outcome = await this.waitForPayment(result);
+                if (outcome.status !== 'COMPLETED') {
+                    throw new Error(outcome.failureReason || 'Payment failed');
+                }
+            }
+
             // Show success message
             this.showPaymentSuccess(`Payment of $${this.currentBookingData.totalPrice.toFixed(2)} processed successfully! Booking confirmed.`);
 
@@ -373,6 +381,58 @@ class PaymentProcessor {
         }
     }
 
+    /**
+     * Resolve with { status, failureReason } once a pending payment finishes.
+     * Listens on the event stream and falls back to polling if it drops.
+     */
+    waitForPayment(accepted) {
+        return new Promise((resolve, reject) => {
+            let finished = false;
+            const finish = (outcome) => {
+                if (!finished) {
+                    finished = true;
+                    resolve(outcome);
+                }
+            };
+
+            const poll = async (attempt) => {
+                if (finished) return;
+                if (attempt >= 30) {
+                    finished = true;
+                    reject(new Error('Payment is still processing. Check your bookings shortly.'));
+                    return;
+                }
+                try {
+                    const response = await fetch(accepted.statusUrl);
+                    if (response.ok) {
+                        const payment = await response.json();
+                        if (payment.status !== 'PENDING') {
+                            finish({ status: payment.status, failureReason: payment.failureReason });
+                            return;
+                        }
+                    }
+                } catch (error) {
+                    console.warn('Payment status check failed:', error);
+                }
+                setTimeout(() => poll(attempt + 1), 1000);
+            };
+
+            if (!window.EventSource) {
+                poll(0);
+                return;
+            }
+            const events = new EventSource(accepted.eventsUrl);
+            events.addEventListener('status', (event) => {
+                events.close();
+                finish(JSON.parse(event.data));
+            });
+            events.onerror = () => {
+                events.close();
+                poll(0);
+            };
+        });
+    }
+
     /**
      * Show payment loading state
      */
@@ -170,10 +170,8 @@ class PurchaseHistoryManager {
             year: 'numeric'
         });
 
-        // Get first photo if available
-        const gamePhoto = booking.game.photos && booking.game.photos.trim() !== ''
-            ? booking.game.photos.split(',')[0].trim()
-            : '/images/placeholder.png';
+        // Cover photo (first listing photo) if available
+        const gamePhoto = booking.game.coverPhoto || '/images/placeholder.png';
 
         // Get first letter of owner username for avatar
         const ownerLetter = booking.game.ownerUsername ? booking.game.ownerUsername.charAt(0).toUpperCase() : 'O';
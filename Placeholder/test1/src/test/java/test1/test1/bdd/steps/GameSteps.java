@@ -15,15 +15,19 @@ import test1.test1.bdd.World;
 import test1.test1.controller.GameController;
 import test1.test1.dto.GameRequest;
 import test1.test1.model.Game;
+import test1.test1.service.AvailabilityService;
 import test1.test1.service.GameService;
+import test1.test1.service.GameVersions;
 import test1.test1.service.UserService;
 
 public class GameSteps {
 
     private final GameService gameService = Mockito.mock(GameService.class);
     private final UserService userService = Mockito.mock(UserService.class);
+    private final AvailabilityService availabilityService = Mockito.mock(AvailabilityService.class);
     private final HttpSession session = Mockito.mock(HttpSession.class);
-    private final GameController controller = new GameController(gameService, userService);
+    private final GameController controller = new GameController(gameService, userService, availabilityService,
+            Mockito.mock(GameVersions.class));
 
     private Integer currentGameId;
     private String currentOwner;
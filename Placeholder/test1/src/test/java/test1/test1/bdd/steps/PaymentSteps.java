@@ -16,11 +16,13 @@ import org.mockito.Mockito;
 import org.springframework.http.ResponseEntity;
 import test1.test1.bdd.World;
 import test1.test1.controller.PaymentController;
+import test1.test1.controller.PaymentEventStream;
 import test1.test1.model.Booking;
 import test1.test1.model.Game;
 import test1.test1.model.Payment;
 import test1.test1.model.User;
 import test1.test1.service.BookingService;
+import test1.test1.service.IdempotencyService;
 import test1.test1.service.PaymentService;
 import test1.test1.service.UserService;
 
@@ -30,7 +32,8 @@ public class PaymentSteps {
     private final BookingService bookingService = Mockito.mock(BookingService.class);
     private final UserService userService = Mockito.mock(UserService.class);
 
-    private final PaymentController controller = new PaymentController(paymentService, bookingService, userService);
+    private final PaymentController controller = new PaymentController(paymentService, bookingService, userService,
+        Mockito.mock(IdempotencyService.class), new PaymentEventStream());
 
     private Integer currentBookingId;
     private String expectedOutcome;
@@ -62,8 +65,8 @@ public class PaymentSteps {
             Booking b = new Booking(null, null, LocalDate.now(), LocalDate.now(), 0.0);
             b.setBookingId(currentBookingId);
             Payment p = new Payment(b, method, inv.getArgument(2), inv.getArgument(3));
-            if ("COMPLETED".equalsIgnoreCase(outcome)) {
-                p.setStatus("COMPLETED");
+            if ("COMPLETED".equalsIgnoreCase(outcome) || "PENDING".equalsIgnoreCase(outcome)) {
+                p.setStatus(outcome.toUpperCase());
             } else {
                 p.setStatus("FAILED");
                 p.setFailureReason("Unsupported method");
@@ -95,7 +98,7 @@ public class PaymentSteps {
             body.put("card", card);
         }
 
-        World.lastResponse = controller.processPayment(body);
+        World.lastResponse = controller.processPayment(null, body);
     }
 
     @Then("the response status should be {int}")
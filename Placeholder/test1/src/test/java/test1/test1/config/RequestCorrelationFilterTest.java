@@ -0,0 +1,70 @@
+package test1.test1.config;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.FilterChain;
+
+class RequestCorrelationFilterTest {
+
+    private final RequestCorrelationFilter filter = new RequestCorrelationFilter();
+
+    @Test
+    void generatesIdWhenHeaderMissing() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> seen = new AtomicReference<>();
+        FilterChain chain = (req, res) -> seen.set(MDC.get(RequestCorrelationFilter.MDC_KEY));
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/games"), response, chain);
+
+        assertThat(seen.get()).isNotBlank();
+        assertThat(response.getHeader(RequestCorrelationFilter.HEADER)).isEqualTo(seen.get());
+        assertThat(MDC.get(RequestCorrelationFilter.MDC_KEY)).isNull();
+    }
+
+    @Test
+    void reusesWellFormedCallerId() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/games");
+        request.addHeader(RequestCorrelationFilter.HEADER, "abc-123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        filter.doFilter(request, response, (req, res) -> seen.set(MDC.get(RequestCorrelationFilter.MDC_KEY)));
+
+        assertThat(seen.get()).isEqualTo("abc-123");
+        assertThat(response.getHeader(RequestCorrelationFilter.HEADER)).isEqualTo("abc-123");
+    }
+
+    @Test
+    void replacesMalformedCallerId() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/games");
+        request.addHeader(RequestCorrelationFilter.HEADER, "bad id\nwith newline");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> { });
+
+        assertThat(response.getHeader(RequestCorrelationFilter.HEADER))
+                .isNotEqualTo("bad id\nwith newline")
+                .matches("[0-9a-f-]{36}");
+    }
+
+    @Test
+    void clearsMdcWhenChainThrows() {
+        FilterChain failing = (req, res) -> {
+            throw new IllegalStateException("boom");
+        };
+
+        try {
+            filter.doFilter(new MockHttpServletRequest("GET", "/games"), new MockHttpServletResponse(), failing);
+        } catch (Exception expected) {
+            // propagated as-is
+        }
+
+        assertThat(MDC.get(RequestCorrelationFilter.MDC_KEY)).isNull();
+    }
+}
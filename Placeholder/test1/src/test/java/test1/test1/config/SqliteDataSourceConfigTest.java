@@ -0,0 +1,55 @@
+package test1.test1.config;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.sqlite.SQLiteDataSource;
+
+class SqliteDataSourceConfigTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void untypedPrimaryKeyIsRebuiltWithRowidsAsIds() {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + dir.resolve("old.sqlite"));
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        // As created by Hibernate when another integer column came first
+        jdbc.execute("create table payments (booking_id integer not null, payment_id, status varchar(255),"
+                + " primary key (payment_id))");
+        jdbc.execute("create index idx_payments_status on payments (status)");
+        jdbc.execute("insert into payments (booking_id, status) values (7, 'COMPLETED'), (8, 'FAILED')");
+        assertThat(jdbc.queryForObject("select count(payment_id) from payments", Integer.class)).isZero();
+
+        SqliteDataSourceConfig.repairUntypedPrimaryKeys(dataSource);
+
+        assertThat(jdbc.queryForList("select payment_id from payments order by booking_id", Integer.class))
+            .containsExactly(1, 2);
+        assertThat(jdbc.queryForObject("select type from pragma_table_info('payments') where pk = 1", String.class))
+            .isEqualToIgnoringCase("integer");
+        assertThat(jdbc.queryForList("select name from sqlite_master where type = 'index' and sql is not null",
+            String.class)).isEqualTo(List.of("idx_payments_status"));
+        jdbc.update("insert into payments (booking_id, status) values (9, 'PENDING')");
+        assertThat(jdbc.queryForObject("select payment_id from payments where booking_id = 9", Integer.class))
+            .isEqualTo(3);
+    }
+
+    @Test
+    void typedPrimaryKeysAreLeftAlone() {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + dir.resolve("new.sqlite"));
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        String create = "CREATE TABLE games (game_id integer, title varchar(255), primary key (game_id))";
+        jdbc.execute(create);
+
+        SqliteDataSourceConfig.repairUntypedPrimaryKeys(dataSource);
+
+        assertThat(jdbc.queryForObject("select sql from sqlite_master where name = 'games'", String.class))
+            .isEqualTo(create);
+    }
+}
@@ -12,6 +12,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import test1.test1.dto.BookingSummary;
 import test1.test1.model.Booking;
 import test1.test1.model.User;
 import test1.test1.service.BookingService;
@@ -195,18 +196,30 @@ class BookingControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(org.springframework.http.HttpStatus.BAD_REQUEST);
     }
 
+    private static BookingSummary summary(int bookingId) {
+        return new BookingSummary(bookingId, java.time.LocalDate.now(), java.time.LocalDate.now().plusDays(1), 50.0,
+            "PENDING", 5, "Chess", 25.0, "/images/a.png,/images/b.png", "ownerUser", 7, "renter");
+    }
+
     @Test
     void getAllBookings_delegates() {
         bookingController.getAllBookings();
-        verify(bookingService).getAllBookings();
+        verify(bookingService).getBookingSummaries();
+    }
+
+    @Test
+    void bookingSummary_exposesOnlyListFields() {
+        BookingSummary summary = summary(1);
+
+        assertThat(summary.getGame().getCoverPhoto()).isEqualTo("/images/a.png");
+        assertThat(summary.getGame().getOwnerUsername()).isEqualTo("ownerUser");
+        assertThat(summary.getUser().getUsername()).isEqualTo("renter");
     }
 
     @Test
     void getBookingsByGame_success() {
-        List<Booking> bookings = List.of(
-            new Booking(null, null, java.time.LocalDate.now(), java.time.LocalDate.now().plusDays(1), 50.0)
-        );
-        when(bookingService.getBookingsByGame(5)).thenReturn(bookings);
+        List<BookingSummary> bookings = List.of(summary(1));
+        when(bookingService.getBookingSummariesByGame(5)).thenReturn(bookings);
 
         org.springframework.http.ResponseEntity<?> response = bookingController.getBookingsByGame(5);
 
@@ -216,7 +229,7 @@ class BookingControllerTest {
 
     @Test
     void getBookingsByGame_exception() {
-        when(bookingService.getBookingsByGame(5)).thenThrow(new RuntimeException("DB error"));
+        when(bookingService.getBookingSummariesByGame(5)).thenThrow(new RuntimeException("DB error"));
 
         org.springframework.http.ResponseEntity<?> response = bookingController.getBookingsByGame(5);
 
@@ -225,10 +238,8 @@ class BookingControllerTest {
 
     @Test
     void getBookingsByUser_success() {
-        List<Booking> bookings = List.of(
-            new Booking(null, null, java.time.LocalDate.now(), java.time.LocalDate.now().plusDays(2), 100.0)
-        );
-        when(bookingService.getBookingsByUser(7)).thenReturn(bookings);
+        List<BookingSummary> bookings = List.of(summary(2));
+        when(bookingService.getBookingSummariesByUser(7)).thenReturn(bookings);
 
         org.springframework.http.ResponseEntity<?> response = bookingController.getBookingsByUser(7);
 
@@ -238,7 +249,7 @@ class BookingControllerTest {
 
     @Test
     void getBookingsByUser_exception() {
-        when(bookingService.getBookingsByUser(7)).thenThrow(new RuntimeException("DB error"));
+        when(bookingService.getBookingSummariesByUser(7)).thenThrow(new RuntimeException("DB error"));
 
         org.springframework.http.ResponseEntity<?> response = bookingController.getBookingsByUser(7);
 
@@ -281,10 +292,10 @@ class BookingControllerTest {
 
     @Test
     void getBookingsByOwner_success() {
-        List<Booking> bookings = List.of(new Booking());
-        when(bookingService.getBookingsByOwner("ownerUser")).thenReturn(bookings);
+        List<BookingSummary> bookings = List.of(summary(3));
+        when(bookingService.getBookingSummariesByOwner("ownerUser")).thenReturn(bookings);
 
-        org.springframework.http.ResponseEntity<List<Booking>> response = bookingController.getBookingsByOwner("ownerUser");
+        org.springframework.http.ResponseEntity<List<BookingSummary>> response = bookingController.getBookingsByOwner("ownerUser");
 
         assertThat(response.getStatusCode()).isEqualTo(org.springframework.http.HttpStatus.OK);
         assertThat(response.getBody()).isEqualTo(bookings);
@@ -292,9 +303,9 @@ class BookingControllerTest {
 
     @Test
     void getBookingsByOwner_exception() {
-        when(bookingService.getBookingsByOwner("ownerUser")).thenThrow(new RuntimeException("Service failure"));
+        when(bookingService.getBookingSummariesByOwner("ownerUser")).thenThrow(new RuntimeException("Service failure"));
 
-        org.springframework.http.ResponseEntity<List<Booking>> response = bookingController.getBookingsByOwner("ownerUser");
+        org.springframework.http.ResponseEntity<List<BookingSummary>> response = bookingController.getBookingsByOwner("ownerUser");
 
         assertThat(response.getStatusCode()).isEqualTo(org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR);
         assertThat(response.getBody()).isNull();
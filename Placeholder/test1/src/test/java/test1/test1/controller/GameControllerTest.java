@@ -1,9 +1,11 @@
 package test1.test1.controller;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
@@ -12,17 +14,33 @@ import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.nullable;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.servlet.http.HttpSession;
+import test1.test1.dto.CatalogCursor;
+import test1.test1.dto.CatalogStamp;
+import test1.test1.dto.CursorPage;
 import test1.test1.dto.GameRequest;
+import test1.test1.dto.GameSearchCriteria;
+import test1.test1.dto.GameSummary;
+import test1.test1.dto.AvailabilityResponse;
 import test1.test1.model.Game;
+import test1.test1.repository.GameRepository;
+import test1.test1.service.AvailabilityService;
 import test1.test1.service.GameService;
+import test1.test1.service.GameVersions;
 import test1.test1.service.UserService;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,12 +52,24 @@ class GameControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private AvailabilityService availabilityService;
+
     @Mock
     private HttpSession session;
 
-    @InjectMocks
+    @Mock
+    private GameRepository gameRepository;
+
     private GameController gameController;
 
+    @BeforeEach
+    void setup() {
+        lenient().when(gameRepository.catalogStamp()).thenReturn(new CatalogStamp(2L, 5L, null));
+        GameVersions gameVersions = new GameVersions(gameRepository, new ConcurrentMapCacheManager());
+        gameController = new GameController(gameService, userService, availabilityService, gameVersions);
+    }
+
     @Test
     void createGame_delegatesToService() {
         Game g = new Game("Chess 2", "A strategic board game, again", 5.5);
@@ -64,12 +94,167 @@ class GameControllerTest {
         verify(gameService).addGame(anyString(), anyString(), anyDouble(), anyString(), anyString(), anyString(), anyBoolean(), any(), any(), anyString());
     }
 
+    private static WebRequest webRequest(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/games");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
     @Test
     void getAllGames_delegates() {
-        gameController.getAllGames();
+        gameController.getAllGames(webRequest(null));
         verify(gameService).getAllGames();
     }
 
+    @Test
+    void getAllGames_catalogTagMovesOnWrite() {
+        String before = gameController.getAllGames(webRequest(null)).getHeaders().getETag();
+        assertThat(gameController.getAllGames(webRequest(before)).getStatusCode().value()).isEqualTo(304);
+
+        // Another instance edits a game: its version goes up in the table
+        when(gameRepository.catalogStamp()).thenReturn(new CatalogStamp(2L, 6L, LocalDateTime.now()));
+
+        ResponseEntity<List<Game>> result = gameController.getAllGames(webRequest(before));
+        assertThat(result.getStatusCode().value()).isEqualTo(200);
+        assertThat(result.getHeaders().getETag()).isNotEqualTo(before);
+    }
+
+    @Test
+    void getGameById_sendsStrongETagFromVersion() {
+        Game g = new Game("Halo", "desc", 3.0);
+        g.setGameId(5);
+        g.setVersion(3);
+        when(gameRepository.findVersionById(5)).thenReturn(3L);
+        when(gameService.getGameById(5)).thenReturn(Optional.of(g));
+
+        ResponseEntity<Game> result = gameController.getGameById(5, webRequest(null));
+
+        assertThat(result.getStatusCode().value()).isEqualTo(200);
+        assertThat(result.getHeaders().getETag()).isEqualTo("\"game-5-3\"");
+        assertThat(result.getHeaders().getCacheControl()).isEqualTo("no-cache");
+    }
+
+    @Test
+    void getGameById_storedVersionAnswers304WithoutLoading() {
+        when(gameRepository.findVersionById(5)).thenReturn(3L);
+
+        ResponseEntity<Game> result = gameController.getGameById(5, webRequest("\"game-5-3\""));
+
+        assertThat(result.getStatusCode().value()).isEqualTo(304);
+        verifyNoInteractions(gameService);
+    }
+
+    @Test
+    void getGameById_oldTagGets200AfterAnotherInstanceWrote() {
+        Game cached = new Game("Halo", "desc", 3.0);
+        cached.setGameId(5);
+        cached.setVersion(3);
+        Game stored = new Game("Halo 2", "desc", 3.0);
+        stored.setGameId(5);
+        stored.setVersion(4);
+        when(gameRepository.findVersionById(5)).thenReturn(4L);
+        when(gameService.getGameById(5)).thenReturn(Optional.of(cached));
+        when(gameService.reloadGame(5)).thenReturn(stored);
+
+        ResponseEntity<Game> result = gameController.getGameById(5, webRequest("\"game-5-3\""));
+
+        assertThat(result.getStatusCode().value()).isEqualTo(200);
+        assertThat(result.getBody()).isSameAs(stored);
+        assertThat(result.getHeaders().getETag()).isEqualTo("\"game-5-4\"");
+    }
+
+    @Test
+    void getGameById_unknownGameReturnsNotFound() {
+        when(gameRepository.findVersionById(9)).thenReturn(null);
+
+        ResponseEntity<Game> result = gameController.getGameById(9, webRequest(null));
+
+        assertThat(result.getStatusCode().value()).isEqualTo(404);
+        verifyNoInteractions(gameService);
+    }
+
+    @Test
+    void searchGames_buildsCriteriaAndDelegates() {
+        GameSummary summary = new GameSummary(1, "Halo", 3.5, "good", "Xbox,Shooter", "/a.png,/b.png", true, "john", null);
+        when(gameService.searchGames(any(GameSearchCriteria.class)))
+            .thenReturn(new CursorPage<>(List.of(summary), null));
+
+        String cursor = new CatalogCursor(GameSearchCriteria.Sort.PRICE_LOW, 3.0, 7).encode();
+        ResponseEntity<CursorPage<GameSummary>> result = gameController.searchGames(
+            "halo", "xbox", "shooter", List.of("Multiplayer"), null, 1.0, 10.0, true, "2025-12-01", null, "price-low", cursor, 10,
+            webRequest(null));
+
+        assertThat(result.getStatusCode().value()).isEqualTo(200);
+        assertThat(result.getBody().getItems()).hasSize(1);
+        assertThat(result.getBody().getItems().get(0).getCoverPhoto()).isEqualTo("/a.png");
+        assertThat(result.getBody().isHasMore()).isFalse();
+
+        ArgumentCaptor<GameSearchCriteria> captor = ArgumentCaptor.forClass(GameSearchCriteria.class);
+        verify(gameService).searchGames(captor.capture());
+        GameSearchCriteria criteria = captor.getValue();
+        assertThat(criteria.getPlatformTag()).isEqualTo("Xbox");
+        assertThat(criteria.getTags()).containsExactly("Multiplayer");
+        assertThat(criteria.getSort()).isEqualTo(GameSearchCriteria.Sort.PRICE_LOW);
+        assertThat(criteria.getCursor().getGameId()).isEqualTo(7);
+        assertThat(criteria.getAvailableFrom()).hasToString("2025-12-01");
+        assertThat(criteria.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void searchGames_cursorFromAnotherSortReturnsBadRequest() {
+        String cursor = new CatalogCursor(GameSearchCriteria.Sort.ALPHABETICAL, "Halo", 7).encode();
+
+        ResponseEntity<CursorPage<GameSummary>> result = gameController.searchGames(
+            null, null, null, null, null, null, null, null, null, null, "price-high", cursor, null, webRequest(null));
+
+        assertThat(result.getStatusCode().value()).isEqualTo(400);
+        verifyNoInteractions(gameService);
+    }
+
+    @Test
+    void searchGames_invalidCursorReturnsBadRequest() {
+        ResponseEntity<CursorPage<GameSummary>> result = gameController.searchGames(
+            null, null, null, null, null, null, null, null, null, null, null, "%%%", null, webRequest(null));
+
+        assertThat(result.getStatusCode().value()).isEqualTo(400);
+        verifyNoInteractions(gameService);
+    }
+
+    @Test
+    void getAvailability_returnsRangesForGame() {
+        Game g = new Game("Halo", "desc", 3.0);
+        g.setGameId(4);
+        java.time.LocalDate from = java.time.LocalDate.of(2025, 12, 1);
+        java.time.LocalDate to = java.time.LocalDate.of(2025, 12, 31);
+        AvailabilityResponse availability = new AvailabilityResponse(4, from, to, List.of(), List.of());
+        when(gameService.getGame(4)).thenReturn(g);
+        when(availabilityService.getAvailability(g, from, to)).thenReturn(availability);
+
+        ResponseEntity<AvailabilityResponse> result = gameController.getAvailability(4, "2025-12-01", "2025-12-31");
+
+        assertThat(result.getStatusCode().value()).isEqualTo(200);
+        assertThat(result.getBody()).isSameAs(availability);
+    }
+
+    @Test
+    void getAvailability_unknownGameReturnsNotFound() {
+        when(gameService.getGame(99)).thenReturn(null);
+
+        ResponseEntity<AvailabilityResponse> result = gameController.getAvailability(99, null, null);
+
+        assertThat(result.getStatusCode().value()).isEqualTo(404);
+    }
+
+    @Test
+    void getAvailability_rejectsInvertedWindow() {
+        ResponseEntity<AvailabilityResponse> result = gameController.getAvailability(4, "2025-12-31", "2025-12-01");
+
+        assertThat(result.getStatusCode().value()).isEqualTo(400);
+        verifyNoInteractions(availabilityService);
+    }
+
     @Test
     void getGamesByOwner_returnsGames() {
         Game g1 = new Game("Game 1", "Description 1", 10.0);
@@ -79,7 +264,7 @@ class GameControllerTest {
         
         when(gameService.getGamesByOwner("john")).thenReturn(List.of(g1, g2));
 
-        ResponseEntity<List<Game>> result = gameController.getGamesByOwner("john");
+        ResponseEntity<List<Game>> result = gameController.getGamesByOwner("john", webRequest(null));
 
         assertThat(result.getStatusCode().value()).isEqualTo(200);
         assertThat(result.getBody()).isNotNull();
@@ -93,7 +278,7 @@ class GameControllerTest {
     void getGamesByOwner_returnsEmptyList() {
         when(gameService.getGamesByOwner("unknown")).thenReturn(List.of());
 
-        ResponseEntity<List<Game>> result = gameController.getGamesByOwner("unknown");
+        ResponseEntity<List<Game>> result = gameController.getGamesByOwner("unknown", webRequest(null));
 
         assertThat(result.getStatusCode().value()).isEqualTo(200);
         assertThat(result.getBody()).isNotNull();
@@ -1,99 +1,44 @@
 package test1.test1.controller;
 
-import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockMultipartFile;
 
+import test1.test1.service.ImageStorageService;
+import test1.test1.service.ImageVariantService;
+
 @ExtendWith(MockitoExtension.class)
 public class ImageUploadControllerTest {
-    
-
-    @Test
-    void testIsValidImageType() throws Exception {
-        String content1 = null;
-        String content2 = "image/acoolgame.png";
 
-        ImageUploadController controller = new ImageUploadController();
+    @TempDir
+    Path storageRoot;
 
-        java.lang.reflect.Method method = ImageUploadController.class.getDeclaredMethod(
-            "isValidImageType",
-            String.class
-        );
-        method.setAccessible(true);
+    @Mock
+    private ImageVariantService imageVariantService;
 
-        Boolean result1 = (Boolean) method.invoke(controller, content1);
-        Boolean result2 = (Boolean) method.invoke(controller, content2);
-
-        assertFalse(result1);
-        assertTrue(result2);
-    }
-
-    @Test
-    void testIsValidImageType_withJpeg() throws Exception {
-        ImageUploadController controller = new ImageUploadController();
-
-        java.lang.reflect.Method method = ImageUploadController.class.getDeclaredMethod(
-            "isValidImageType",
-            String.class
-        );
-        method.setAccessible(true);
-
-        Boolean result = (Boolean) method.invoke(controller, "image/jpeg");
-
-        assertTrue(result);
-    }
-
-    @Test
-    void testIsValidImageType_withInvalidType() throws Exception {
-        ImageUploadController controller = new ImageUploadController();
-
-        java.lang.reflect.Method method = ImageUploadController.class.getDeclaredMethod(
-            "isValidImageType",
-            String.class
-        );
-        method.setAccessible(true);
-
-        Boolean result = (Boolean) method.invoke(controller, "application/pdf");
-
-        assertFalse(result);
-    }
-
-    @Test 
-    void testGenerateUniqueFilename() throws NoSuchMethodException, SecurityException, IllegalAccessException, InvocationTargetException{
-        ImageUploadController controller = new ImageUploadController();
-
-        java.lang.reflect.Method method = ImageUploadController.class.getDeclaredMethod(
-            "generateUniqueFilename",
-            String.class
-        );
-        method.setAccessible(true);
-
-        String result1 = (String)method.invoke(controller,"photo.png");
-        String result2 = (String)method.invoke(controller,"image.jpg");
-        String result3 = (String)method.invoke(controller,(String)null);
-
-        assertTrue(result1.endsWith(".png"));
-        assertTrue(result2.endsWith(".jpg"));
-        assertTrue(result3.endsWith(".png"));
-
-        assertNotEquals(result1, result2); 
+    private ImageUploadController controller;
 
+    @BeforeEach
+    void setup() {
+        controller = new ImageUploadController(new ImageStorageService(storageRoot.toString()), imageVariantService);
     }
 
     @Test
     void testUploadImageEmptyFile() {
-        ImageUploadController controller = new ImageUploadController();
-
         MockMultipartFile emptyFile = new MockMultipartFile(
             "file",
             "",
@@ -109,8 +54,6 @@ public class ImageUploadControllerTest {
 
     @Test
     void testUploadImage_withValidPngFile() {
-        ImageUploadController controller = new ImageUploadController();
-
         byte[] fileContent = new byte[]{(byte) 0x89, 0x50, 0x4E, 0x47}; // PNG header
         MockMultipartFile validFile = new MockMultipartFile(
             "file",
@@ -129,8 +72,6 @@ public class ImageUploadControllerTest {
 
     @Test
     void testUploadImage_withValidJpegFile() {
-        ImageUploadController controller = new ImageUploadController();
-
         byte[] fileContent = new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}; // JPEG header
         MockMultipartFile validFile = new MockMultipartFile(
             "file",
@@ -148,8 +89,6 @@ public class ImageUploadControllerTest {
 
     @Test
     void testUploadImage_withInvalidContentType() {
-        ImageUploadController controller = new ImageUploadController();
-
         MockMultipartFile invalidFile = new MockMultipartFile(
             "file",
             "test.pdf",
@@ -164,9 +103,40 @@ public class ImageUploadControllerTest {
     }
 
     @Test
-    void testUploadImage_withNoExtension() {
-        ImageUploadController controller = new ImageUploadController();
+    void testUploadImage_ignoresClaimedContentType() {
+        MockMultipartFile disguised = new MockMultipartFile(
+            "file",
+            "photo.png",
+            "image/png",
+            new byte[]{0x25, 0x50, 0x44, 0x46} // PDF header
+        );
 
+        ResponseEntity<java.util.Map<String,String>> response = controller.uploadImage(disguised);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Invalid file type. Only images are allowed", response.getBody().get("error"));
+    }
+
+    @Test
+    void testUploadImage_writesFileUnderStorageRoot() throws Exception {
+        byte[] fileContent = new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 0x01, 0x02}; // JPEG header
+        MockMultipartFile validFile = new MockMultipartFile("file", "photo.png", "image/png", fileContent);
+
+        ResponseEntity<java.util.Map<String,String>> response = controller.uploadImage(validFile);
+
+        String filename = response.getBody().get("filename");
+        assertTrue(filename.endsWith(".jpg")); // type comes from the bytes, not the name
+        assertEquals("/images/game_images/" + filename, response.getBody().get("imagePath"));
+        assertEquals("/images/game_images/" + filename.replace(".jpg", "-thumb.jpg"), response.getBody().get("thumbnailPath"));
+        verify(imageVariantService).submit(filename);
+        assertArrayEquals(fileContent, Files.readAllBytes(storageRoot.resolve(filename)));
+        try (var files = Files.list(storageRoot)) {
+            assertEquals(1, files.count()); // just the shard directory, no temp file left behind
+        }
+    }
+
+    @Test
+    void testUploadImage_withNoExtension() {
         byte[] fileContent = new byte[]{(byte) 0x89, 0x50, 0x4E, 0x47}; // PNG header
         MockMultipartFile validFile = new MockMultipartFile(
             "file",
@@ -185,8 +155,6 @@ public class ImageUploadControllerTest {
 
     @Test
     void testCreateErrorResponse() throws Exception {
-        ImageUploadController controller = new ImageUploadController();
-
         java.lang.reflect.Method method = ImageUploadController.class.getDeclaredMethod(
             "createErrorResponse",
             String.class
@@ -201,8 +169,6 @@ public class ImageUploadControllerTest {
 
     @Test
     void testCreateErrorResponse_withEmptyMessage() throws Exception {
-        ImageUploadController controller = new ImageUploadController();
-
         java.lang.reflect.Method method = ImageUploadController.class.getDeclaredMethod(
             "createErrorResponse",
             String.class
@@ -0,0 +1,63 @@
+package test1.test1.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import test1.test1.model.LedgerBalance;
+import test1.test1.service.LedgerService;
+
+@ExtendWith(MockitoExtension.class)
+public class LedgerControllerTest {
+
+    @Mock
+    private LedgerService ledgerService;
+
+    private LedgerController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new LedgerController(ledgerService);
+    }
+
+    @Test
+    void testOwnerBalances() {
+        LedgerBalance usd = new LedgerBalance();
+        usd.setAccount(LedgerBalance.ownerAccount("alice"));
+        when(ledgerService.getOwnerBalances("alice")).thenReturn(List.of(usd));
+
+        ResponseEntity<?> response = controller.getOwnerBalances("alice");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(usd), response.getBody());
+    }
+
+    @Test
+    void testOwnerWithoutEarningsGetsEmptyList() {
+        when(ledgerService.getOwnerBalances("bob")).thenReturn(List.of());
+
+        ResponseEntity<?> response = controller.getOwnerBalances("bob");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(), response.getBody());
+    }
+
+    @Test
+    void testPlatformBalancesError() {
+        when(ledgerService.getPlatformBalances()).thenThrow(new RuntimeException("db down"));
+
+        ResponseEntity<?> response = controller.getPlatformBalances();
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals(Map.of("message", "Error retrieving balances: db down"), response.getBody());
+    }
+}
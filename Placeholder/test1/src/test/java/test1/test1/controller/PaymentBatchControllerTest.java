@@ -0,0 +1,107 @@
+package test1.test1.controller;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import org.mockito.Mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import test1.test1.model.BatchCheckpoint;
+import test1.test1.service.PaymentBatchService;
+
+@ExtendWith(MockitoExtension.class)
+public class PaymentBatchControllerTest {
+
+    @Mock
+    private PaymentBatchService batchService;
+
+    private PaymentBatchController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new PaymentBatchController(batchService);
+    }
+
+    private static BatchCheckpoint job(String name, String type) {
+        return new BatchCheckpoint(name, type, LocalDateTime.now(), LocalDateTime.now().plusDays(1), null);
+    }
+
+    @Test
+    void testStartRefundsDefaultsToLastMonth() {
+        LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+        LocalDate lastMonth = thisMonth.minusMonths(1);
+        String name = "refund-" + lastMonth + "-" + thisMonth;
+        when(batchService.start(eq(name), eq(BatchCheckpoint.REFUND), eq(lastMonth.atStartOfDay()),
+            eq(thisMonth.atStartOfDay()), eq("Booking declined by owner")))
+            .thenReturn(job(name, BatchCheckpoint.REFUND));
+
+        ResponseEntity<?> response = controller.startRefunds(null);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("/payments/batch/" + name, response.getHeaders().getLocation().toString());
+    }
+
+    @Test
+    void testStartReconciliationForWindow() {
+        when(batchService.start(eq("sept"), eq(BatchCheckpoint.RECONCILE),
+            eq(LocalDate.of(2026, 9, 1).atStartOfDay()), eq(LocalDate.of(2026, 10, 1).atStartOfDay()), isNull()))
+            .thenReturn(job("sept", BatchCheckpoint.RECONCILE));
+
+        ResponseEntity<?> response = controller.startReconciliation(
+            Map.of("jobName", "sept", "from", "2026-09-01", "to", "2026-10-01"));
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+    }
+
+    @Test
+    void testFinishedJobIsReturnedAsIs() {
+        BatchCheckpoint done = job("sept", BatchCheckpoint.RECONCILE);
+        done.setStatus("COMPLETED");
+        when(batchService.start(anyString(), anyString(), any(), any(), any())).thenReturn(done);
+
+        ResponseEntity<?> response = controller.startReconciliation(Map.of("jobName", "sept"));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    @Test
+    void testInvalidWindowRejected() {
+        ResponseEntity<?> badDate = controller.startRefunds(Map.of("from", "September"));
+        ResponseEntity<?> reversed = controller.startRefunds(Map.of("from", "2026-10-01", "to", "2026-09-01"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, badDate.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, reversed.getStatusCode());
+        verifyNoInteractions(batchService);
+    }
+
+    @Test
+    void testJobNameOfOtherTypeConflicts() {
+        when(batchService.start(anyString(), anyString(), any(), any(), any()))
+            .thenThrow(new IllegalArgumentException("Job sept is a RECONCILE job"));
+
+        ResponseEntity<?> response = controller.startRefunds(Map.of("jobName", "sept"));
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
+    @Test
+    void testUnknownJobNotFound() {
+        when(batchService.getJob("nope")).thenReturn(Optional.empty());
+
+        assertEquals(HttpStatus.NOT_FOUND, controller.getJob("nope").getStatusCode());
+    }
+}
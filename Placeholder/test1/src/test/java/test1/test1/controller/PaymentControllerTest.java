@@ -6,6 +6,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,15 +17,20 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.Mock;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import test1.test1.dto.PaymentSummary;
 import test1.test1.model.Booking;
 import test1.test1.model.Payment;
 import test1.test1.model.User;
 import test1.test1.service.BookingService;
+import test1.test1.service.IdempotencyService;
 import test1.test1.service.PaymentService;
 import test1.test1.service.UserService;
 
@@ -37,12 +43,17 @@ public class PaymentControllerTest {
     private BookingService bookingService;
     @Mock
     private UserService userService;
+    @Mock
+    private IdempotencyService idempotencyService;
+    @Mock
+    private PaymentEventStream paymentEvents;
 
     private PaymentController controller;
 
     @BeforeEach
     void setUp() {
-        controller = new PaymentController(paymentService, bookingService, userService);
+        controller = new PaymentController(paymentService, bookingService, userService, idempotencyService,
+            paymentEvents);
     }
 
     /**
@@ -86,7 +97,7 @@ public class PaymentControllerTest {
             .thenReturn(payment);
 
         // Act
-        ResponseEntity<?> response = controller.processPayment(request);
+        ResponseEntity<?> response = controller.processPayment(null, request);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -96,6 +107,49 @@ public class PaymentControllerTest {
         assertEquals(500, body.get("paymentId"));
     }
 
+    @Test
+    void testProcessPayment_PendingIsAccepted() {
+        Map<String, Object> request = createValidStripeRequest();
+        User user = new User("john_doe");
+        Booking booking = new Booking();
+        booking.setBookingId(10);
+        Payment payment = new Payment();
+        payment.setPaymentId(501);
+        payment.setStatus("PENDING");
+        when(userService.findByUsername("john_doe")).thenReturn(Optional.of(user));
+        when(bookingService.createBooking(any(), anyInt(), any(), any())).thenReturn(booking);
+        when(paymentService.processPayment(anyInt(), eq("stripe"), anyDouble(), anyString(), anyString(), anyString(), any()))
+            .thenReturn(payment);
+
+        ResponseEntity<?> response = controller.processPayment(null, request);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("/payments/501", response.getHeaders().getLocation().toString());
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertEquals("PENDING", body.get("status"));
+        assertEquals("/payments/501/events", body.get("eventsUrl"));
+    }
+
+    @Test
+    void testProcessPayment_FailedDeclinesBooking() {
+        Map<String, Object> request = createValidStripeRequest();
+        User user = new User("john_doe");
+        Booking booking = new Booking();
+        booking.setBookingId(10);
+        Payment payment = new Payment();
+        payment.setStatus("FAILED");
+        payment.setFailureReason("Card declined");
+        when(userService.findByUsername("john_doe")).thenReturn(Optional.of(user));
+        when(bookingService.createBooking(any(), anyInt(), any(), any())).thenReturn(booking);
+        when(paymentService.processPayment(anyInt(), eq("stripe"), anyDouble(), anyString(), anyString(), anyString(), any()))
+            .thenReturn(payment);
+
+        ResponseEntity<?> response = controller.processPayment(null, request);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(bookingService).updateBookingStatus(10, "DECLINED");
+    }
+
     /**
      * Testing missing required fields logic
      */
@@ -105,7 +159,7 @@ public class PaymentControllerTest {
         request.put("method", "stripe");
         // amount is missing, which triggers the NPE in the current controller
 
-        ResponseEntity<?> response = controller.processPayment(request);
+        ResponseEntity<?> response = controller.processPayment(null, request);
 
         // Matches the current actual behavior (500 error)
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
@@ -121,13 +175,33 @@ public class PaymentControllerTest {
         Map<String, Object> request = createValidStripeRequest();
         when(userService.findByUsername(anyString())).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = controller.processPayment(request);
+        ResponseEntity<?> response = controller.processPayment(null, request);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         Map<String, Object> body = (Map<String, Object>) response.getBody();
         assertEquals("User not found", body.get("message"));
     }
 
+    @Test
+    void testProcessPayment_WithIdempotencyKeyGoesThroughStore() {
+        Map<String, Object> request = createValidStripeRequest();
+        ResponseEntity<?> stored = ResponseEntity.ok(Map.of("paymentId", 500));
+        doReturn(stored).when(idempotencyService).execute(eq("key-1"), eq(request), any());
+
+        ResponseEntity<?> response = controller.processPayment("key-1", request);
+
+        assertSame(stored, response);
+        verifyNoInteractions(bookingService, paymentService);
+    }
+
+    @Test
+    void testProcessPayment_RejectsBlankIdempotencyKey() {
+        ResponseEntity<?> response = controller.processPayment(" ", createValidStripeRequest());
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(idempotencyService, bookingService);
+    }
+
     @Test
     void testGetPayment_Found() {
         Payment payment = new Payment();
@@ -271,8 +345,9 @@ public class PaymentControllerTest {
      */
     @Test
     void testGetAllPayments_Success() {
-        java.util.List<Payment> payments = java.util.List.of(new Payment(), new Payment());
-        when(paymentService.getAllPayments()).thenReturn(payments);
+        java.util.List<PaymentSummary> payments = java.util.List.of(
+            new PaymentSummary(1, 10, "stripe", 20.0, "EUR", "COMPLETED", "txn_1", "4242", "Visa", null, null, null));
+        when(paymentService.getPaymentSummaries()).thenReturn(payments);
 
         ResponseEntity<?> response = controller.getAllPayments();
 
@@ -282,7 +357,7 @@ public class PaymentControllerTest {
 
     @Test
     void testGetAllPayments_Exception() {
-        when(paymentService.getAllPayments()).thenThrow(new RuntimeException("Empty table"));
+        when(paymentService.getPaymentSummaries()).thenThrow(new RuntimeException("Empty table"));
 
         ResponseEntity<?> response = controller.getAllPayments();
 
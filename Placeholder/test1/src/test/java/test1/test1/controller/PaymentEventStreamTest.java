@@ -0,0 +1,46 @@
+package test1.test1.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+import test1.test1.model.Payment;
+import test1.test1.service.PaymentFinishedEvent;
+
+class PaymentEventStreamTest {
+
+    private final PaymentEventStream stream = new PaymentEventStream();
+
+    private static Payment payment(String status) {
+        Payment payment = new Payment();
+        payment.setPaymentId(1);
+        payment.setStatus(status);
+        return payment;
+    }
+
+    @Test
+    void pendingPaymentStaysSubscribedUntilItFinishes() {
+        stream.subscribe(1, id -> payment("PENDING"));
+        stream.subscribe(1, id -> payment("PENDING"));
+        assertThat(stream.subscriberCount(1)).isEqualTo(2);
+
+        stream.onPaymentFinished(new PaymentFinishedEvent(1, "COMPLETED", null));
+
+        assertThat(stream.subscriberCount(1)).isZero();
+    }
+
+    @Test
+    void alreadyFinishedPaymentIsDeliveredImmediately() {
+        stream.subscribe(1, id -> payment("FAILED"));
+
+        assertThat(stream.subscriberCount(1)).isZero();
+    }
+
+    @Test
+    void eventsForOtherPaymentsAreIgnored() {
+        stream.subscribe(1, id -> payment("PENDING"));
+
+        stream.onPaymentFinished(new PaymentFinishedEvent(2, "COMPLETED", null));
+
+        assertThat(stream.subscriberCount(1)).isEqualTo(1);
+    }
+}
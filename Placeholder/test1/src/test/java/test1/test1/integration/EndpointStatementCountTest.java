@@ -0,0 +1,138 @@
+package test1.test1.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import jakarta.persistence.EntityManagerFactory;
+import test1.test1.model.Booking;
+import test1.test1.model.Game;
+import test1.test1.model.Payment;
+import test1.test1.model.User;
+import test1.test1.repository.PaymentRepository;
+import test1.test1.service.BookingService;
+import test1.test1.service.GameService;
+import test1.test1.service.UserService;
+
+/**
+ * Counts the JDBC statements behind the booking and payment endpoints with
+ * Hibernate statistics. The counts must not grow with the number of rows, which
+ * is what lazy associations loaded one by one (N+1) would do.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@WebAppConfiguration
+@ActiveProfiles("test")
+class EndpointStatementCountTest {
+
+    private static final long MAX_STATEMENTS = 2;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    private MockMvc mockMvc;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void statementCountDoesNotDependOnRowCount() throws Exception {
+        String owner = "stmt_owner_" + System.nanoTime();
+        User renter = userService.createUser("stmt_renter_" + System.nanoTime(), "TestPass123!", null);
+        Payment payment = seed(owner, renter, 0, 1);
+
+        Map<String, Long> few = statementCounts(owner, renter, payment);
+        seed(owner, renter, 1, 8);
+        Map<String, Long> many = statementCounts(owner, renter, payment);
+
+        assertThat(many).isEqualTo(few);
+        assertThat(many).allSatisfy((endpoint, statements) ->
+            assertThat(statements).as(endpoint).isLessThanOrEqualTo(MAX_STATEMENTS));
+    }
+
+    // The summary lists are a single constructor-expression query, however many games and users they show
+    @Test
+    void bookingListIsOneStatement() throws Exception {
+        String owner = "stmt_list_owner_" + System.nanoTime();
+        User renter = userService.createUser("stmt_list_renter_" + System.nanoTime(), "TestPass123!", null);
+        seed(owner, renter, 0, 8);
+
+        for (String endpoint : new String[] {"/bookings", "/bookings/owner/" + owner, "/payments"}) {
+            statistics.clear();
+            mockMvc.perform(get(endpoint)).andExpect(status().isOk());
+            assertThat(statistics.getPrepareStatementCount()).as(endpoint).isEqualTo(1);
+        }
+    }
+
+    private Map<String, Long> statementCounts(String owner, User renter, Payment payment) throws Exception {
+        Booking booking = payment.getBooking();
+        String[] endpoints = {
+            "/bookings",
+            "/bookings/owner/" + owner,
+            "/bookings/user/" + renter.getUserId(),
+            "/bookings/game/" + booking.getGame().getGameId(),
+            "/bookings/" + booking.getBookingId(),
+            "/payments",
+            "/payments/" + payment.getPaymentId(),
+            "/payments/transaction/" + payment.getTransactionId()
+        };
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String endpoint : endpoints) {
+            statistics.clear();
+            mockMvc.perform(get(endpoint)).andExpect(status().isOk());
+            counts.put(endpoint, statistics.getPrepareStatementCount());
+        }
+        return counts;
+    }
+
+    // One game per booking so every row points at a different game (and payment)
+    private Payment seed(String owner, User renter, int from, int to) {
+        Payment last = null;
+        for (int i = from; i < to; i++) {
+            Game game = gameService.addGame("Stmt " + i, "desc", 5.0, "good", "", "Tag" + i, true,
+                LocalDate.now(), LocalDate.now().plusMonths(1), owner);
+            Booking booking = bookingService.createBooking(renter.getUserId(), game.getGameId(),
+                LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
+            Payment payment = new Payment(booking, "stripe", booking.getTotalPrice(), "EUR");
+            payment.setStatus("COMPLETED");
+            payment.setTransactionId("txn_stmt_" + System.nanoTime());
+            last = paymentRepository.save(payment);
+        }
+        return last;
+    }
+}
@@ -0,0 +1,112 @@
+package test1.test1.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import test1.test1.dto.CatalogCursor;
+import test1.test1.dto.CursorPage;
+import test1.test1.dto.GameSearchCriteria;
+import test1.test1.dto.GameSummary;
+import test1.test1.model.Game;
+import test1.test1.service.GameService;
+import test1.test1.service.GameVersions;
+
+/**
+ * Integration tests for the server-side catalog query: filters and keyset paging
+ * against the real schema.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class GameCatalogIntegrationTest {
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private GameVersions gameVersions;
+
+    private String owner;
+
+    @BeforeEach
+    void seedCatalog() {
+        owner = "catalog_" + System.nanoTime();
+        double[] prices = {4.0, 1.0, 3.0, 1.0, 2.0};
+        for (int i = 0; i < prices.length; i++) {
+            String tags = i % 2 == 0 ? "PlayStation,Action" : "Xbox,RPG";
+            gameService.addGame("Catalog " + i, "Seeded for paging", prices[i], "good", "", tags,
+                true, LocalDate.now(), LocalDate.now().plusMonths(1), owner);
+        }
+    }
+
+    @Test
+    void keysetPagingVisitsEveryRowOnceInOrder() {
+        GameSearchCriteria criteria = new GameSearchCriteria();
+        criteria.setQuery(owner);
+        criteria.setSort(GameSearchCriteria.Sort.PRICE_LOW);
+        criteria.setLimit(2);
+
+        List<GameSummary> seen = new ArrayList<>();
+        CursorPage<GameSummary> page;
+        do {
+            page = gameService.searchGames(criteria);
+            assertThat(page.getItems().size()).isLessThanOrEqualTo(2);
+            seen.addAll(page.getItems());
+            criteria.setCursor(page.getNextCursor() != null ? CatalogCursor.decode(page.getNextCursor(), criteria.getSort()) : null);
+        } while (page.isHasMore());
+
+        assertThat(seen).hasSize(5);
+        assertThat(seen).extracting(GameSummary::getGameId).doesNotHaveDuplicates();
+        assertThat(seen).extracting(GameSummary::getPricePerDay).containsExactly(1.0, 1.0, 2.0, 3.0, 4.0);
+    }
+
+    @Test
+    void filtersByPlatformAndPrice() {
+        GameSearchCriteria criteria = new GameSearchCriteria();
+        criteria.setQuery(owner);
+        criteria.setPlatform("playstation");
+        criteria.setMaxPrice(3.0);
+
+        CursorPage<GameSummary> page = gameService.searchGames(criteria);
+
+        assertThat(page.getItems()).extracting(GameSummary::getTitle).containsExactlyInAnyOrder("Catalog 2", "Catalog 4");
+        assertThat(page.isHasMore()).isFalse();
+    }
+
+    @Test
+    void excludesGamesWhoseListingWindowDoesNotCoverDates() {
+        GameSearchCriteria criteria = new GameSearchCriteria();
+        criteria.setQuery(owner);
+        criteria.setAvailableFrom(LocalDate.now().plusMonths(2));
+
+        assertThat(gameService.searchGames(criteria).getItems()).isEmpty();
+    }
+
+    @Test
+    void etagsFollowTheStoredGames() {
+        String catalog = gameVersions.catalogETag();
+        Game game = gameService.addGame("Tagged", "desc", 2.0, "good", "", "", true,
+            LocalDate.now(), LocalDate.now().plusMonths(1), owner);
+        String added = gameVersions.catalogETag();
+        assertThat(added).isNotEqualTo(catalog);
+        assertThat(gameVersions.currentVersion(game.getGameId())).isEqualTo(game.getVersion());
+
+        gameService.updateGame(game.getGameId(), "Retitled", "desc", null, 2.0, "good", null, null, true,
+            LocalDate.now(), LocalDate.now().plusMonths(1));
+        assertThat(gameVersions.currentVersion(game.getGameId())).isEqualTo(game.getVersion() + 1);
+        String updated = gameVersions.catalogETag();
+        assertThat(updated).isNotEqualTo(added);
+
+        gameService.deleteGame(game.getGameId(), owner);
+        assertThat(gameVersions.currentVersion(game.getGameId())).isNull();
+        assertThat(gameVersions.catalogETag()).isNotEqualTo(updated).isNotEqualTo(added);
+    }
+}
@@ -0,0 +1,105 @@
+package test1.test1.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.jayway.jsonpath.JsonPath;
+
+import test1.test1.model.Game;
+import test1.test1.model.User;
+import test1.test1.service.GameService;
+import test1.test1.service.UserService;
+
+/**
+ * Posts a payment through /payments/process and polls it until the
+ * background charge has finished, against the real database and processor.
+ */
+@SpringBootTest(properties = "app.payments.gateway.simulator.decline-rate=0")
+@WebAppConfiguration
+@ActiveProfiles("test")
+class PaymentFlowIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private GameService gameService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    private String pay(String method, User renter, Game game, ResultMatcher expected) throws Exception {
+        return mockMvc.perform(post("/payments/process")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"method": "%s", "amount": 10.0, "currency": "EUR",
+                     "card": {"number": "4242424242424242"},
+                     "bookingData": {"userId": %d, "username": "%s", "gameId": %d,
+                                     "startDate": "%s", "endDate": "%s"}}
+                    """.formatted(method, renter.getUserId(), renter.getUsername(), game.getGameId(),
+                        LocalDate.now().plusDays(1), LocalDate.now().plusDays(2))))
+            .andExpect(expected)
+            .andReturn().getResponse().getContentAsString();
+    }
+
+    private Game newGame() {
+        return gameService.addGame("Flow", "desc", 5.0, "good", "", "Tag", true,
+            LocalDate.now(), LocalDate.now().plusMonths(1), "flow_owner_" + System.nanoTime());
+    }
+
+    private User newRenter() {
+        return userService.createUser("flow_renter_" + System.nanoTime(), "TestPass123!", null);
+    }
+
+    @Test
+    void acceptedPaymentIsPolledToCompleted() throws Exception {
+        String accepted = pay("stripe", newRenter(), newGame(), status().isAccepted());
+        Integer paymentId = JsonPath.read(accepted, "$.paymentId");
+        assertThat(paymentId).isNotNull();
+
+        String status = "PENDING";
+        for (int i = 0; i < 100 && "PENDING".equals(status); i++) {
+            Thread.sleep(50);
+            String payment = mockMvc.perform(get("/payments/" + paymentId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+            status = JsonPath.read(payment, "$.status");
+        }
+
+        assertThat(status).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    void failedPaymentFreesTheDatesForAnotherTry() throws Exception {
+        User renter = newRenter();
+        Game game = newGame();
+
+        String failed = pay("cashapp", renter, game, status().isBadRequest());
+        assertThat((String) JsonPath.read(failed, "$.status")).isEqualTo("FAILED");
+
+        pay("stripe", renter, game, status().isAccepted());
+    }
+}
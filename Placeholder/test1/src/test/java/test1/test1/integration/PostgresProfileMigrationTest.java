@@ -0,0 +1,94 @@
+package test1.test1.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import test1.test1.model.Booking;
+import test1.test1.model.Game;
+import test1.test1.model.Payment;
+import test1.test1.model.User;
+import test1.test1.repository.PaymentRepository;
+import test1.test1.service.BookingService;
+import test1.test1.service.GameService;
+import test1.test1.service.UserService;
+
+/**
+ * Runs the postgres profile against H2 in PostgreSQL mode: the Flyway scripts
+ * must build a schema the entities can read and write without Hibernate
+ * touching it.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:bitswap;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+@ActiveProfiles("postgres")
+class PostgresProfileMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Test
+    void migrationsAreApplied() {
+        assertThat(flyway.info().applied()).isNotEmpty();
+        assertThat(flyway.info().pending()).isEmpty();
+    }
+
+    @Test
+    void queryIndexesExist() {
+        for (String index : new String[] {"idx_bookings_game_start", "uk_payments_transaction_id", "idx_games_owner_username"}) {
+            Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.indexes where lower(index_name) = ?", Integer.class, index);
+            assertThat(count).as(index).isPositive();
+        }
+    }
+
+    @Test
+    void entitiesRoundTripThroughMigratedSchema() {
+        User renter = userService.createUser("pg_renter_" + System.nanoTime(), "secret", "bio");
+        Game game = gameService.addGame("Migrated", "desc", 5.0, "good", "", "PC,Strategy", true,
+            LocalDate.now(), LocalDate.now().plusMonths(1), "pg_owner");
+
+        Booking booking = bookingService.createBooking(renter.getUserId(), game.getGameId(),
+            LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
+        assertThat(booking).isNotNull();
+        assertThat(bookingService.getBookingsByOwner("pg_owner")).extracting(Booking::getBookingId)
+            .contains(booking.getBookingId());
+        assertThat(gameService.getGamesWithAllTags(List.of("strategy"))).extracting(Game::getGameId)
+            .contains(game.getGameId());
+
+        Payment payment = new Payment(booking, "stripe", 10.0, "EUR");
+        payment.setStatus("COMPLETED");
+        payment.setTransactionId("txn_pg_" + System.nanoTime());
+        paymentRepository.save(payment);
+        Optional<Payment> found = paymentRepository.findByTransactionId(payment.getTransactionId());
+        assertThat(found).isPresent();
+    }
+}
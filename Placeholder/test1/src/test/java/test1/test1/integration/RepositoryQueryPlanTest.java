@@ -0,0 +1,152 @@
+package test1.test1.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import test1.test1.model.Booking;
+import test1.test1.repository.BatchCheckpointRepository;
+import test1.test1.repository.BookingRepository;
+import test1.test1.repository.GameRepository;
+import test1.test1.repository.GameTagRepository;
+import test1.test1.repository.LedgerBalanceRepository;
+import test1.test1.repository.PaymentRepository;
+import test1.test1.repository.UserRepository;
+
+/**
+ * Runs every repository lookup, captures the SQL Hibernate sends and checks
+ * SQLite's EXPLAIN QUERY PLAN for it: each table must be reached through an
+ * index or primary key, never a full scan. findAll/count and the catalog
+ * search are left out since they read the whole table by design.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RepositoryQueryPlanTest {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration
+    static class CaptureStatements {
+        @Bean
+        HibernatePropertiesCustomizer captureStatements() {
+            StatementInspector inspector = sql -> {
+                STATEMENTS.add(sql);
+                return sql;
+            };
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private BatchCheckpointRepository batchCheckpointRepository;
+
+    @Autowired
+    private LedgerBalanceRepository ledgerBalanceRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GameTagRepository gameTagRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void repositoryLookupsUseIndexes() {
+        Booking booking = new Booking();
+        booking.setBookingId(1);
+        LocalDate today = LocalDate.now();
+
+        Map<String, Runnable> lookups = new LinkedHashMap<>();
+        lookups.put("BookingRepository.findById", () -> bookingRepository.findById(1));
+        lookups.put("BookingRepository.findByGameGameId", () -> bookingRepository.findByGameGameId(1));
+        lookups.put("BookingRepository.findByGameGameIdAndStatusIn",
+            () -> bookingRepository.findByGameGameIdAndStatusIn(1, Booking.BLOCKING_STATUSES));
+        lookups.put("BookingRepository.findByUserUserId", () -> bookingRepository.findByUserUserId(1));
+        lookups.put("BookingRepository.findByGameOwnerUsername", () -> bookingRepository.findByGameOwnerUsername("owner"));
+        lookups.put("BookingRepository.existsOverlapping",
+            () -> bookingRepository.existsOverlapping(1, today, today.plusDays(3), Booking.BLOCKING_STATUSES, null));
+        lookups.put("BookingRepository.findSummariesByGameId", () -> bookingRepository.findSummariesByGameId(1));
+        lookups.put("BookingRepository.findSummariesByUserId", () -> bookingRepository.findSummariesByUserId(1));
+        lookups.put("BookingRepository.findSummariesByOwnerUsername",
+            () -> bookingRepository.findSummariesByOwnerUsername("owner"));
+        lookups.put("PaymentRepository.findById", () -> paymentRepository.findById(1));
+        lookups.put("PaymentRepository.findByTransactionId", () -> paymentRepository.findByTransactionId("txn"));
+        lookups.put("PaymentRepository.findByBooking", () -> paymentRepository.findByBooking(booking));
+        lookups.put("PaymentRepository.findByStatus", () -> paymentRepository.findByStatus("COMPLETED"));
+        lookups.put("PaymentRepository.findByBookingAndStatus",
+            () -> paymentRepository.findByBookingAndStatus(booking, "COMPLETED"));
+        lookups.put("PaymentRepository.findResumableIds",
+            () -> paymentRepository.findResumableIds(today.atStartOfDay(), today.atStartOfDay()));
+        lookups.put("PaymentRepository.findKeysAfter", () -> paymentRepository.findKeysAfter(
+            today.atStartOfDay(), 0, today.plusDays(1).atStartOfDay(), "COMPLETED", Limit.of(10)));
+        lookups.put("PaymentRepository.findByPaymentIdIn", () -> paymentRepository.findByPaymentIdIn(List.of(1, 2)));
+        lookups.put("BatchCheckpointRepository.findRunningJobNames", () -> batchCheckpointRepository.findRunningJobNames());
+        lookups.put("LedgerBalanceRepository.findByAccountOrderByCurrency",
+            () -> ledgerBalanceRepository.findByAccountOrderByCurrency("owner:owner"));
+        lookups.put("GameRepository.findById", () -> gameRepository.findById(1));
+        lookups.put("GameRepository.findByOwnerUsername", () -> gameRepository.findByOwnerUsername("owner"));
+        lookups.put("GameRepository.findByAnyTag", () -> gameRepository.findByAnyTag(List.of("rpg", "action")));
+        lookups.put("GameRepository.findByAllTags", () -> gameRepository.findByAllTags(List.of("rpg", "action"), 2));
+        lookups.put("GameTagRepository.findByGameId", () -> gameTagRepository.findByGameId(1));
+        lookups.put("UserRepository.findById", () -> userRepository.findById(1));
+        lookups.put("UserRepository.findByUsername", () -> userRepository.findByUsername("someone"));
+
+        List<String> scans = new ArrayList<>();
+        for (Map.Entry<String, Runnable> lookup : lookups.entrySet()) {
+            STATEMENTS.clear();
+            lookup.getValue().run();
+            assertThat(STATEMENTS).as(lookup.getKey()).isNotEmpty();
+            for (String sql : STATEMENTS) {
+                for (String step : queryPlan(sql)) {
+                    if (step.startsWith("SCAN ") && !step.equals("SCAN CONSTANT ROW")) {
+                        scans.add(lookup.getKey() + ": " + step + " in " + sql);
+                    }
+                }
+            }
+        }
+
+        assertThat(scans).isEmpty();
+    }
+
+    private List<String> queryPlan(String sql) {
+        // Parameters are bound as null: SQLite plans the same statement either way
+        return new JdbcTemplate(dataSource).query("EXPLAIN QUERY PLAN " + sql,
+            ps -> {
+                int parameters = ps.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    ps.setObject(i, null);
+                }
+            },
+            (rs, row) -> rs.getString("detail"));
+    }
+}
@@ -0,0 +1,119 @@
+package test1.test1.profiling;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.Mockito.when;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SqlProfilerTest {
+
+    private static final String GAME_BY_ID = "select * from games where game_id=?";
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private SqlProfiler profiler;
+    private ProfilingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        profiler = new SqlProfiler(false, 3);
+        dataSource = new ProfilingDataSource(target, () -> profiler);
+    }
+
+    @Test
+    void connection_notProfiled_isReturnedUnwrapped() throws Exception {
+        when(target.getConnection()).thenReturn(connection);
+
+        assertThat(dataSource.getConnection()).isSameAs(connection);
+    }
+
+    @Test
+    void profiledRequest_recordsStatementsAndRows() throws Exception {
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(GAME_BY_ID)).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, true, false);
+
+        profiler.begin("GET /games");
+        try (Connection c = dataSource.getConnection()) {
+            PreparedStatement ps = c.prepareStatement(GAME_BY_ID);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                // consume
+            }
+        }
+        SqlProfile profile = profiler.end();
+
+        assertThat(profile.getStatements()).isEqualTo(1);
+        assertThat(profile.getRows()).isEqualTo(2);
+        assertThat(profile.repeatedStatements(3)).isEmpty();
+        assertThat(profiler.slowest(10)).singleElement()
+                .satisfies(stats -> {
+                    assertThat(stats.getSql()).isEqualTo(GAME_BY_ID);
+                    assertThat(stats.getExecutions()).isEqualTo(1);
+                    assertThat(stats.getRows()).isEqualTo(2);
+                });
+        assertThat(profiler.isActive()).isFalse();
+    }
+
+    @Test
+    void repeatedStatement_isFlaggedAsNPlusOne() throws Exception {
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(GAME_BY_ID)).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+
+        profiler.begin("GET /bookings");
+        try (Connection c = dataSource.getConnection()) {
+            for (int i = 0; i < 4; i++) {
+                ResultSet rs = c.prepareStatement(GAME_BY_ID).executeQuery();
+                rs.close();
+            }
+        }
+        SqlProfile profile = profiler.end();
+
+        assertThat(profile.repeatedStatements(3)).containsExactly(GAME_BY_ID);
+        assertThat(profiler.recentNPlusOne()).singleElement()
+                .satisfies(flag -> {
+                    assertThat(flag.getRequest()).isEqualTo("GET /bookings");
+                    assertThat(flag.getExecutions()).isEqualTo(4);
+                });
+        assertThat(profiler.slowest(1).get(0).getNPlusOneHits()).isEqualTo(1);
+
+        profiler.reset();
+        assertThat(profiler.slowest(10)).isEmpty();
+        assertThat(profiler.recentNPlusOne()).isEmpty();
+    }
+
+    @Test
+    void shouldProfile_honoursHeaderUnlessProfilingEverything() {
+        assertThat(profiler.shouldProfile(false)).isFalse();
+        assertThat(profiler.shouldProfile(true)).isTrue();
+        assertThat(new SqlProfiler(true, 5).shouldProfile(false)).isTrue();
+    }
+
+    @Test
+    void normalize_collapsesWhitespace() {
+        assertThat(ProfilingDataSource.normalize("  select *\n   from games\twhere id=? "))
+                .isEqualTo("select * from games where id=?");
+    }
+}
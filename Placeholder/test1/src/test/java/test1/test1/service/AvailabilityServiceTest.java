@@ -0,0 +1,99 @@
+package test1.test1.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import test1.test1.dto.AvailabilityResponse;
+import test1.test1.dto.DateRange;
+import test1.test1.model.Booking;
+import test1.test1.model.Game;
+import test1.test1.model.User;
+import test1.test1.repository.BookingRepository;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 12, 1);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @InjectMocks
+    private AvailabilityService availabilityService;
+
+    private Game game;
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        user = new User("renter");
+        user.setUserId(1);
+        game = new Game("Tetris", "desc", 2.0);
+        game.setGameId(10);
+    }
+
+    private Booking booking(int id, int startOffset, int endOffset, String status) {
+        Booking booking = new Booking(user, game, DAY.plusDays(startOffset), DAY.plusDays(endOffset), 1.0);
+        booking.setBookingId(id);
+        booking.setStatus(status);
+        return booking;
+    }
+
+    @Test
+    void loadsCalendarOnceFromRepository() {
+        when(bookingRepository.findByGameGameIdAndStatusIn(eq(10), anyCollection()))
+            .thenReturn(List.of(booking(1, 5, 8, "APPROVED")));
+
+        assertThat(availabilityService.isAvailable(10, DAY, DAY.plusDays(4))).isTrue();
+        assertThat(availabilityService.isAvailable(10, DAY.plusDays(6), DAY.plusDays(9))).isFalse();
+
+        verify(bookingRepository, times(1)).findByGameGameIdAndStatusIn(eq(10), anyCollection());
+    }
+
+    @Test
+    void declinedBookingReleasesItsDates() {
+        when(bookingRepository.findByGameGameIdAndStatusIn(eq(10), anyCollection())).thenReturn(List.of());
+        Booking booking = booking(2, 0, 3, "PENDING");
+
+        availabilityService.onBookingSaved(booking);
+        assertThat(availabilityService.isAvailable(10, DAY.plusDays(1), DAY.plusDays(1))).isFalse();
+
+        booking.setStatus("DECLINED");
+        availabilityService.onBookingSaved(booking);
+        assertThat(availabilityService.isAvailable(10, DAY.plusDays(1), DAY.plusDays(1))).isTrue();
+    }
+
+    @Test
+    void freeRangesRespectBookingsAndListingWindow() {
+        game.setStartDate(DAY.plusDays(2));
+        game.setEndDate(DAY.plusDays(20));
+        when(bookingRepository.findByGameGameIdAndStatusIn(eq(10), anyCollection()))
+            .thenReturn(List.of(booking(1, 5, 8, "APPROVED"), booking(2, 12, 14, "PENDING")));
+
+        AvailabilityResponse response = availabilityService.getAvailability(game, DAY, DAY.plusDays(30));
+
+        assertThat(response.getBusy())
+            .extracting(DateRange::getFrom)
+            .containsExactly(DAY.plusDays(5), DAY.plusDays(12));
+        assertThat(response.getFree())
+            .extracting(DateRange::getFrom, DateRange::getTo)
+            .containsExactly(
+                org.assertj.core.groups.Tuple.tuple(DAY.plusDays(2), DAY.plusDays(4)),
+                org.assertj.core.groups.Tuple.tuple(DAY.plusDays(9), DAY.plusDays(11)),
+                org.assertj.core.groups.Tuple.tuple(DAY.plusDays(15), DAY.plusDays(20)));
+    }
+}
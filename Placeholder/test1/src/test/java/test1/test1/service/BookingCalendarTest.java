@@ -0,0 +1,90 @@
+package test1.test1.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import test1.test1.dto.DateRange;
+
+class BookingCalendarTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 12, 1);
+
+    private static LocalDate day(int offset) {
+        return DAY.plusDays(offset);
+    }
+
+    @Test
+    void emptyCalendarIsFree() {
+        BookingCalendar calendar = new BookingCalendar();
+
+        assertThat(calendar.isFree(day(0), day(30))).isTrue();
+        assertThat(calendar.busy(day(0), day(30))).isEmpty();
+    }
+
+    @Test
+    void detectsOverlapsIncludingBoundaryDays() {
+        BookingCalendar calendar = new BookingCalendar();
+        calendar.add(1, day(5), day(8));
+
+        assertThat(calendar.isFree(day(0), day(4))).isTrue();
+        assertThat(calendar.isFree(day(9), day(12))).isTrue();
+        assertThat(calendar.isFree(day(0), day(5))).isFalse();
+        assertThat(calendar.isFree(day(8), day(10))).isFalse();
+        assertThat(calendar.isFree(day(6), day(7))).isFalse();
+        assertThat(calendar.isFree(day(0), day(20))).isFalse();
+    }
+
+    @Test
+    void mergesOverlappingBookingsIntoOneBlock() {
+        BookingCalendar calendar = new BookingCalendar();
+        calendar.add(1, day(0), day(3));
+        calendar.add(2, day(10), day(12));
+        calendar.add(3, day(2), day(11));
+
+        assertThat(calendar.busy(day(0), day(30)))
+            .extracting(DateRange::getFrom, DateRange::getTo)
+            .containsExactly(org.assertj.core.groups.Tuple.tuple(day(0), day(12)));
+        assertThat(calendar.size()).isEqualTo(3);
+    }
+
+    @Test
+    void removingABookingSplitsItsBlockAgain() {
+        BookingCalendar calendar = new BookingCalendar();
+        calendar.add(1, day(0), day(3));
+        calendar.add(2, day(10), day(12));
+        calendar.add(3, day(2), day(11));
+
+        calendar.remove(3);
+
+        assertThat(calendar.busy(day(0), day(30))).hasSize(2);
+        assertThat(calendar.isFree(day(5), day(8))).isTrue();
+        assertThat(calendar.isFree(day(3), day(3))).isFalse();
+    }
+
+    @Test
+    void addingTheSameBookingTwiceReplacesIt() {
+        BookingCalendar calendar = new BookingCalendar();
+        calendar.add(1, day(0), day(3));
+        calendar.add(1, day(20), day(22));
+
+        assertThat(calendar.isFree(day(0), day(3))).isTrue();
+        assertThat(calendar.isFree(day(21), day(21))).isFalse();
+        assertThat(calendar.size()).isEqualTo(1);
+    }
+
+    @Test
+    void busyRangesAreClippedToWindow() {
+        BookingCalendar calendar = new BookingCalendar();
+        calendar.add(1, day(0), day(10));
+        calendar.add(2, day(20), day(30));
+
+        assertThat(calendar.busy(day(5), day(25)))
+            .extracting(DateRange::getFrom, DateRange::getTo)
+            .containsExactly(
+                org.assertj.core.groups.Tuple.tuple(day(5), day(10)),
+                org.assertj.core.groups.Tuple.tuple(day(20), day(25)));
+    }
+}
@@ -0,0 +1,153 @@
+package test1.test1.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import test1.test1.model.Booking;
+import test1.test1.model.Game;
+import test1.test1.model.User;
+import test1.test1.repository.BookingRepository;
+
+/**
+ * Hammers a handful of games from many threads. The fake repository does a
+ * plain check-then-insert with no atomicity of its own, so any overlap in the
+ * result means the service let two reservations for a game interleave.
+ */
+@ExtendWith(MockitoExtension.class)
+class BookingServiceConcurrencyTest {
+
+    private static final int GAMES = 4;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 200;
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private GameService gameService;
+
+    @Mock
+    private UserService userService;
+
+    private final List<Booking> stored = new CopyOnWriteArrayList<>();
+    private final AtomicInteger ids = new AtomicInteger();
+    private final Map<Integer, Game> games = new ConcurrentHashMap<>();
+
+    private BookingService bookingService;
+
+    @BeforeEach
+    void setup() {
+        User user = new User("renter");
+        user.setUserId(1);
+        for (int id = 1; id <= GAMES; id++) {
+            Game game = new Game("Game " + id, "desc", 1.0);
+            game.setGameId(id);
+            games.put(id, game);
+        }
+
+        when(userService.getUserById(1)).thenReturn(Optional.of(user));
+        when(gameService.getGame(anyInt())).thenAnswer(inv -> games.get(inv.<Integer>getArgument(0)));
+        when(bookingRepository.findByGameGameIdAndStatusIn(anyInt(), anyCollection()))
+                .thenAnswer(inv -> bookingsOf(inv.getArgument(0), inv.getArgument(1)));
+        when(bookingRepository.existsOverlapping(anyInt(), any(), any(), anyCollection(), any()))
+                .thenAnswer(inv -> {
+                    LocalDate start = inv.getArgument(1);
+                    LocalDate end = inv.getArgument(2);
+                    // Widen the race window between the check and the insert
+                    Thread.yield();
+                    return bookingsOf(inv.getArgument(0), inv.getArgument(3)).stream()
+                            .anyMatch(b -> !b.getStartDate().isAfter(end) && !b.getEndDate().isBefore(start));
+                });
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(inv -> {
+            Booking booking = inv.getArgument(0);
+            booking.setBookingId(ids.incrementAndGet());
+            stored.add(booking);
+            return booking;
+        });
+
+        AvailabilityService availabilityService = new AvailabilityService(bookingRepository);
+        bookingService = new BookingService(bookingRepository, gameService, userService, availabilityService,
+                TransactionOperations.withoutTransaction(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void concurrentReservations_neverOverlapWithinAGame() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                results.add(pool.submit(() -> {
+                    go.await();
+                    int created = 0;
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        int gameId = 1 + random.nextInt(GAMES);
+                        LocalDate start = BASE.plusDays(random.nextInt(120));
+                        LocalDate end = start.plusDays(random.nextInt(5));
+                        if (bookingService.createBooking(1, gameId, start, end) != null) {
+                            created++;
+                        }
+                    }
+                    return created;
+                }));
+            }
+            go.countDown();
+
+            int created = 0;
+            for (Future<Integer> result : results) {
+                created += result.get(60, TimeUnit.SECONDS);
+            }
+
+            assertThat(created).isPositive().isEqualTo(stored.size());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        for (int gameId = 1; gameId <= GAMES; gameId++) {
+            List<Booking> bookings = bookingsOf(gameId, Booking.BLOCKING_STATUSES);
+            for (int i = 0; i < bookings.size(); i++) {
+                for (int j = i + 1; j < bookings.size(); j++) {
+                    Booking a = bookings.get(i);
+                    Booking b = bookings.get(j);
+                    assertThat(!a.getStartDate().isAfter(b.getEndDate()) && !a.getEndDate().isBefore(b.getStartDate()))
+                            .as("bookings %d and %d of game %d overlap", a.getBookingId(), b.getBookingId(), gameId)
+                            .isFalse();
+                }
+            }
+        }
+    }
+
+    private List<Booking> bookingsOf(Integer gameId, Collection<String> statuses) {
+        return stored.stream()
+                .filter(b -> b.getGame().getGameId().equals(gameId) && statuses.contains(b.getStatus()))
+                .toList();
+    }
+}
@@ -2,18 +2,24 @@ package test1.test1.service;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
-import org.mockito.InjectMocks;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
 
 import test1.test1.model.Booking;
 import test1.test1.model.Game;
@@ -32,7 +38,11 @@ class BookingServiceTest {
     @Mock
     private UserService userService;
 
-    @InjectMocks
+    @Mock
+    private AvailabilityService availabilityService;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private BookingService bookingService;
 
     private User user;
@@ -40,6 +50,10 @@ class BookingServiceTest {
 
     @BeforeEach
     void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        bookingService = new BookingService(bookingRepository, gameService, userService, availabilityService,
+                TransactionOperations.withoutTransaction(), meterRegistry);
+
         user = new User("u1");
         user.setUserId(1);
 
@@ -50,12 +64,13 @@ class BookingServiceTest {
 
     @Test
     void createBooking_successfulCreatesAndSaves() {
-        when(userService.getAllUsers()).thenReturn(List.of(user));
+        when(userService.getUserById(1)).thenReturn(Optional.of(user));
         when(gameService.getGame(10)).thenReturn(game);
         when(bookingRepository.save(any(Booking.class))).thenAnswer(inv -> inv.getArgument(0));
 
         LocalDate start = LocalDate.now();
         LocalDate end = start.plusDays(3);
+        when(availabilityService.isAvailable(10, start, end)).thenReturn(true);
 
         Booking b = bookingService.createBooking(1, 10, start, end);
 
@@ -65,11 +80,101 @@ class BookingServiceTest {
         assertThat(b.getStartDate()).isEqualTo(start);
         assertThat(b.getEndDate()).isEqualTo(end);
         verify(bookingRepository).save(any(Booking.class));
+        verify(availabilityService).onBookingSaved(b);
+        assertThat(meterRegistry.counter("bookings.transitions", "from", "NEW", "to", "PENDING").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void createBooking_failsWhenDatesOverlapExistingBooking() {
+        when(userService.getUserById(1)).thenReturn(Optional.of(user));
+        when(gameService.getGame(10)).thenReturn(game);
+        when(availabilityService.isAvailable(eq(10), any(), any())).thenReturn(false);
+
+        Booking b = bookingService.createBooking(1, 10, LocalDate.now(), LocalDate.now().plusDays(1));
+
+        assertThat(b).isNull();
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void createBooking_failsWhenEndBeforeStart() {
+        when(userService.getUserById(1)).thenReturn(Optional.of(user));
+        when(gameService.getGame(10)).thenReturn(game);
+
+        Booking b = bookingService.createBooking(1, 10, LocalDate.now(), LocalDate.now().minusDays(1));
+
+        assertThat(b).isNull();
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void updateBookingStatus_updatesAvailabilityIndex() {
+        Booking booking = new Booking(user, game, LocalDate.now(), LocalDate.now().plusDays(1), 4.0);
+        booking.setBookingId(3);
+        when(bookingRepository.findById(3)).thenReturn(Optional.of(booking));
+        when(bookingRepository.save(booking)).thenReturn(booking);
+
+        Booking updated = bookingService.updateBookingStatus(3, "DECLINED");
+
+        assertThat(updated.getStatus()).isEqualTo("DECLINED");
+        verify(availabilityService).onBookingSaved(booking);
+        assertThat(meterRegistry.counter("bookings.transitions", "from", "PENDING", "to", "DECLINED").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void createBooking_failsWhenDatabaseReportsOverlap() {
+        when(userService.getUserById(1)).thenReturn(Optional.of(user));
+        when(gameService.getGame(10)).thenReturn(game);
+        LocalDate start = LocalDate.now();
+        LocalDate end = start.plusDays(2);
+        when(availabilityService.isAvailable(10, start, end)).thenReturn(true);
+        when(bookingRepository.existsOverlapping(10, start, end, Booking.BLOCKING_STATUSES, null)).thenReturn(true);
+
+        Booking b = bookingService.createBooking(1, 10, start, end);
+
+        assertThat(b).isNull();
+        verify(bookingRepository, never()).save(any());
+        verify(availabilityService, never()).onBookingSaved(any());
+        assertThat(meterRegistry.counter("bookings.rejected", "reason", "unavailable").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void createBooking_locksGameRowBeforeCheckingOverlap() {
+        when(userService.getUserById(1)).thenReturn(Optional.of(user));
+        when(gameService.getGame(10)).thenReturn(game);
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(inv -> inv.getArgument(0));
+        LocalDate start = LocalDate.now();
+        LocalDate end = start.plusDays(2);
+        when(availabilityService.isAvailable(10, start, end)).thenReturn(true);
+
+        bookingService.createBooking(1, 10, start, end);
+
+        // Other instances don't share the in-process lock, so the row lock must come first
+        InOrder order = inOrder(bookingRepository);
+        order.verify(bookingRepository).lockGame(10);
+        order.verify(bookingRepository).existsOverlapping(10, start, end, Booking.BLOCKING_STATUSES, null);
+        order.verify(bookingRepository).save(any(Booking.class));
+    }
+
+    @Test
+    void updateBookingStatus_rejectsApprovingDeclinedBookingWhoseDatesAreTaken() {
+        Booking booking = new Booking(user, game, LocalDate.now(), LocalDate.now().plusDays(1), 4.0);
+        booking.setBookingId(3);
+        booking.setStatus("DECLINED");
+        when(bookingRepository.findById(3)).thenReturn(Optional.of(booking));
+        when(bookingRepository.existsOverlapping(10, booking.getStartDate(), booking.getEndDate(),
+                Booking.BLOCKING_STATUSES, 3)).thenReturn(true);
+
+        assertThatThrownBy(() -> bookingService.updateBookingStatus(3, "APPROVED"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(booking.getStatus()).isEqualTo("DECLINED");
+        verify(bookingRepository, never()).save(any());
     }
 
     @Test
     void createBooking_failsWhenUserMissing() {
-        when(userService.getAllUsers()).thenReturn(List.of());
+        when(userService.getUserById(1)).thenReturn(Optional.empty());
         when(gameService.getGame(10)).thenReturn(game);
 
         Booking b = bookingService.createBooking(1, 10, LocalDate.now(), LocalDate.now().plusDays(1));
@@ -81,7 +186,7 @@ class BookingServiceTest {
     @Test
     void createBooking_failsWhenGameUnavailable() {
         user.setUserId(1);
-        when(userService.getAllUsers()).thenReturn(List.of(user));
+        when(userService.getUserById(1)).thenReturn(Optional.of(user));
         // Return null instead of setting active to false, since the service only checks for null
         when(gameService.getGame(10)).thenReturn(null);
 
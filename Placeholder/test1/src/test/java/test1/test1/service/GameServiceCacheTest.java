@@ -0,0 +1,172 @@
+package test1.test1.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import test1.test1.config.CacheConfig;
+import test1.test1.dto.CatalogStamp;
+import test1.test1.model.Game;
+import test1.test1.repository.GameRepository;
+import test1.test1.repository.GameTagRepository;
+
+@SpringJUnitConfig(GameServiceCacheTest.Config.class)
+class GameServiceCacheTest {
+
+    @Configuration
+    @EnableCaching
+    static class Config {
+        @Bean
+        GameRepository gameRepository() {
+            return mock(GameRepository.class);
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(CacheConfig.GAMES_BY_ID, CacheConfig.GAMES_BY_OWNER,
+                CacheConfig.GAME_CATALOG);
+        }
+
+        @Bean
+        GameService gameService(GameRepository gameRepository) {
+            return new GameService(gameRepository, mock(GameTagRepository.class), mock(ImageGarbageCollector.class));
+        }
+    }
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Game game;
+
+    @BeforeEach
+    void setup() {
+        reset(gameRepository);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        game = new Game("Halo", "desc", 3.0);
+        game.setGameId(1);
+        game.setOwnerUsername("john");
+    }
+
+    @Test
+    void getGameAndGetGameById_shareOneLoad() {
+        when(gameRepository.findById(1)).thenReturn(Optional.of(game));
+
+        assertThat(gameService.getGameById(1)).contains(game);
+        assertThat(gameService.getGame(1)).isSameAs(game);
+        assertThat(gameService.getGameById(1)).contains(game);
+
+        verify(gameRepository, times(1)).findById(1);
+    }
+
+    @Test
+    void getGame_doesNotCacheMisses() {
+        when(gameRepository.findById(2)).thenReturn(Optional.empty());
+
+        assertThat(gameService.getGame(2)).isNull();
+        assertThat(gameService.getGameById(2)).isEmpty();
+
+        verify(gameRepository, times(2)).findById(2);
+    }
+
+    @Test
+    void reloadGame_replacesCachedCopy() {
+        Game newer = new Game("Halo 2", "desc", 3.0);
+        newer.setGameId(1);
+        newer.setVersion(1);
+        when(gameRepository.findById(1)).thenReturn(Optional.of(game), Optional.of(newer));
+
+        gameService.getGameById(1);
+        assertThat(gameService.reloadGame(1)).isSameAs(newer);
+
+        assertThat(gameService.getGame(1)).isSameAs(newer);
+        verify(gameRepository, times(2)).findById(1);
+    }
+
+    @Test
+    void catalogTagMove_dropsCachedCatalog() {
+        GameVersions versions = new GameVersions(gameRepository, cacheManager);
+        when(gameRepository.findAll()).thenReturn(List.of(game));
+        when(gameRepository.catalogStamp()).thenReturn(new CatalogStamp(1L, 0L, null));
+
+        versions.catalogETag();
+        gameService.getAllGames();
+        versions.catalogETag();
+        gameService.getAllGames();
+        verify(gameRepository, times(1)).findAll();
+
+        // Written by another instance, so nothing here evicted the cache
+        when(gameRepository.catalogStamp()).thenReturn(new CatalogStamp(1L, 1L, null));
+        versions.catalogETag();
+        gameService.getAllGames();
+        verify(gameRepository, times(2)).findAll();
+    }
+
+    @Test
+    void getAllGames_evictedByAddGame() {
+        when(gameRepository.findAll()).thenReturn(List.of(game));
+        when(gameRepository.save(any(Game.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        assertThat(gameService.getAllGames()).containsExactly(game);
+        assertThat(gameService.getAllGames()).containsExactly(game);
+        gameService.addGame("Chess", "desc", 1.0, "good", "", "", true, null, null, "john");
+        gameService.getAllGames();
+
+        verify(gameRepository, times(2)).findAll();
+    }
+
+    @Test
+    void getGamesByOwner_evictedByDeleteGame() {
+        when(gameRepository.findByOwnerUsername("john")).thenReturn(List.of(game));
+        when(gameRepository.findById(1)).thenReturn(Optional.of(game));
+
+        gameService.getGamesByOwner("john");
+        gameService.getGamesByOwner("john");
+        assertThat(gameService.deleteGame(1, "john")).isTrue();
+        gameService.getGamesByOwner("john");
+
+        verify(gameRepository, times(2)).findByOwnerUsername("john");
+    }
+
+    @Test
+    void updateGame_evictsGameOwnerListingsAndCatalog() {
+        when(gameRepository.findById(1)).thenReturn(Optional.of(game));
+        when(gameRepository.findByOwnerUsername("john")).thenReturn(List.of(game));
+        when(gameRepository.findAll()).thenReturn(List.of(game));
+        when(gameRepository.save(game)).thenReturn(game);
+        gameService.getGame(1);
+        gameService.getGamesByOwner("john");
+        gameService.getAllGames();
+
+        gameService.updateGame(1, "Halo 2", "desc", null, 4.0, "good", null, null, true, null, null);
+        gameService.getGame(1);
+        gameService.getGamesByOwner("john");
+        gameService.getAllGames();
+
+        // one load before the update, one inside it, one after eviction
+        verify(gameRepository, times(3)).findById(1);
+        verify(gameRepository, times(2)).findByOwnerUsername("john");
+        verify(gameRepository, times(2)).findAll();
+    }
+}
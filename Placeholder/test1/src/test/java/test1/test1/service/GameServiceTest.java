@@ -10,14 +10,23 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import test1.test1.dto.CursorPage;
+import test1.test1.dto.GameSearchCriteria;
+import test1.test1.dto.GameSummary;
 import test1.test1.model.Game;
+import test1.test1.model.GameTag;
 import test1.test1.repository.GameRepository;
+import test1.test1.repository.GameTagRepository;
 
 @ExtendWith(MockitoExtension.class)
 class GameServiceTest {
@@ -25,6 +34,12 @@ class GameServiceTest {
     @Mock
     private GameRepository gameRepository;
 
+    @Mock
+    private GameTagRepository gameTagRepository;
+
+    @Mock
+    private ImageGarbageCollector imageGarbageCollector;
+
     @InjectMocks
     private GameService gameService;
 
@@ -55,6 +70,74 @@ class GameServiceTest {
         assertThat(list).hasSize(2);
     }
 
+    @Test
+    void addGame_indexesNormalizedTags() {
+        when(gameRepository.save(any(Game.class))).thenAnswer(inv -> {
+            Game g = inv.getArgument(0);
+            g.setGameId(7);
+            return g;
+        });
+
+        gameService.addGame("Zelda", "desc", 3.0, "good", "", " Nintendo Switch ,Adventure,adventure,", true, null, null, "john");
+
+        verify(gameTagRepository).deleteByGameId(7);
+        verify(gameTagRepository).save(argThat(t -> t.getGameId() == 7 && t.getTag().equals("nintendo switch")));
+        verify(gameTagRepository).save(argThat(t -> t.getGameId() == 7 && t.getTag().equals("adventure")));
+        verify(gameTagRepository, times(2)).save(any(GameTag.class));
+    }
+
+    @Test
+    void getGamesWithAllTags_normalizesAndCountsDistinctTags() {
+        Game g = new Game("Halo", "desc", 2.0);
+        when(gameRepository.findByAllTags(argThat(tags -> tags.size() == 2 && tags.contains("xbox") && tags.contains("shooter")), eq(2L)))
+            .thenReturn(List.of(g));
+
+        List<Game> result = gameService.getGamesWithAllTags(List.of("Xbox", " SHOOTER", "xbox"));
+
+        assertThat(result).containsExactly(g);
+    }
+
+    @Test
+    void getGamesWithAnyTag_emptyInputSkipsQuery() {
+        assertThat(gameService.getGamesWithAnyTag(List.of(" ", ""))).isEmpty();
+        verify(gameRepository, never()).findByAnyTag(any());
+    }
+
+    @Test
+    void backfillTagIndex_skipsWhenEveryTaggedGameIsIndexed() {
+        when(gameRepository.findWithUnindexedTags()).thenReturn(List.of());
+
+        gameService.backfillTagIndex();
+
+        verify(gameRepository, never()).findAll();
+        verify(gameTagRepository, never()).save(any(GameTag.class));
+    }
+
+    @Test
+    void backfillTagIndex_rebuildsFromTagColumn() {
+        Game g = new Game("Halo", "desc", 2.0);
+        g.setGameId(4);
+        g.setTags("Xbox,Shooter");
+        when(gameRepository.findWithUnindexedTags()).thenReturn(List.of(g));
+
+        gameService.backfillTagIndex();
+
+        verify(gameTagRepository).deleteByGameId(4);
+        verify(gameTagRepository, times(2)).save(any(GameTag.class));
+    }
+
+    @Test
+    void searchGames_delegatesToCatalogQuery() {
+        GameSearchCriteria criteria = new GameSearchCriteria();
+        CursorPage<GameSummary> page = new CursorPage<>(List.of(), null);
+        when(gameRepository.searchCatalog(criteria)).thenReturn(page);
+
+        var result = gameService.searchGames(criteria);
+
+        assertThat(result).isSameAs(page);
+        verify(gameRepository).searchCatalog(criteria);
+    }
+
     @Test
     void getGameById() {
         Game g = new Game("Checkers", "Desc", 1.0);
@@ -105,6 +188,7 @@ class GameServiceTest {
         existingGame.setGameId(5);
         existingGame.setCondition("good");
         existingGame.setOwnerUsername("john");
+        existingGame.setPhotos("old.jpg");
 
         Game updatedGame = new Game("New Title", "New Desc", 15.0);
         updatedGame.setGameId(5);
@@ -124,6 +208,7 @@ class GameServiceTest {
         assertThat(result.getCondition()).isEqualTo("excellent");
         verify(gameRepository).findById(5);
         verify(gameRepository).save(any(Game.class));
+        verify(imageGarbageCollector).releaseRemoved("old.jpg", "photo.jpg");
     }
 
     @Test
@@ -151,6 +236,7 @@ class GameServiceTest {
         assertThat(result).isNotNull();
         verify(gameRepository).findById(5);
         verify(gameRepository).save(any(Game.class));
+        verify(imageGarbageCollector, never()).releaseRemoved(any(), any());
     }
 
     @Test
@@ -158,6 +244,7 @@ class GameServiceTest {
         Game game = new Game("Game", "Desc", 10.0);
         game.setGameId(5);
         game.setOwnerUsername("john");
+        game.setPhotos("/images/game_images/a.png");
 
         when(gameRepository.findById(5)).thenReturn(Optional.of(game));
 
@@ -165,7 +252,9 @@ class GameServiceTest {
 
         assertThat(result).isTrue();
         verify(gameRepository).findById(5);
+        verify(gameTagRepository).deleteByGameId(5);
         verify(gameRepository).deleteById(5);
+        verify(imageGarbageCollector).releaseRemoved("/images/game_images/a.png", null);
     }
 
     @Test
@@ -0,0 +1,161 @@
+package test1.test1.service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionOperations;
+import tools.jackson.databind.json.JsonMapper;
+
+import test1.test1.config.CacheConfig;
+import test1.test1.model.IdempotencyRecord;
+import test1.test1.repository.IdempotencyRecordRepository;
+
+class IdempotencyServiceTest {
+
+    private final Map<String, IdempotencyRecord> rows = new ConcurrentHashMap<>();
+    private final AtomicInteger executions = new AtomicInteger();
+    private IdempotencyService service;
+
+    @BeforeEach
+    void setup() {
+        IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+        when(repository.findById(anyString())).thenAnswer(inv -> Optional.ofNullable(rows.get(inv.<String>getArgument(0))));
+        when(repository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(inv -> store(inv.getArgument(0)));
+        when(repository.save(any(IdempotencyRecord.class))).thenAnswer(inv -> store(inv.getArgument(0)));
+        doAnswer(inv -> rows.remove(inv.<String>getArgument(0))).when(repository).deleteById(anyString());
+
+        service = new IdempotencyService(repository, new ConcurrentMapCacheManager(CacheConfig.IDEMPOTENCY_KEYS),
+            TransactionOperations.withoutTransaction(), JsonMapper.builder().build(), new SimpleMeterRegistry(), 24);
+    }
+
+    private IdempotencyRecord store(IdempotencyRecord record) {
+        rows.put(record.getIdempotencyKey(), record);
+        return record;
+    }
+
+    private ResponseEntity<?> pay() {
+        return ResponseEntity.ok(Map.of("paymentId", executions.incrementAndGet(), "status", "COMPLETED"));
+    }
+
+    private static Map<String, Object> request(double amount) {
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("method", "stripe");
+        request.put("amount", amount);
+        request.put("bookingData", Map.of("gameId", 5, "startDate", "2025-12-20"));
+        return request;
+    }
+
+    @Test
+    void retryReplaysFirstResponseWithoutRunningAgain() {
+        ResponseEntity<?> first = service.execute("key-1", request(10.0), this::pay);
+        ResponseEntity<?> retry = service.execute("key-1", request(10.0), this::pay);
+
+        assertThat(executions).hasValue(1);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(retry.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+        assertThat((Map<?, ?>) retry.getBody()).isEqualTo(first.getBody());
+        assertThat(rows.get("key-1").getResponseStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void reusedKeyWithDifferentRequestIsRejected() {
+        service.execute("key-1", request(10.0), this::pay);
+
+        ResponseEntity<?> response = service.execute("key-1", request(99.0), this::pay);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_CONTENT);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void serverErrorReleasesKeySoRetryRunsAgain() {
+        ResponseEntity<?> failed = service.execute("key-1", request(10.0),
+            () -> ResponseEntity.status(500).body(Map.of("message", "Payment processing error")));
+        assertThat(failed.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(rows).doesNotContainKey("key-1");
+
+        service.execute("key-1", request(10.0), this::pay);
+
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void businessFailureIsStoredAndReplayed() {
+        service.execute("key-1", request(10.0), () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.badRequest().body(Map.of("message", "Unable to create booking"));
+        });
+
+        ResponseEntity<?> retry = service.execute("key-1", request(10.0), this::pay);
+
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void keyClaimedElsewhereAnswersConflict() {
+        store(new IdempotencyRecord("key-1", service.hash(request(10.0)),
+            LocalDateTime.now().plusMinutes(5)));
+
+        ResponseEntity<?> response = service.execute("key-1", request(10.0), this::pay);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    void hashIgnoresFieldOrder() {
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("bookingData", Map.of("startDate", "2025-12-20", "gameId", 5));
+        reordered.put("amount", 10.0);
+        reordered.put("method", "stripe");
+
+        assertThat(service.hash(reordered)).isEqualTo(service.hash(request(10.0)));
+        assertThat(service.hash(request(11.0))).isNotEqualTo(service.hash(request(10.0)));
+    }
+
+    @Test
+    void concurrentRetriesRunOnce() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<?>[] results = new Future<?>[threads];
+            for (int i = 0; i < threads; i++) {
+                results[i] = pool.submit(() -> {
+                    start.await();
+                    return service.execute("key-1", request(10.0), this::pay);
+                });
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                assertThat(((ResponseEntity<?>) result.get(10, TimeUnit.SECONDS)).getStatusCode())
+                    .isEqualTo(HttpStatus.OK);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(executions).hasValue(1);
+    }
+}
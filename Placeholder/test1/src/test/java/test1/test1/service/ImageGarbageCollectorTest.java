@@ -0,0 +1,126 @@
+package test1.test1.service;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.mock.web.MockMultipartFile;
+
+import test1.test1.repository.GameRepository;
+import test1.test1.util.ImageVariant;
+
+class ImageGarbageCollectorTest {
+
+    @TempDir
+    Path root;
+
+    private GameRepository gameRepository;
+    private ImageStorageService storage;
+
+    @BeforeEach
+    void setup() {
+        gameRepository = mock(GameRepository.class);
+        storage = new ImageStorageService(root.toString());
+    }
+
+    private String storeAged(String content, Duration age) throws Exception {
+        String name = storage.store(new MockMultipartFile("file", "a.gif", "image/gif",
+            ("GIF89a" + content).getBytes(StandardCharsets.US_ASCII)));
+        Files.setLastModifiedTime(storage.resolve(name), FileTime.from(Instant.now().minus(age)));
+        return name;
+    }
+
+    @Test
+    void releaseRemoved_deletesUnreferencedImage() throws Exception {
+        String name = storeAged("orphan", Duration.ofHours(2));
+        when(gameRepository.existsByPhotosContaining(name)).thenReturn(false);
+
+        new ImageGarbageCollector(gameRepository, storage, 60)
+            .releaseRemoved(ImageVariant.URL_PREFIX + name, null);
+
+        assertThat(storage.resolve(name)).doesNotExist();
+    }
+
+    @Test
+    void releaseRemoved_keepsImageStillUsedByAnotherGame() throws Exception {
+        String name = storeAged("shared", Duration.ofHours(2));
+        when(gameRepository.existsByPhotosContaining(name)).thenReturn(true);
+
+        new ImageGarbageCollector(gameRepository, storage, 60)
+            .releaseRemoved(ImageVariant.URL_PREFIX + name, null);
+
+        assertThat(storage.resolve(name)).exists();
+    }
+
+    @Test
+    void releaseRemoved_keepsRecentUploadWithinGracePeriod() throws Exception {
+        String name = storeAged("fresh", Duration.ofMinutes(5));
+        when(gameRepository.existsByPhotosContaining(name)).thenReturn(false);
+
+        new ImageGarbageCollector(gameRepository, storage, 60)
+            .releaseRemoved(ImageVariant.URL_PREFIX + name, null);
+
+        assertThat(storage.resolve(name)).exists();
+    }
+
+    @Test
+    void releaseRemoved_ignoresKeptAndLegacyPhotos() throws Exception {
+        String kept = storeAged("kept", Duration.ofHours(2));
+        String url = ImageVariant.URL_PREFIX + kept;
+
+        new ImageGarbageCollector(gameRepository, storage, 0)
+            .releaseRemoved(url + ",/images/game_images/1700000000000_ab12cd34.png,https://example.com/x.png", url);
+
+        assertThat(storage.resolve(kept)).exists();
+        verify(gameRepository, never()).existsByPhotosContaining(anyString());
+    }
+
+    @Test
+    void sweep_deletesAgedOrphansAndTheirVariants() throws Exception {
+        String orphan = storeAged("never attached", Duration.ofHours(2));
+        Path thumb = storage.resolve(ImageVariant.THUMB.fileName(orphan));
+        Files.writeString(thumb, "thumb");
+        String used = storeAged("used", Duration.ofHours(2));
+        when(gameRepository.findAllPhotos()).thenReturn(List.of("https://example.com/x.png," + ImageVariant.URL_PREFIX + used));
+
+        new ImageGarbageCollector(gameRepository, storage, 60).sweep();
+
+        assertThat(storage.resolve(orphan)).doesNotExist();
+        assertThat(thumb).doesNotExist();
+        assertThat(storage.resolve(used)).exists();
+    }
+
+    @Test
+    void sweep_keepsOrphansWithinGracePeriod() throws Exception {
+        String fresh = storeAged("just uploaded", Duration.ofMinutes(5));
+        when(gameRepository.findAllPhotos()).thenReturn(List.of());
+
+        new ImageGarbageCollector(gameRepository, storage, 60).sweep();
+
+        assertThat(storage.resolve(fresh)).exists();
+    }
+
+    @Test
+    void sweep_keepsFileAttachedDuringTheSweep() throws Exception {
+        String name = storeAged("attached late", Duration.ofHours(2));
+        when(gameRepository.findAllPhotos()).thenReturn(List.of());
+        when(gameRepository.existsByPhotosContaining(name)).thenReturn(true);
+
+        new ImageGarbageCollector(gameRepository, storage, 60).sweep();
+
+        assertThat(storage.resolve(name)).exists();
+    }
+}
@@ -0,0 +1,95 @@
+package test1.test1.service;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import test1.test1.service.ImageStorageService.ImageType;
+import test1.test1.util.ImageVariant;
+
+class ImageStorageServiceTest {
+
+    @TempDir
+    Path root;
+
+    private static ImageType sniff(byte... head) {
+        return ImageStorageService.sniff(head, head.length);
+    }
+
+    @Test
+    void sniff_recognizesSupportedSignatures() {
+        assertThat(sniff(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'})).isEqualTo(ImageType.PNG);
+        assertThat(sniff((byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0)).isEqualTo(ImageType.JPEG);
+        assertThat(sniff("GIF89a".getBytes(StandardCharsets.US_ASCII))).isEqualTo(ImageType.GIF);
+        assertThat(sniff("RIFF\0\0\0\0WEBPVP8 ".getBytes(StandardCharsets.US_ASCII))).isEqualTo(ImageType.WEBP);
+    }
+
+    @Test
+    void sniff_rejectsOtherContent() {
+        assertThat(sniff("%PDF-1.7".getBytes(StandardCharsets.US_ASCII))).isNull();
+        assertThat(sniff("RIFF\0\0\0\0WAVEfmt ".getBytes(StandardCharsets.US_ASCII))).isNull();
+        assertThat(sniff((byte) 0xFF, (byte) 0xD8)).isNull();
+        assertThat(sniff()).isNull();
+    }
+
+    @Test
+    void store_streamsLargeFileAndStoresIdenticalBytesOnce() throws Exception {
+        ImageStorageService service = new ImageStorageService(root.resolve("images").toString());
+        byte[] content = new byte[3 * 1024 * 1024 + 17];
+        content[0] = (byte) 0x89;
+        content[1] = 'P';
+        content[2] = 'N';
+        content[3] = 'G';
+        content[content.length - 1] = 42;
+
+        String first = service.store(new MockMultipartFile("file", "a", "application/octet-stream", content));
+        String second = service.store(new MockMultipartFile("file", "a", "application/octet-stream", content));
+
+        assertThat(first).endsWith(".png").isEqualTo(second);
+        assertThat(ImageStorageService.isContentAddressed(first)).isTrue();
+        assertThat(Files.readAllBytes(service.getRoot().resolve(first))).isEqualTo(content);
+
+        content[content.length - 1] = 43;
+        String third = service.store(new MockMultipartFile("file", "a", "application/octet-stream", content));
+        assertThat(third).isNotEqualTo(first);
+    }
+
+    @Test
+    void delete_removesImageAndVariants() throws Exception {
+        ImageStorageService service = new ImageStorageService(root.toString());
+        String name = service.store(new MockMultipartFile("file", "a.gif", "image/gif",
+            "GIF89a-content".getBytes(StandardCharsets.US_ASCII)));
+        Files.writeString(service.resolve(ImageVariant.THUMB.fileName(name)), "thumb");
+
+        service.delete(name);
+
+        assertThat(service.resolve(name)).doesNotExist();
+        assertThat(service.resolve(ImageVariant.THUMB.fileName(name))).doesNotExist();
+    }
+
+    @Test
+    void resolve_rejectsNamesOutsideRoot() {
+        ImageStorageService service = new ImageStorageService(root.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> service.resolve("../x.png"));
+        assertThrows(IllegalArgumentException.class, () -> service.resolve("ab/../../x.png"));
+    }
+
+    @Test
+    void store_rejectedUploadLeavesNothingBehind() throws Exception {
+        ImageStorageService service = new ImageStorageService(root.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> service.store(
+            new MockMultipartFile("file", "x.png", "image/png", "not an image".getBytes(StandardCharsets.US_ASCII))));
+
+        try (var files = Files.list(root)) {
+            assertThat(files).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package test1.test1.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import test1.test1.util.ImageVariant;
+
+class ImageVariantServiceTest {
+
+    @TempDir
+    Path root;
+
+    private ImageStorageService storage;
+    private ImageVariantService variants;
+
+    @BeforeEach
+    void setup() {
+        storage = new ImageStorageService(root.toString());
+        variants = new ImageVariantService(storage, new SimpleMeterRegistry(), 1, 4, 0.8f, false);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        variants.destroy();
+    }
+
+    @Test
+    void generate_writesEachVariantScaledToItsLongestSide() throws Exception {
+        BufferedImage original = new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = original.createGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, 1000, 1000);
+        g.dispose();
+        ImageIO.write(original, "png", root.resolve("cover.png").toFile());
+
+        assertThat(variants.generate("cover.png")).isTrue();
+
+        BufferedImage thumb = ImageIO.read(root.resolve("cover-thumb.jpg").toFile());
+        BufferedImage card = ImageIO.read(root.resolve("cover-card.jpg").toFile());
+        BufferedImage full = ImageIO.read(root.resolve("cover-full.jpg").toFile());
+        assertThat(thumb.getWidth()).isEqualTo(320);
+        assertThat(thumb.getHeight()).isEqualTo(160);
+        assertThat(card.getWidth()).isEqualTo(640);
+        assertThat(full.getWidth()).isEqualTo(1600);
+        assertThat(Files.size(root.resolve("cover-thumb.jpg"))).isLessThan(Files.size(root.resolve("cover.png")));
+    }
+
+    @Test
+    void generate_doesNotEnlargeSmallImages() throws Exception {
+        ImageIO.write(new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB), "png", root.resolve("small.png").toFile());
+
+        variants.generate("small.png");
+
+        BufferedImage full = ImageIO.read(root.resolve(ImageVariant.FULL.fileName("small.png")).toFile());
+        assertThat(full.getWidth()).isEqualTo(100);
+        assertThat(full.getHeight()).isEqualTo(50);
+    }
+
+    @Test
+    void generate_skipsUndecodableImages() throws Exception {
+        Files.write(root.resolve("stub.png"), new byte[]{(byte) 0x89, 0x50, 0x4E});
+
+        assertThat(variants.generate("stub.png")).isFalse();
+        assertThat(root.resolve("stub-thumb.jpg")).doesNotExist();
+    }
+}
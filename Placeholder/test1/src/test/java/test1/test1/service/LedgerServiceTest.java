@@ -0,0 +1,91 @@
+package test1.test1.service;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import test1.test1.model.Booking;
+import test1.test1.model.Game;
+import test1.test1.model.LedgerBalance;
+import test1.test1.model.LedgerEntry;
+import test1.test1.model.Payment;
+import test1.test1.model.User;
+import test1.test1.repository.LedgerBalanceRepository;
+import test1.test1.repository.LedgerEntryRepository;
+
+class LedgerServiceTest {
+
+    private LedgerEntryRepository entryRepository;
+    private LedgerBalanceRepository balanceRepository;
+    private LedgerService ledgerService;
+
+    @BeforeEach
+    void setup() {
+        entryRepository = mock(LedgerEntryRepository.class);
+        balanceRepository = mock(LedgerBalanceRepository.class);
+        ledgerService = new LedgerService(entryRepository, balanceRepository);
+    }
+
+    private static Payment payment(String owner, double amount, String currency) {
+        Game game = new Game("Chess", "Desc", 10.0);
+        game.setOwnerUsername(owner);
+        Booking booking = new Booking(new User("john"), game, LocalDate.now(), LocalDate.now().plusDays(1), amount);
+        Payment payment = new Payment(booking, "stripe", amount, currency);
+        payment.setPaymentId(4);
+        return payment;
+    }
+
+    @Test
+    void chargeCreditsOwnerAndPlatformInMinorUnits() {
+        when(entryRepository.insertIfAbsent(eq(4), eq(LedgerEntry.CHARGE), eq("alice"), eq("USD"), eq(1999L), any()))
+            .thenReturn(1);
+
+        boolean added = ledgerService.recordCharge(payment("alice", 19.99, "USD"));
+
+        assertThat(added).isTrue();
+        verify(balanceRepository).add(eq("owner:alice"), eq("USD"), eq(1999L), any());
+        verify(balanceRepository).add(eq(LedgerBalance.PLATFORM), eq("USD"), eq(1999L), any());
+    }
+
+    @Test
+    void refundIsANegativeEntry() {
+        when(entryRepository.insertIfAbsent(eq(4), eq(LedgerEntry.REFUND), eq("alice"), eq("JPY"), eq(-1500L), any()))
+            .thenReturn(1);
+
+        assertThat(ledgerService.recordRefund(payment("alice", 1500, "JPY"))).isTrue();
+
+        verify(balanceRepository).add(eq("owner:alice"), eq("JPY"), eq(-1500L), any());
+        verify(balanceRepository).add(eq(LedgerBalance.PLATFORM), eq("JPY"), eq(-1500L), any());
+    }
+
+    @Test
+    void alreadyRecordedPaymentLeavesBalancesAlone() {
+        when(entryRepository.insertIfAbsent(any(), anyString(), any(), anyString(), anyLong(), any())).thenReturn(0);
+
+        assertThat(ledgerService.recordCharge(payment("alice", 20.0, "USD"))).isFalse();
+
+        verify(balanceRepository, never()).add(anyString(), anyString(), anyLong(), any());
+    }
+
+    @Test
+    void gameWithoutOwnerOnlyMovesThePlatformBalance() {
+        when(entryRepository.insertIfAbsent(eq(4), eq(LedgerEntry.CHARGE), isNull(), eq("EUR"), eq(500L), any()))
+            .thenReturn(1);
+
+        ledgerService.recordCharge(payment(null, 5.0, "EUR"));
+
+        verify(balanceRepository).add(eq(LedgerBalance.PLATFORM), eq("EUR"), eq(500L), any());
+        verify(balanceRepository, never()).add(eq("owner:null"), anyString(), anyLong(), any());
+    }
+}
@@ -0,0 +1,227 @@
+package test1.test1.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.transaction.support.TransactionOperations;
+import tools.jackson.databind.json.JsonMapper;
+
+import test1.test1.dto.ReconciliationTotal;
+import test1.test1.model.BatchCheckpoint;
+import test1.test1.model.Booking;
+import test1.test1.model.Game;
+import test1.test1.model.Payment;
+import test1.test1.model.User;
+import test1.test1.repository.BatchCheckpointRepository;
+import test1.test1.repository.PaymentRepository;
+import test1.test1.repository.PaymentRepository.PaymentKey;
+
+class PaymentBatchServiceTest {
+
+    private static final LocalDateTime FROM = LocalDate.of(2026, 9, 1).atStartOfDay();
+    private static final LocalDateTime TO = LocalDate.of(2026, 10, 1).atStartOfDay();
+    private static final LocalDateTime CREATED = FROM.plusDays(3);
+
+    private PaymentRepository paymentRepository;
+    private BatchCheckpointRepository checkpointRepository;
+    private PaymentProcessor paymentProcessor;
+    private LedgerService ledgerService;
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentBatchService batchService;
+
+    @BeforeEach
+    void setup() {
+        paymentRepository = mock(PaymentRepository.class);
+        checkpointRepository = mock(BatchCheckpointRepository.class);
+        paymentProcessor = mock(PaymentProcessor.class);
+        ledgerService = mock(LedgerService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        // Pages of two, one at a time
+        batchService = new PaymentBatchService(paymentRepository, checkpointRepository, paymentProcessor, ledgerService,
+            TransactionOperations.withoutTransaction(), JsonMapper.builder().build(), meterRegistry, 2, 1, 15, 5, false);
+    }
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        batchService.destroy();
+    }
+
+    private BatchCheckpoint job(String type) {
+        BatchCheckpoint job = new BatchCheckpoint("job", type, FROM, TO, "Declined");
+        when(checkpointRepository.findById("job")).thenReturn(Optional.of(job));
+        return job;
+    }
+
+    private static PaymentKey key(int id) {
+        return new PaymentKey() {
+            @Override
+            public Integer getPaymentId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return CREATED;
+            }
+        };
+    }
+
+    private static Payment payment(int id, String status, String bookingStatus) {
+        Booking booking = new Booking(new User("john"), new Game("Chess", "Desc", 10.0),
+            LocalDate.now(), LocalDate.now().plusDays(1), 20.0);
+        booking.setStatus(bookingStatus);
+        Payment payment = new Payment(booking, "stripe", 20.0, "USD");
+        payment.setPaymentId(id);
+        payment.setStatus(status);
+        payment.setCreatedAt(CREATED);
+        return payment;
+    }
+
+    @Test
+    void refundJobRefundsCompletedPaymentsOfDeclinedBookings() {
+        BatchCheckpoint job = job(BatchCheckpoint.REFUND);
+        Payment declined = payment(1, "COMPLETED", "DECLINED");
+        Payment approved = payment(2, "COMPLETED", "APPROVED");
+        Payment lastDeclined = payment(3, "COMPLETED", "DECLINED");
+        when(paymentRepository.findKeysAfter(any(), anyInt(), eq(TO), eq("COMPLETED"), any()))
+            .thenReturn(List.of(key(1), key(2)), List.of(key(3)));
+        when(paymentRepository.findByPaymentIdIn(List.of(1, 2))).thenReturn(List.of(declined, approved));
+        when(paymentRepository.findByPaymentIdIn(List.of(3))).thenReturn(List.of(lastDeclined));
+
+        batchService.run("job");
+
+        assertThat(declined.getStatus()).isEqualTo("REFUNDED");
+        assertThat(declined.getFailureReason()).isEqualTo("Declined");
+        assertThat(approved.getStatus()).isEqualTo("COMPLETED");
+        assertThat(lastDeclined.getStatus()).isEqualTo("REFUNDED");
+        verify(ledgerService).recordRefund(declined);
+        verify(ledgerService, never()).recordRefund(approved);
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getProcessed()).isEqualTo(3);
+        assertThat(job.getAffected()).isEqualTo(2);
+        assertThat(job.getLastPaymentId()).isEqualTo(3);
+        assertThat(meterRegistry.counter("payments.batch.items", "job", "REFUND", "outcome", "changed").count())
+            .isEqualTo(2.0);
+    }
+
+    @Test
+    void resumesAfterTheCheckpoint() {
+        BatchCheckpoint job = job(BatchCheckpoint.REFUND);
+        job.setLastCreatedAt(CREATED);
+        job.setLastPaymentId(40);
+        when(paymentRepository.findKeysAfter(any(), anyInt(), any(), any(), any())).thenReturn(List.of());
+
+        batchService.run("job");
+
+        verify(paymentRepository).findKeysAfter(eq(CREATED), eq(40), eq(TO), eq("COMPLETED"), any());
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    void reconciliationTotalsPaymentsAndRetriesStalePending() {
+        BatchCheckpoint job = job(BatchCheckpoint.RECONCILE);
+        Payment completed = payment(1, "COMPLETED", "APPROVED");
+        Payment stale = payment(2, "PENDING", "APPROVED");
+        when(paymentRepository.findKeysAfter(any(), anyInt(), any(), any(), any()))
+            .thenReturn(List.of(key(1), key(2)), List.of());
+        when(paymentRepository.findByPaymentIdIn(List.of(1, 2))).thenReturn(List.of(completed, stale));
+
+        batchService.run("job");
+
+        verify(paymentProcessor).retry(2);
+        verify(paymentProcessor, never()).retry(1);
+        verify(paymentProcessor, never()).submit(anyInt());
+        assertThat(job.getTotals()).contains("\"COMPLETED/USD\":{\"amount\":20.0,\"count\":1}");
+        assertThat(job.getTotals()).contains("\"PENDING/USD\"");
+        assertThat(job.getAffected()).isEqualTo(1);
+    }
+
+    @Test
+    void reconciliationLeavesPaymentsAWorkerHasClaimed() {
+        job(BatchCheckpoint.RECONCILE);
+        Payment charging = payment(1, "PENDING", "APPROVED");
+        charging.setClaimedAt(LocalDateTime.now().minusMinutes(1));
+        Payment abandoned = payment(2, "PENDING", "APPROVED");
+        abandoned.setClaimedAt(LocalDateTime.now().minusMinutes(30));
+        when(paymentRepository.findKeysAfter(any(), anyInt(), any(), any(), any()))
+            .thenReturn(List.of(key(1), key(2)), List.of());
+        when(paymentRepository.findByPaymentIdIn(List.of(1, 2))).thenReturn(List.of(charging, abandoned));
+
+        batchService.run("job");
+
+        verify(paymentProcessor, never()).retry(1);
+        verify(paymentProcessor).retry(2);
+    }
+
+    @Test
+    void ledgerJobRecordsChargesAndRefundsNotYetInTheLedger() {
+        BatchCheckpoint job = job(BatchCheckpoint.LEDGER);
+        Payment completed = payment(1, "COMPLETED", "APPROVED");
+        Payment refunded = payment(2, "REFUNDED", "DECLINED");
+        Payment failed = payment(3, "FAILED", "APPROVED");
+        when(paymentRepository.findKeysAfter(any(), anyInt(), any(), isNull(), any()))
+            .thenReturn(List.of(key(1), key(2)), List.of(key(3)), List.of());
+        when(paymentRepository.findByPaymentIdIn(List.of(1, 2))).thenReturn(List.of(completed, refunded));
+        when(paymentRepository.findByPaymentIdIn(List.of(3))).thenReturn(List.of(failed));
+        // The completed payment was already recorded when it finished
+        when(ledgerService.recordCharge(refunded)).thenReturn(true);
+        when(ledgerService.recordRefund(refunded)).thenReturn(true);
+
+        batchService.run("job");
+
+        verify(ledgerService).recordCharge(completed);
+        verify(ledgerService, never()).recordRefund(completed);
+        verify(ledgerService, never()).recordCharge(failed);
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getProcessed()).isEqualTo(3);
+        assertThat(job.getAffected()).isEqualTo(1);
+    }
+
+    @Test
+    void failingPageIsRetriedOnePaymentAtATime() {
+        BatchCheckpoint job = job(BatchCheckpoint.REFUND);
+        Payment good = payment(1, "COMPLETED", "DECLINED");
+        when(paymentRepository.findKeysAfter(any(), anyInt(), any(), any(), any()))
+            .thenReturn(List.of(key(1), key(2)), List.of());
+        when(paymentRepository.findByPaymentIdIn(List.of(1, 2))).thenThrow(new IllegalStateException("bad row"));
+        when(paymentRepository.findByPaymentIdIn(List.of(1))).thenReturn(List.of(good));
+        when(paymentRepository.findByPaymentIdIn(List.of(2))).thenThrow(new IllegalStateException("bad row"));
+
+        batchService.run("job");
+
+        assertThat(good.getStatus()).isEqualTo("REFUNDED");
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getProcessed()).isEqualTo(2);
+        assertThat(job.getFailed()).isEqualTo(1);
+    }
+
+    @Test
+    void mergedTotalsAddUp() {
+        String first = batchService.mergeTotals(null, Map.of("COMPLETED/USD", total(10.10)));
+        String merged = batchService.mergeTotals(first, Map.of("COMPLETED/USD", total(0.20)));
+
+        assertThat(merged).isEqualTo("{\"COMPLETED/USD\":{\"amount\":10.3,\"count\":2}}");
+    }
+
+    private static ReconciliationTotal total(double amount) {
+        ReconciliationTotal total = new ReconciliationTotal();
+        total.add(amount);
+        return total;
+    }
+}
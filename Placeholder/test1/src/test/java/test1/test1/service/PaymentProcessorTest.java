@@ -0,0 +1,287 @@
+package test1.test1.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionOperations;
+
+import test1.test1.config.PaymentGatewayProperties;
+import test1.test1.model.Booking;
+import test1.test1.model.Game;
+import test1.test1.model.Payment;
+import test1.test1.model.User;
+import test1.test1.repository.PaymentRepository;
+
+class PaymentProcessorTest {
+
+    private PaymentRepository paymentRepository;
+    private PaymentGateway gateway;
+    private LedgerService ledgerService;
+    private BookingService bookingService;
+    private ApplicationEventPublisher events;
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentProcessor processor;
+
+    @BeforeEach
+    void setup() {
+        paymentRepository = mock(PaymentRepository.class);
+        gateway = mock(PaymentGateway.class);
+        ledgerService = mock(LedgerService.class);
+        bookingService = mock(BookingService.class);
+        events = mock(ApplicationEventPublisher.class);
+        meterRegistry = new SimpleMeterRegistry();
+        processor = new PaymentProcessor(paymentRepository, gateway, ledgerService, bookingService,
+            TransactionOperations.withoutTransaction(), events, meterRegistry, 1, 1, 5);
+        when(paymentRepository.finishPending(anyInt(), any(), any(), any())).thenReturn(1);
+        when(paymentRepository.claimPending(anyInt(), any(), any(), any())).thenReturn(1);
+    }
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        processor.destroy();
+    }
+
+    private Payment pending(int id, String method) {
+        Booking booking = new Booking(new User("john"), new Game("Chess", "Desc", 10.0),
+            LocalDate.now(), LocalDate.now().plusDays(1), 20.0);
+        booking.setBookingId(100 + id);
+        Payment payment = new Payment(booking, method, 20.0, "USD");
+        payment.setPaymentId(id);
+        payment.setTransactionId("txn_" + id);
+        when(paymentRepository.findById(id)).thenReturn(Optional.of(payment));
+        return payment;
+    }
+
+    @Test
+    void approvedChargeCompletesPaymentAndPublishesEvent() {
+        Payment payment = pending(1, "stripe");
+        when(gateway.charge(eq(payment), any())).thenReturn(PaymentGateway.Result.approved());
+
+        processor.process(1);
+
+        verify(paymentRepository).finishPending(eq(1), eq("COMPLETED"), any(), isNull());
+        verify(ledgerService).recordCharge(payment);
+        verify(bookingService, never()).updateBookingStatus(anyInt(), any());
+        ArgumentCaptor<PaymentFinishedEvent> event = ArgumentCaptor.forClass(PaymentFinishedEvent.class);
+        verify(events).publishEvent(event.capture());
+        assertThat(event.getValue().getStatus()).isEqualTo("COMPLETED");
+        assertThat(meterRegistry.counter("payments.processed", "method", "stripe", "outcome", "COMPLETED").count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void chargeCarriesTheSameIdempotencyKeyEveryTime() {
+        Payment payment = pending(13, "stripe");
+        when(gateway.charge(eq(payment), any())).thenReturn(PaymentGateway.Result.declined("Card declined"));
+        when(paymentRepository.finishPending(eq(13), any(), any(), any())).thenReturn(0);
+
+        processor.process(13);
+        processor.process(13);
+
+        verify(gateway, times(2)).charge(payment, "payment-13");
+    }
+
+    @Test
+    void paymentClaimedElsewhereIsNotCharged() {
+        pending(14, "stripe");
+        when(paymentRepository.claimPending(eq(14), any(), any(), any())).thenReturn(0);
+
+        processor.process(14);
+
+        verify(gateway, never()).charge(any(), any());
+        verify(paymentRepository, never()).finishPending(anyInt(), any(), any(), any());
+    }
+
+    @Test
+    void resumePendingOnlyRetriesUnclaimedOldPayments() {
+        Payment payment = pending(15, "stripe");
+        when(paymentRepository.findResumableIds(any(), any())).thenReturn(List.of(15));
+        when(gateway.charge(eq(payment), any())).thenReturn(PaymentGateway.Result.approved());
+
+        LocalDateTime before = LocalDateTime.now();
+        processor.resumePending();
+
+        ArgumentCaptor<LocalDateTime> createdBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(paymentRepository).findResumableIds(createdBefore.capture(), any());
+        assertThat(createdBefore.getValue()).isBefore(before.minusMinutes(4));
+        verify(paymentRepository, timeout(1000)).finishPending(eq(15), eq("COMPLETED"), any(), isNull());
+    }
+
+    @Test
+    void declinedChargeFailsPaymentWithReason() {
+        Payment payment = pending(2, "paypal");
+        when(gateway.charge(eq(payment), any())).thenReturn(PaymentGateway.Result.declined("Card declined"));
+
+        processor.process(2);
+
+        verify(paymentRepository).finishPending(eq(2), eq("FAILED"), isNull(), eq("Card declined"));
+        verify(ledgerService, never()).recordCharge(any());
+        verify(bookingService).updateBookingStatus(102, "DECLINED");
+    }
+
+    @Test
+    void gatewayExceptionFailsPayment() {
+        Payment payment = pending(3, "stripe");
+        when(gateway.charge(eq(payment), any())).thenThrow(new IllegalStateException("connection reset"));
+
+        processor.process(3);
+
+        verify(paymentRepository).finishPending(eq(3), eq("FAILED"), isNull(), eq(PaymentProcessor.GATEWAY_ERROR));
+    }
+
+    @Test
+    void gatewayFailureKeepsItsMessageAsReason() {
+        Payment payment = pending(10, "stripe");
+        when(gateway.charge(eq(payment), any()))
+            .thenThrow(new PaymentGatewayException(ResilientPaymentGateway.UNAVAILABLE));
+
+        processor.process(10);
+
+        verify(paymentRepository).finishPending(eq(10), eq("FAILED"), isNull(),
+            eq(ResilientPaymentGateway.UNAVAILABLE));
+    }
+
+    @Test
+    void timedOutChargeStaysPendingWithItsBooking() {
+        Payment payment = pending(20, "stripe");
+        when(gateway.charge(eq(payment), any())).thenThrow(
+            new PaymentOutcomeUnknownException(ResilientPaymentGateway.TIMED_OUT, new TimeoutException()));
+
+        processor.process(20);
+
+        verify(paymentRepository, never()).finishPending(anyInt(), any(), any(), any());
+        verify(bookingService, never()).updateBookingStatus(anyInt(), any());
+        verify(events, never()).publishEvent(any());
+        assertThat(meterRegistry.counter("payments.processed", "method", "stripe", "outcome", "UNKNOWN").count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void finishedPaymentIsNotChargedAgain() {
+        Payment payment = pending(4, "stripe");
+        payment.setStatus("COMPLETED");
+
+        processor.process(4);
+
+        verify(gateway, never()).charge(any(), any());
+    }
+
+    @Test
+    void missingPaymentIsNotCharged() {
+        when(paymentRepository.findById(12)).thenReturn(Optional.empty());
+
+        processor.process(12);
+
+        verify(gateway, never()).charge(any(), any());
+        verify(paymentRepository, never()).finishPending(anyInt(), any(), any(), any());
+    }
+
+    @Test
+    void paymentFinishedElsewhereDoesNotPublishTwice() {
+        Payment payment = pending(5, "stripe");
+        when(gateway.charge(eq(payment), any())).thenReturn(PaymentGateway.Result.approved());
+        when(paymentRepository.finishPending(eq(5), any(), any(), any())).thenReturn(0);
+
+        processor.process(5);
+
+        verify(events, never()).publishEvent(any());
+        verify(ledgerService, never()).recordCharge(any());
+        verify(bookingService, never()).updateBookingStatus(anyInt(), any());
+    }
+
+    @Test
+    void fullQueueFailsPaymentInsteadOfWaiting() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Payment first = pending(6, "stripe");
+        when(gateway.charge(eq(first), any())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return PaymentGateway.Result.approved();
+        });
+        pending(7, "stripe");
+        pending(8, "stripe");
+
+        processor.submit(6); // running
+        verify(gateway, timeout(1000)).charge(eq(first), any());
+        processor.submit(7); // queued
+        processor.submit(8); // rejected
+
+        verify(paymentRepository).finishPending(eq(8), eq("FAILED"), isNull(), eq(PaymentProcessor.BUSY));
+        verify(bookingService).updateBookingStatus(108, "DECLINED");
+        release.countDown();
+    }
+
+    @Test
+    void retryWithFullQueueLeavesPaymentPending() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Payment first = pending(16, "stripe");
+        when(gateway.charge(eq(first), any())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return PaymentGateway.Result.approved();
+        });
+        pending(17, "stripe");
+        pending(18, "stripe");
+
+        processor.submit(16); // running
+        verify(gateway, timeout(1000)).charge(eq(first), any());
+        assertThat(processor.retry(17)).isTrue(); // queued
+        assertThat(processor.retry(18)).isFalse(); // rejected
+
+        verify(paymentRepository, never()).finishPending(eq(18), any(), any(), any());
+        verify(bookingService, never()).updateBookingStatus(anyInt(), any());
+        release.countDown();
+    }
+
+    @Test
+    void simulatedGatewayDeclinesUnsupportedMethods() {
+        Payment payment = pending(9, "cashapp");
+
+        assertThat(new SimulatedPaymentGateway().charge(payment, "payment-9").isApproved()).isFalse();
+    }
+
+    @Test
+    void simulatedGatewayFailsWithConfiguredErrorRate() {
+        Payment payment = pending(11, "stripe");
+        PaymentGatewayProperties.Simulator settings = new PaymentGatewayProperties.Simulator();
+        settings.setErrorRate(1.0);
+
+        assertThatThrownBy(() -> new SimulatedPaymentGateway(settings).charge(payment, "payment-11"))
+            .isInstanceOf(PaymentGatewayException.class);
+    }
+
+    @Test
+    void simulatedGatewayReplaysTheOutcomeOfAKey() {
+        Payment payment = pending(19, "stripe");
+        PaymentGatewayProperties.Simulator settings = new PaymentGatewayProperties.Simulator();
+        settings.setDeclineRate(0.5);
+        SimulatedPaymentGateway simulator = new SimulatedPaymentGateway(settings);
+
+        boolean first = simulator.charge(payment, "payment-19").isApproved();
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(simulator.charge(payment, "payment-19").isApproved()).isEqualTo(first);
+        }
+    }
+}
@@ -4,6 +4,8 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import org.junit.jupiter.api.Test;
@@ -12,6 +14,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -33,6 +37,15 @@ class PaymentServiceTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private PaymentProcessor paymentProcessor;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private PaymentService paymentService;
 
@@ -45,25 +58,23 @@ class PaymentServiceTest {
     }
 
     @Test
-    void processPayment_stripe_success_setsCompletedStatus() {
+    void processPayment_stripe_acceptedAsPendingAndQueued() {
         Booking booking = sampleBooking();
         when(bookingRepository.findById(10)).thenReturn(Optional.of(booking));
-        when(paymentRepository.save(any(Payment.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(inv -> {
+            Payment p = inv.getArgument(0);
+            p.setPaymentId(7);
+            return p;
+        });
 
-        Payment result = null;
-        for (int i = 0; i < 20; i++) {
-            result = paymentService.processPayment(10, "stripe", 50.0, "USD", "1111", "Visa", null);
-            if ("COMPLETED".equals(result.getStatus())) {
-                break;
-            }
-        }
+        Payment result = paymentService.processPayment(10, "stripe", 50.0, "USD", "1111", "Visa", null);
 
-        assertThat(result).isNotNull();
-        assertThat(result.getStatus()).isEqualTo("COMPLETED");
-        assertThat(result.getCompletedAt()).isNotNull();
+        assertThat(result.getStatus()).isEqualTo("PENDING");
+        assertThat(result.getCompletedAt()).isNull();
         assertThat(result.getCardLast4()).isEqualTo("1111");
         assertThat(result.getCardBrand()).isEqualTo("Visa");
         assertThat(result.getTransactionId()).startsWith("txn_stripe_");
+        verify(paymentProcessor).submit(7);
     }
 
     @Test
@@ -74,6 +85,7 @@ class PaymentServiceTest {
 
         Payment result = paymentService.processPayment(10, "cashapp", 75.0, "EUR", null, null, "user@example.com");
 
+        verify(paymentProcessor, never()).submit(any());
         assertThat(result.getStatus()).isEqualTo("FAILED");
         assertThat(result.getFailureReason()).isNotBlank();
         assertThat(result.getCompletedAt()).isNull();
@@ -101,6 +113,7 @@ class PaymentServiceTest {
 
         assertThat(result.getStatus()).isEqualTo("REFUNDED");
         assertThat(result.getFailureReason()).isEqualTo("Reason");
+        verify(ledgerService).recordRefund(payment);
     }
 
     @Test
@@ -147,23 +160,18 @@ class PaymentServiceTest {
     }
 
     @Test
-    void processPayment_paypal_success_setsPaypalDetails() {
+    void processPayment_paypal_setsPaypalDetails() {
         // Arrange
         Booking booking = sampleBooking();
         String paypalEmail = "test@paypal.com";
         when(bookingRepository.findById(10)).thenReturn(Optional.of(booking));
         when(paymentRepository.save(any(Payment.class))).thenAnswer(inv -> inv.getArgument(0));
 
-        // Act - Loop to ensure we hit the 95% success path for simulation
-        Payment result = null;
-        for (int i = 0; i < 50; i++) {
-            result = paymentService.processPayment(10, "paypal", 50.0, "USD", null, null, paypalEmail);
-            if ("COMPLETED".equals(result.getStatus())) break;
-        }
+        // Act
+        Payment result = paymentService.processPayment(10, "paypal", 50.0, "USD", null, null, paypalEmail);
 
         // Assert
-        assertThat(result).isNotNull();
-        assertThat(result.getStatus()).isEqualTo("COMPLETED");
+        assertThat(result.getStatus()).isEqualTo("PENDING");
         assertThat(result.getPaypalEmail()).isEqualTo(paypalEmail);
         assertThat(result.getTransactionId()).startsWith("txn_paypal_");
         assertThat(result.getCardLast4()).isNull(); // Ensure stripe details aren't set
@@ -184,6 +192,8 @@ class PaymentServiceTest {
         assertThat(result.getFailureReason()).contains("Payment processing failed");
         // Verify default transaction ID prefix is paypal (based on current ternary logic)
         assertThat(result.getTransactionId()).startsWith("txn_paypal_");
+        assertThat(meterRegistry.counter("payments.processed", "method", "other", "outcome", "FAILED").count())
+                .isEqualTo(1.0);
     }
 
     @Test
@@ -238,6 +248,8 @@ class PaymentServiceTest {
         assertThat(refunded.getTransactionId()).isEqualTo("txn_123"); // ID should not change
         assertThat(refunded.getAmount()).isEqualTo(100.0); // Amount should remain same
         assertThat(refunded.getFailureReason()).isEqualTo("Customer requested refund");
+        assertThat(meterRegistry.counter("payments.processed", "method", "stripe", "outcome", "REFUNDED").count())
+                .isEqualTo(1.0);
     }
 
     @Test
@@ -0,0 +1,128 @@
+package test1.test1.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import test1.test1.config.PaymentGatewayProperties;
+import test1.test1.model.Booking;
+import test1.test1.model.Game;
+import test1.test1.model.Payment;
+import test1.test1.model.User;
+import test1.test1.util.CircuitBreaker;
+
+class ResilientPaymentGatewayTest {
+
+    private PaymentGateway provider;
+    private PaymentGatewayProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ResilientPaymentGateway gateway;
+
+    @BeforeEach
+    void setup() {
+        provider = mock(PaymentGateway.class);
+        properties = new PaymentGatewayProperties();
+        PaymentGatewayProperties.Resilience stripe = new PaymentGatewayProperties.Resilience();
+        stripe.setTimeout(Duration.ofMillis(200));
+        stripe.setMaxConcurrentCalls(1);
+        stripe.setSlidingWindowSize(4);
+        stripe.setMinimumCalls(4);
+        stripe.setFailureRateThreshold(50);
+        stripe.setOpenDuration(Duration.ofMinutes(1));
+        properties.getResilience().put("stripe", stripe);
+        meterRegistry = new SimpleMeterRegistry();
+        gateway = new ResilientPaymentGateway(provider, properties, meterRegistry);
+    }
+
+    @AfterEach
+    void shutdown() {
+        gateway.destroy();
+    }
+
+    private Payment payment(String method) {
+        Booking booking = new Booking(new User("john"), new Game("Chess", "Desc", 10.0),
+            LocalDate.now(), LocalDate.now().plusDays(1), 20.0);
+        return new Payment(booking, method, 20.0, "USD");
+    }
+
+    @Test
+    void passesProviderAnswersThrough() {
+        Payment payment = payment("stripe");
+        when(provider.charge(eq(payment), any())).thenReturn(PaymentGateway.Result.declined("Card declined"));
+
+        PaymentGateway.Result result = gateway.charge(payment, "key");
+
+        assertThat(result.getFailureReason()).isEqualTo("Card declined");
+        assertThat(meterRegistry.counter("payments.gateway.calls", "gateway", "stripe", "outcome", "declined").count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void slowProviderTimesOut() {
+        Payment payment = payment("stripe");
+        when(provider.charge(eq(payment), any())).thenAnswer(inv -> {
+            Thread.sleep(5000);
+            return PaymentGateway.Result.approved();
+        });
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> gateway.charge(payment, "key"))
+            .isInstanceOf(PaymentOutcomeUnknownException.class)
+            .hasMessage(ResilientPaymentGateway.TIMED_OUT);
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(2));
+    }
+
+    @Test
+    void fullBulkheadRejectsExtraCalls() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        Payment first = payment("stripe");
+        Payment second = payment("stripe");
+        when(provider.charge(eq(first), any())).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return PaymentGateway.Result.approved();
+        });
+        properties.getResilience().get("stripe").setTimeout(Duration.ofSeconds(5));
+        Thread caller = new Thread(() -> gateway.charge(first, "key"));
+        caller.start();
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> gateway.charge(second, "key"))
+            .isInstanceOf(PaymentGatewayException.class)
+            .hasMessage(ResilientPaymentGateway.BUSY);
+
+        release.countDown();
+        caller.join(5000);
+    }
+
+    @Test
+    void repeatedErrorsOpenTheBreakerForThatGatewayOnly() {
+        when(provider.charge(any(), any())).thenThrow(new PaymentGatewayException("down"));
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> gateway.charge(payment("stripe"), "key")).hasMessage("down");
+        }
+
+        assertThat(gateway.breakerState("stripe")).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> gateway.charge(payment("stripe"), "key"))
+            .hasMessage(ResilientPaymentGateway.UNAVAILABLE);
+        verify(provider, times(4)).charge(any(), any());
+
+        assertThatThrownBy(() -> gateway.charge(payment("paypal"), "key")).hasMessage("down");
+        assertThat(gateway.breakerState("paypal")).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+}
@@ -0,0 +1,125 @@
+package test1.test1.service;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import test1.test1.config.CacheConfig;
+import test1.test1.model.User;
+import test1.test1.repository.UserRepository;
+import test1.test1.util.PasswordUtil;
+
+@SpringJUnitConfig(UserServiceCacheTest.Config.class)
+class UserServiceCacheTest {
+
+    @Configuration
+    @EnableCaching
+    static class Config {
+        @Bean
+        UserRepository userRepository() {
+            return mock(UserRepository.class);
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(CacheConfig.USERS_BY_ID, CacheConfig.USERS_BY_USERNAME);
+        }
+
+        @Bean
+        UserService userService(UserRepository userRepository) {
+            return new UserService(userRepository, mock(PasswordUtil.class));
+        }
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        reset(userRepository);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        user = new User("alice");
+        user.setUserId(1);
+    }
+
+    @Test
+    void getUserById_hitsRepositoryOnce() {
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+
+        assertThat(userService.getUserById(1)).contains(user);
+        assertThat(userService.getUserById(1)).contains(user);
+
+        verify(userRepository, times(1)).findById(1);
+    }
+
+    @Test
+    void getUserById_doesNotCacheMisses() {
+        when(userRepository.findById(2)).thenReturn(Optional.empty());
+
+        assertThat(userService.getUserById(2)).isEmpty();
+        assertThat(userService.getUserById(2)).isEmpty();
+
+        verify(userRepository, times(2)).findById(2);
+    }
+
+    @Test
+    void findByUsername_hitsRepositoryOnce() {
+        when(userRepository.findByUsername("alice")).thenReturn(user);
+
+        assertThat(userService.findByUsername("alice")).contains(user);
+        assertThat(userService.findByUsername("alice")).contains(user);
+
+        verify(userRepository, times(1)).findByUsername("alice");
+    }
+
+    @Test
+    void updateUser_evictsCachedEntries() {
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(userRepository.findByUsername("alice")).thenReturn(user);
+        when(userRepository.save(user)).thenReturn(user);
+        userService.getUserById(1);
+        userService.findByUsername("alice");
+
+        userService.updateUser(1, "alice2", null);
+        userService.getUserById(1);
+        userService.findByUsername("alice");
+
+        // one load before the update, one inside it, one after eviction
+        verify(userRepository, times(3)).findById(1);
+        verify(userRepository, times(2)).findByUsername("alice");
+    }
+
+    @Test
+    void deleteUser_evictsCachedEntries() {
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(1)).thenReturn(true);
+        userService.getUserById(1);
+
+        userService.deleteUser(1);
+        userService.getUserById(1);
+
+        verify(userRepository, times(2)).findById(1);
+    }
+}
@@ -0,0 +1,72 @@
+package test1.tests.unittests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import test1.test1.dto.CatalogCursor;
+import test1.test1.dto.GameSearchCriteria;
+
+public class CatalogCursorTest {
+
+    @Test
+    void testCursorRoundTrip(){
+        CatalogCursor cursor = new CatalogCursor(GameSearchCriteria.Sort.ALPHABETICAL, "Zelda | Breath of the Wild", 42);
+
+        CatalogCursor decoded = CatalogCursor.decode(cursor.encode(), GameSearchCriteria.Sort.ALPHABETICAL);
+
+        assertEquals(decoded.getGameId(), 42);
+        assertEquals(decoded.getSortValue(), "Zelda | Breath of the Wild");
+    }
+
+    @Test
+    void testSortValueIsTyped(){
+        CatalogCursor newest = new CatalogCursor(GameSearchCriteria.Sort.NEWEST, LocalDate.of(2025, 3, 1), 1);
+        CatalogCursor cheapest = new CatalogCursor(GameSearchCriteria.Sort.PRICE_LOW, 4.5, 2);
+
+        assertEquals(CatalogCursor.decode(newest.encode(), GameSearchCriteria.Sort.NEWEST).getSortValue(),
+            LocalDate.of(2025, 3, 1));
+        assertEquals(CatalogCursor.decode(cheapest.encode(), GameSearchCriteria.Sort.PRICE_LOW).getSortValue(), 4.5);
+    }
+
+    @Test
+    void testInvalidCursorRejected(){
+        assertThrows(IllegalArgumentException.class,
+            () -> CatalogCursor.decode("not-a-cursor", GameSearchCriteria.Sort.NEWEST));
+    }
+
+    @Test
+    void testCursorFromAnotherSortRejected(){
+        String title = new CatalogCursor(GameSearchCriteria.Sort.ALPHABETICAL, "Halo", 3).encode();
+        String date = new CatalogCursor(GameSearchCriteria.Sort.NEWEST, LocalDate.of(2025, 3, 1), 3).encode();
+
+        assertThrows(IllegalArgumentException.class, () -> CatalogCursor.decode(title, GameSearchCriteria.Sort.PRICE_HIGH));
+        assertThrows(IllegalArgumentException.class, () -> CatalogCursor.decode(date, GameSearchCriteria.Sort.OLDEST));
+    }
+
+    @Test
+    void testSortFromParam(){
+        assertEquals(GameSearchCriteria.Sort.fromParam(null), GameSearchCriteria.Sort.NEWEST);
+        assertEquals(GameSearchCriteria.Sort.fromParam("price-high"), GameSearchCriteria.Sort.PRICE_HIGH);
+        assertThrows(IllegalArgumentException.class, () -> GameSearchCriteria.Sort.fromParam("random"));
+    }
+
+    @Test
+    void testLimitIsClamped(){
+        GameSearchCriteria criteria = new GameSearchCriteria();
+        criteria.setLimit(10_000);
+        assertEquals(criteria.getLimit(), GameSearchCriteria.MAX_LIMIT);
+        criteria.setLimit(null);
+        assertEquals(criteria.getLimit(), GameSearchCriteria.DEFAULT_LIMIT);
+    }
+
+    @Test
+    void testPlatformSlugMapsToTag(){
+        GameSearchCriteria criteria = new GameSearchCriteria();
+        criteria.setPlatform("nintendo");
+        assertEquals(criteria.getPlatformTag(), "Nintendo Switch");
+    }
+}
@@ -0,0 +1,113 @@
+package test1.tests.unittests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import test1.test1.util.CircuitBreaker;
+
+public class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    // Opens at 50% failures of the last 4 calls, after at least 4; one trial call when half open
+    private CircuitBreaker breaker() {
+        return new CircuitBreaker(50, 4, 4, Duration.ofSeconds(10), 1, now::get);
+    }
+
+    private static void call(CircuitBreaker breaker, boolean fails) {
+        assertTrue(breaker.tryAcquire());
+        if (fails) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+
+    @Test
+    void testStaysClosedBelowMinimumCalls(){
+        CircuitBreaker breaker = breaker();
+        call(breaker, true);
+        call(breaker, true);
+        call(breaker, true);
+
+        assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void testOpensAtFailureRateAndRejectsCalls(){
+        CircuitBreaker breaker = breaker();
+        call(breaker, false);
+        call(breaker, false);
+        call(breaker, true);
+        call(breaker, true);
+
+        assertEquals(breaker.getState(), CircuitBreaker.State.OPEN);
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void testOldOutcomesLeaveTheWindow(){
+        CircuitBreaker breaker = breaker();
+        call(breaker, true);
+        call(breaker, false);
+        call(breaker, false);
+        call(breaker, false);
+        call(breaker, true); // pushes the first failure out: still 1 of 4
+
+        assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void testHalfOpenTrialSuccessCloses(){
+        CircuitBreaker breaker = breaker();
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true);
+        }
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(breaker.getState(), CircuitBreaker.State.HALF_OPEN);
+        assertFalse(breaker.tryAcquire()); // only one trial at a time
+        breaker.onSuccess();
+
+        assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED);
+        call(breaker, true); // fresh window
+        assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void testHalfOpenTrialFailureReopens(){
+        CircuitBreaker breaker = breaker();
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true);
+        }
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        call(breaker, true);
+
+        assertEquals(breaker.getState(), CircuitBreaker.State.OPEN);
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void testReleasedTrialIsNeitherSuccessNorFailure(){
+        CircuitBreaker breaker = breaker();
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true);
+        }
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertTrue(breaker.tryAcquire());
+        breaker.release();
+
+        assertEquals(breaker.getState(), CircuitBreaker.State.HALF_OPEN);
+        call(breaker, false); // the slot is free for the next trial
+        assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED);
+    }
+}
@@ -0,0 +1,40 @@
+package test1.tests.unittests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import test1.test1.util.ImageVariant;
+
+public class ImageVariantTest {
+
+    @Test
+    void testVariantUrlForUpload(){
+        assertEquals("/images/game_images/abc-thumb.jpg", ImageVariant.THUMB.urlFor("/images/game_images/abc.png"));
+        assertEquals("/images/game_images/abc-full.jpg", ImageVariant.FULL.urlFor("/images/game_images/abc.jpg"));
+    }
+
+    @Test
+    void testVariantUrlForShardedUpload(){
+        assertEquals("/images/game_images/3f/3fa9-card.jpg", ImageVariant.CARD.urlFor("/images/game_images/3f/3fa9.png"));
+        assertNull(ImageVariant.CARD.urlFor("/images/game_images/3f/ab/3fa9.png"));
+        assertNull(ImageVariant.CARD.urlFor("/images/game_images/../3fa9.png"));
+    }
+
+    @Test
+    void testNoVariantForOtherImages(){
+        assertNull(ImageVariant.THUMB.urlFor(null));
+        assertNull(ImageVariant.THUMB.urlFor("https://example.com/cover.png"));
+        assertNull(ImageVariant.THUMB.urlFor("data:image/png;base64,AAAA"));
+        assertNull(ImageVariant.THUMB.urlFor("/images/game_images/abc-card.jpg"));
+    }
+
+    @Test
+    void testIsVariant(){
+        assertTrue(ImageVariant.isVariant("abc-thumb.jpg"));
+        assertFalse(ImageVariant.isVariant("abc.jpg"));
+    }
+}
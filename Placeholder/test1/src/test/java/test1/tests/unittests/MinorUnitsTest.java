@@ -0,0 +1,47 @@
+package test1.tests.unittests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+import test1.test1.util.MinorUnits;
+
+public class MinorUnitsTest {
+
+    @Test
+    void testCentsForTwoDecimalCurrencies(){
+        assertEquals(MinorUnits.toMinor(19.99, "USD"), 1999L);
+        assertEquals(MinorUnits.toMinor(0.1 + 0.2, "EUR"), 30L);
+    }
+
+    @Test
+    void testRoundsHalfUp(){
+        assertEquals(MinorUnits.toMinor(10.005, "USD"), 1001L);
+        assertEquals(MinorUnits.toMinor(-10.005, "USD"), -1001L);
+    }
+
+    @Test
+    void testYenHasNoMinorUnit(){
+        assertEquals(MinorUnits.toMinor(1500.4, "JPY"), 1500L);
+        assertEquals(MinorUnits.toMajor(1500, "JPY"), new BigDecimal("1500"));
+    }
+
+    @Test
+    void testUnknownCurrencyUsesTwoDecimals(){
+        assertEquals(MinorUnits.toMinor(2.5, "XYZ1"), 250L);
+        assertEquals(MinorUnits.toMinor(2.5, null), 250L);
+    }
+
+    @Test
+    void testLowerCaseCodes(){
+        assertEquals(MinorUnits.toMinor(7, "jpy"), 7L);
+    }
+
+    @Test
+    void testBackToMajorUnits(){
+        assertEquals(MinorUnits.toMajor(1999, "USD"), new BigDecimal("19.99"));
+        assertEquals(MinorUnits.toMajor(-5, "EUR"), new BigDecimal("-0.05"));
+    }
+}
@@ -16,3 +16,10 @@ Feature: Payment processing
     And payment outcome for method "stripe" is "COMPLETED"
     When I submit a payment of 75.0 "EUR" using method "stripe"
     Then the response status should be 200
+
+  Scenario: Process payment is accepted while the provider charges it
+    Given a user exists with username "john" and id 10
+    And a booking will be created for user 10 and game 5 between "2025-12-14" and "2025-12-16" with booking id 102
+    And payment outcome for method "paypal" is "PENDING"
+    When I submit a payment of 30.0 "EUR" using method "paypal"
+    Then the response status should be 202
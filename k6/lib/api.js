@@ -0,0 +1,83 @@
+import http from 'k6/http';
+
+export const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+
+const JSON_HEADERS = { 'Content-Type': 'application/json' };
+
+// Requests are tagged with a route-style name so URLs with ids are grouped
+// into one series and thresholds can target a single endpoint.
+function params(name, extra = {}) {
+  return Object.assign({ tags: { name } }, extra);
+}
+
+// A 400 from booking/payment endpoints is a business outcome (dates taken,
+// simulated payment decline), not a transport failure.
+export const OK_OR_REJECTED = http.expectedStatuses(200, 400);
+// Payments are usually accepted as PENDING (202) and charged in the background
+export const ACCEPTED_OR_REJECTED = http.expectedStatuses(200, 202, 400);
+
+export function createUser(username, password, role) {
+  const query = `username=${encodeURIComponent(username)}&password=${encodeURIComponent(password)}&role=${role}`;
+  return http.post(`${BASE_URL}/users?${query}`, null, params('POST /users'));
+}
+
+export function login(username, password) {
+  const body = { username, password };
+  return http.post(`${BASE_URL}/auth/login`, body, params('POST /auth/login'));
+}
+
+export function createGame(game) {
+  return http.post(`${BASE_URL}/games`, JSON.stringify(game), params('POST /games', { headers: JSON_HEADERS }));
+}
+
+export function listGames() {
+  return http.get(`${BASE_URL}/games`, params('GET /games'));
+}
+
+export function searchGames(query) {
+  return http.get(`${BASE_URL}/games/search?${query}`, params('GET /games/search'));
+}
+
+export function getGame(id) {
+  return http.get(`${BASE_URL}/games/${id}`, params('GET /games/{id}'));
+}
+
+export function getAvailability(id) {
+  return http.get(`${BASE_URL}/games/${id}/availability`, params('GET /games/{id}/availability'));
+}
+
+export function getGameBookings(id) {
+  return http.get(`${BASE_URL}/bookings/game/${id}`, params('GET /bookings/game/{id}'));
+}
+
+export function createBooking(username, gameId, startDate, endDate) {
+  const body = JSON.stringify({ username, gameId, startDate, endDate });
+  return http.post(`${BASE_URL}/bookings/create`, body,
+    params('POST /bookings/create', { headers: JSON_HEADERS, responseCallback: OK_OR_REJECTED }));
+}
+
+export function processPayment(user, gameId, startDate, endDate, amount) {
+  const body = JSON.stringify({
+    method: 'stripe',
+    amount,
+    currency: 'USD',
+    bookingData: { userId: user.userId, username: user.username, gameId, startDate, endDate },
+    card: { number: '4242424242424242', expiry: '12/30', cvc: '123', name: user.username },
+  });
+  return http.post(`${BASE_URL}/payments/process`, body,
+    params('POST /payments/process', { headers: JSON_HEADERS, responseCallback: ACCEPTED_OR_REJECTED }));
+}
+
+// statusUrl as returned by POST /payments/process, e.g. /payments/42
+export function getPayment(statusUrl) {
+  return http.get(`${BASE_URL}${statusUrl}`, params('GET /payments/{id}'));
+}
+
+export function getOwnerBookings(username) {
+  return http.get(`${BASE_URL}/bookings/owner/${encodeURIComponent(username)}`, params('GET /bookings/owner/{username}'));
+}
+
+export function updateBookingStatus(id, status) {
+  return http.put(`${BASE_URL}/bookings/${id}/status`, JSON.stringify({ status }),
+    params('PUT /bookings/{id}/status', { headers: JSON_HEADERS, responseCallback: http.expectedStatuses(200, 409) }));
+}
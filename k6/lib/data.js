@@ -0,0 +1,80 @@
+import { check, fail } from 'k6';
+import { createGame, createUser, login } from './api.js';
+
+const PLATFORMS = ['PlayStation', 'Xbox', 'Nintendo Switch', 'PC'];
+const GENRES = ['Action', 'Adventure', 'RPG', 'Sports', 'Racing', 'Puzzle'];
+const CONDITIONS = ['new', 'excellent', 'good', 'fair'];
+
+export const PASSWORD = 'k6-password';
+
+export function randomInt(min, max) {
+  return Math.floor(Math.random() * (max - min + 1)) + min;
+}
+
+export function pick(items) {
+  return items[Math.floor(Math.random() * items.length)];
+}
+
+export function isoDate(date) {
+  return date.toISOString().slice(0, 10);
+}
+
+export function addDays(date, days) {
+  const copy = new Date(date.getTime());
+  copy.setUTCDate(copy.getUTCDate() + days);
+  return copy;
+}
+
+/**
+ * Random rental window inside the seeded listing period (tomorrow up to a
+ * year out). Collisions with earlier bookings are expected and rejected.
+ */
+export function randomRental() {
+  const start = addDays(new Date(), randomInt(1, 360));
+  const end = addDays(start, randomInt(0, 4));
+  return { startDate: isoDate(start), endDate: isoDate(end), days: Math.round((end - start) / 86400000) + 1 };
+}
+
+/**
+ * Creates owners, renters and games for this run. Names carry a run id so
+ * repeated runs against the same database do not clash.
+ */
+export function seed({ owners, renters, gamesPerOwner }) {
+  const runId = `${Date.now().toString(36)}${randomInt(0, 1295).toString(36)}`;
+  const today = new Date();
+  const data = { runId, owners: [], renters: [], games: [] };
+
+  for (let i = 0; i < owners; i++) {
+    const username = `k6_owner_${runId}_${i}`;
+    check(createUser(username, PASSWORD, 'owner'), { 'seed owner created': r => r.status === 200 }) ||
+      fail(`could not create owner ${username}`);
+    data.owners.push(username);
+
+    for (let g = 0; g < gamesPerOwner; g++) {
+      const platform = pick(PLATFORMS);
+      const res = createGame({
+        title: `${pick(GENRES)} Game ${runId}-${i}-${g}`,
+        description: 'Seeded by the k6 load test',
+        price: randomInt(1, 15),
+        condition: pick(CONDITIONS),
+        tags: `${platform},${pick(GENRES)}`,
+        active: true,
+        ownerUsername: username,
+        startDate: isoDate(today),
+        endDate: isoDate(addDays(today, 365)),
+      });
+      check(res, { 'seed game created': r => r.status === 200 }) || fail(`could not create game for ${username}`);
+      data.games.push({ id: res.json('gameId'), owner: username, price: res.json('pricePerDay') });
+    }
+  }
+
+  for (let i = 0; i < renters; i++) {
+    const username = `k6_renter_${runId}_${i}`;
+    createUser(username, PASSWORD, 'renter');
+    const res = login(username, PASSWORD);
+    check(res, { 'seed renter can log in': r => r.status === 200 }) || fail(`could not log in ${username}`);
+    data.renters.push({ userId: res.json('userId'), username });
+  }
+
+  return data;
+}
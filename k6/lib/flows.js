@@ -0,0 +1,133 @@
+import { check, group, sleep } from 'k6';
+import {
+  createBooking, getAvailability, getGame, getGameBookings, getOwnerBookings, getPayment, listGames, login,
+  processPayment, searchGames, updateBookingStatus,
+} from './api.js';
+import { PASSWORD, pick, randomInt, randomRental } from './data.js';
+
+const SORTS = ['newest', 'price-low', 'price-high', 'alphabetical'];
+const PLATFORMS = ['playstation', 'xbox', 'nintendo', 'pc'];
+
+function think(min = 1, max = 3) {
+  sleep(min + Math.random() * (max - min));
+}
+
+/** Anonymous visitor: catalog pages, then a couple of game detail pages. */
+export function browse(data) {
+  group('browse catalog', () => {
+    let res = searchGames(`sort=${pick(SORTS)}&limit=24`);
+    check(res, { 'catalog 200': r => r.status === 200 });
+
+    if (Math.random() < 0.5) {
+      const query = `platform=${pick(PLATFORMS)}&sort=${pick(SORTS)}&limit=24`;
+      res = searchGames(query);
+      check(res, { 'filtered catalog 200': r => r.status === 200 });
+      // A cursor only continues the query and sort it came from
+      const cursor = res.status === 200 ? res.json('nextCursor') : null;
+      if (cursor) {
+        check(searchGames(`${query}&cursor=${encodeURIComponent(cursor)}`), { 'next page 200': r => r.status === 200 });
+      }
+    }
+
+    // The legacy full listing is still used by the home page
+    if (Math.random() < 0.2) {
+      check(listGames(), { 'games 200': r => r.status === 200 });
+    }
+  });
+  think();
+
+  for (let i = 0; i < randomInt(1, 3); i++) {
+    viewGame(pick(data.games).id);
+    think();
+  }
+}
+
+function viewGame(id) {
+  group('game details', () => {
+    check(getGame(id), { 'game 200': r => r.status === 200 });
+    check(getAvailability(id), { 'availability 200': r => r.status === 200 });
+    check(getGameBookings(id), { 'game bookings 200': r => r.status === 200 });
+  });
+}
+
+/** Logged-in renter: looks at a game and requests a booking for it. */
+export function rent(data) {
+  const renter = pick(data.renters);
+  const game = pick(data.games);
+
+  group('login', () => {
+    check(login(renter.username, PASSWORD), { 'login 200': r => r.status === 200 });
+  });
+  viewGame(game.id);
+  think();
+
+  group('create booking', () => {
+    const rental = randomRental();
+    const res = createBooking(renter.username, game.id, rental.startDate, rental.endDate);
+    check(res, {
+      'booking accepted or rejected': r => r.status === 200 || r.status === 400,
+      'booking has id': r => r.status !== 200 || r.json('bookingId') !== undefined,
+    });
+  });
+  think();
+}
+
+/** Renter going through checkout: books and pays in one request. */
+export function pay(data) {
+  const renter = pick(data.renters);
+  const game = pick(data.games);
+
+  viewGame(game.id);
+  think();
+
+  group('checkout', () => {
+    const rental = randomRental();
+    const res = processPayment(renter, game.id, rental.startDate, rental.endDate, rental.days * game.price);
+    check(res, {
+      'payment accepted or rejected': r => r.status === 200 || r.status === 202 || r.status === 400,
+      'payment has status url': r => r.status !== 202 || (!!r.json('paymentId') && !!r.json('statusUrl')),
+    });
+    if (res.status === 202) {
+      awaitPayment(res.json('statusUrl'));
+    }
+  });
+  think(2, 5);
+}
+
+// Polls like the checkout page does until the background charge settles
+function awaitPayment(statusUrl, attempts = 10) {
+  for (let i = 0; i < attempts; i++) {
+    sleep(0.5);
+    const res = getPayment(statusUrl);
+    check(res, { 'payment status 200': r => r.status === 200 });
+    if (res.status !== 200 || res.json('status') !== 'PENDING') {
+      return;
+    }
+  }
+}
+
+/** Owner dashboard: lists bookings for their games and decides on pending ones. */
+export function approve(data) {
+  const owner = pick(data.owners);
+
+  group('login', () => {
+    check(login(owner, PASSWORD), { 'login 200': r => r.status === 200 });
+  });
+
+  group('review bookings', () => {
+    const res = getOwnerBookings(owner);
+    check(res, { 'owner bookings 200': r => r.status === 200 });
+    if (res.status !== 200) {
+      return;
+    }
+    const pending = res.json().filter(b => b.status === 'PENDING').slice(0, 3);
+    for (const booking of pending) {
+      const status = Math.random() < 0.8 ? 'APPROVED' : 'DECLINED';
+      check(updateBookingStatus(booking.bookingId, status), {
+        'status updated': r => r.status === 200 || r.status === 409,
+      });
+      think(0.5, 1.5);
+    }
+  });
+  think(3, 6);
+}
@@ -0,0 +1,30 @@
+// Latency budgets per endpoint (p95 / p99 in ms). Writes go through SQLite
+// and bcrypt, so they get more room than catalog reads.
+const BUDGETS = {
+  'POST /auth/login': [400, 800],
+  'GET /games': [500, 1000],
+  'GET /games/search': [300, 600],
+  'GET /games/{id}': [150, 300],
+  'GET /games/{id}/availability': [150, 300],
+  'GET /bookings/game/{id}': [200, 400],
+  'POST /bookings/create': [400, 800],
+  'POST /payments/process': [600, 1200],
+  'GET /payments/{id}': [150, 300],
+  'GET /bookings/owner/{username}': [300, 600],
+  'PUT /bookings/{id}/status': [400, 800],
+};
+
+/**
+ * Threshold block for options.thresholds. `factor` loosens every budget,
+ * e.g. 2 for the stress test where saturation is the point.
+ */
+export function endpointThresholds(factor = 1) {
+  const thresholds = {
+    http_req_failed: ['rate<0.01'],
+    checks: ['rate>0.99'],
+  };
+  for (const [name, [p95, p99]] of Object.entries(BUDGETS)) {
+    thresholds[`http_req_duration{name:${name}}`] = [`p(95)<${p95 * factor}`, `p(99)<${p99 * factor}`];
+  }
+  return thresholds;
+}
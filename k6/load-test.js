@@ -0,0 +1,58 @@
+import { endpointThresholds } from './lib/thresholds.js';
+import { seed } from './lib/data.js';
+
+export { browse, rent, pay, approve } from './lib/flows.js';
+
+// Traffic mix of a normal day: mostly browsing, some bookings and checkouts,
+// owners reviewing requests. Run with: k6 run -e BASE_URL=http://localhost:8080 k6/load-test.js
+export const options = {
+  ext: {
+    loadimpact: {
+      projectID: 6149459,
+      name: 'Load Test'
+    }
+  },
+  scenarios: {
+    browsers: {
+      executor: 'ramping-vus',
+      exec: 'browse',
+      startVUs: 0,
+      stages: [
+        { duration: '1m', target: 40 },
+        { duration: '5m', target: 40 },
+        { duration: '1m', target: 0 },
+      ],
+    },
+    renters: {
+      executor: 'ramping-vus',
+      exec: 'rent',
+      startVUs: 0,
+      stages: [
+        { duration: '1m', target: 10 },
+        { duration: '5m', target: 10 },
+        { duration: '1m', target: 0 },
+      ],
+    },
+    checkouts: {
+      executor: 'ramping-vus',
+      exec: 'pay',
+      startVUs: 0,
+      stages: [
+        { duration: '1m', target: 5 },
+        { duration: '5m', target: 5 },
+        { duration: '1m', target: 0 },
+      ],
+    },
+    owners: {
+      executor: 'constant-vus',
+      exec: 'approve',
+      vus: 3,
+      duration: '7m',
+    },
+  },
+  thresholds: endpointThresholds(),
+};
+
+export function setup() {
+  return seed({ owners: 10, renters: 50, gamesPerOwner: 10 });
+}
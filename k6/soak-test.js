@@ -0,0 +1,26 @@
+import { endpointThresholds } from './lib/thresholds.js';
+import { seed } from './lib/data.js';
+
+export { browse, rent, pay, approve } from './lib/flows.js';
+
+// Normal traffic mix held for two hours to surface leaks, cache growth and
+// slow drift in latency.
+export const options = {
+  ext: {
+    loadimpact: {
+      projectID: 6149459,
+      name: 'Soak Test'
+    }
+  },
+  scenarios: {
+    browsers: { executor: 'constant-vus', exec: 'browse', vus: 35, duration: '2h' },
+    renters: { executor: 'constant-vus', exec: 'rent', vus: 8, duration: '2h' },
+    checkouts: { executor: 'constant-vus', exec: 'pay', vus: 4, duration: '2h' },
+    owners: { executor: 'constant-vus', exec: 'approve', vus: 3, duration: '2h' },
+  },
+  thresholds: endpointThresholds(),
+};
+
+export function setup() {
+  return seed({ owners: 10, renters: 50, gamesPerOwner: 10 });
+}
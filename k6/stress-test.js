@@ -1,6 +1,10 @@
-import http from 'k6/http';
-import { check, sleep } from 'k6';
+import { endpointThresholds } from './lib/thresholds.js';
+import { seed } from './lib/data.js';
 
+export { browse, rent, pay, approve } from './lib/flows.js';
+
+// Same flows as load-test.js, ramped well past normal traffic to find the
+// point where latency or errors give out. Budgets are doubled here.
 export const options = {
   ext: {
     loadimpact: {
@@ -8,22 +12,53 @@ export const options = {
       name: 'Stress Test'
     }
   },
-  stages: [
-    { duration: '2m', target: 50 },
-    { duration: '5m', target: 150 },
-    { duration: '3m', target: 300 },
-    { duration: '2m', target: 0 },
-  ],
-  thresholds: {
-    http_req_failed: ['rate<0.05'],
-    http_req_duration: ['p(95)<1500'],
+  scenarios: {
+    browsers: {
+      executor: 'ramping-vus',
+      exec: 'browse',
+      startVUs: 0,
+      stages: [
+        { duration: '2m', target: 50 },
+        { duration: '5m', target: 150 },
+        { duration: '3m', target: 300 },
+        { duration: '2m', target: 0 },
+      ],
+    },
+    renters: {
+      executor: 'ramping-vus',
+      exec: 'rent',
+      startVUs: 0,
+      stages: [
+        { duration: '2m', target: 10 },
+        { duration: '5m', target: 30 },
+        { duration: '3m', target: 60 },
+        { duration: '2m', target: 0 },
+      ],
+    },
+    checkouts: {
+      executor: 'ramping-vus',
+      exec: 'pay',
+      startVUs: 0,
+      stages: [
+        { duration: '2m', target: 5 },
+        { duration: '5m', target: 15 },
+        { duration: '3m', target: 30 },
+        { duration: '2m', target: 0 },
+      ],
+    },
+    owners: {
+      executor: 'constant-vus',
+      exec: 'approve',
+      vus: 5,
+      duration: '12m',
+    },
   },
+  thresholds: Object.assign(endpointThresholds(2), {
+    http_req_failed: ['rate<0.05'],
+    checks: ['rate>0.95'],
+  }),
 };
 
-export default function () {
-  const res = http.get(`${__ENV.BASE_URL}/api/orders`);
-  check(res, {
-    'no 5xx': r => r.status < 500,
-  });
-  sleep(1);
+export function setup() {
+  return seed({ owners: 20, renters: 100, gamesPerOwner: 10 });
 }